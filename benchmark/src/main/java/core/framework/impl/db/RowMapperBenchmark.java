@@ -0,0 +1,83 @@
+package core.framework.impl.db;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compare generated row mapper against hand written mapping, result set returns constant values to measure mapping cost only
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+    private RowMapper<TestEntity> mapper;
+    private ResultSetWrapper resultSet;
+
+    @Setup
+    public void setup() {
+        mapper = new RowMapperBuilder<>(TestEntity.class, new EnumDBMapper()).build();
+        resultSet = new ResultSetWrapper(resultSet(), 1, 2, 3, 4, 5, 6);
+    }
+
+    private ResultSet resultSet() {
+        var timestamp = Timestamp.valueOf(LocalDateTime.now());
+        return (ResultSet) Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getInt":
+                    return 1;
+                case "getString":
+                    return "value";
+                case "getLong":
+                    return 2L;
+                case "getDouble":
+                    return 3.0;
+                case "getBoolean":
+                    return true;
+                case "getTimestamp":
+                    return timestamp;
+                case "wasNull":
+                    return false;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public TestEntity generated() throws SQLException {
+        return mapper.map(resultSet);
+    }
+
+    @Benchmark
+    public TestEntity handWritten() throws SQLException {
+        int[] indexes = resultSet.columnIndexes;
+        var entity = new TestEntity();
+        entity.id = resultSet.getInt(indexes[0]);
+        entity.stringField = resultSet.getString(indexes[1]);
+        entity.longField = resultSet.getLong(indexes[2]);
+        entity.doubleField = resultSet.getDouble(indexes[3]);
+        entity.booleanField = resultSet.getBoolean(indexes[4]);
+        entity.dateTimeField = resultSet.getLocalDateTime(indexes[5]);
+        return entity;
+    }
+}
@@ -0,0 +1,32 @@
+package core.framework.impl.db;
+
+import core.framework.db.Column;
+import core.framework.db.PrimaryKey;
+import core.framework.db.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author neo
+ */
+@Table(name = "test_entity")
+public class TestEntity {
+    @PrimaryKey(autoIncrement = true)
+    @Column(name = "id")
+    public Integer id;
+
+    @Column(name = "string_field")
+    public String stringField;
+
+    @Column(name = "long_field")
+    public Long longField;
+
+    @Column(name = "double_field")
+    public Double doubleField;
+
+    @Column(name = "boolean_field")
+    public Boolean booleanField;
+
+    @Column(name = "date_time_field")
+    public LocalDateTime dateTimeField;
+}
@@ -0,0 +1,45 @@
+package core.framework.impl.log.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measure formatting log message with arguments, which is called for every log event of action log
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogFilterBenchmark {
+    private final LogFilter filter = new LogFilter();
+    private final StringBuilder builder = new StringBuilder(1024);
+    private Object[] arguments;
+
+    @Setup
+    public void setup() {
+        arguments = new Object[]{"customer-1001", 42, List.of("a", "b", "c"), new String[]{"x", "y"}, Map.of("key", "value")};
+    }
+
+    @Benchmark
+    public int append() {
+        builder.setLength(0);
+        filter.append(builder, "process, id={}, count={}, list={}, array={}, map={}", arguments);
+        return builder.length();
+    }
+}
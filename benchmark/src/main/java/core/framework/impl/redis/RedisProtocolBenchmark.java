@@ -0,0 +1,86 @@
+package core.framework.impl.redis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * compare parsing MGET reply into Object[] against reading array elements one by one
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisProtocolBenchmark {
+    private static final int SIZE = 500;
+    private byte[] reply;
+
+    @Setup
+    public void setup() {
+        var builder = new StringBuilder().append('*').append(SIZE).append("\r\n");
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 10 == 0) {
+                builder.append("$-1\r\n");
+            } else {
+                String value = "{\"id\":" + i + ",\"name\":\"value-" + i + "\"}";
+                builder.append('$').append(value.getBytes(UTF_8).length).append("\r\n").append(value).append("\r\n");
+            }
+        }
+        reply = builder.toString().getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public void readObject(Blackhole blackhole) throws IOException {
+        Object[] response = (Object[]) Protocol.read(new RedisInputStream(new ByteArrayInputStream(reply)));
+        List<String> values = new ArrayList<>(response.length);
+        for (Object value : response) {
+            values.add(RedisEncodings.decode((byte[]) value));
+        }
+        blackhole.consume(values);
+    }
+
+    @Benchmark
+    public void readArrayElements(Blackhole blackhole) throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(reply));
+        int length = Protocol.readArrayLength(stream);
+        List<String> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(Protocol.readString(stream));
+        }
+        blackhole.consume(values);
+    }
+
+    @Benchmark
+    public void writeCommand(Blackhole blackhole) throws IOException {
+        var output = new ByteArrayOutputStream(SIZE * 16);
+        var stream = new RedisOutputStream(output, 8192);
+        Protocol.writeArray(stream, SIZE + 1);
+        Protocol.writeBulkString(stream, Protocol.Command.MGET);
+        for (int i = 0; i < SIZE; i++) {
+            Protocol.writeBulkString(stream, "cache:key-" + i);
+        }
+        stream.flush();
+        blackhole.consume(output);
+    }
+}
@@ -0,0 +1,56 @@
+package core.framework.impl.resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measure borrow and return under contention, with more threads than pool size, so threads wait for permits
+ *
+ * @author neo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class PoolBenchmark {
+    private Pool<TestResource> pool;
+
+    @Setup
+    public void setup() {
+        pool = new Pool<>(TestResource::new, "benchmark");
+        pool.size(8, 8);
+        pool.warmUp();
+    }
+
+    @TearDown
+    public void cleanup() {
+        pool.close();
+    }
+
+    @Benchmark
+    public void borrowAndReturn() {
+        PoolItem<TestResource> item = pool.borrowItem();
+        pool.returnItem(item);
+    }
+
+    public static class TestResource implements AutoCloseable {
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package core.framework.impl.validate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measure generated bean validator on valid bean, which is happy path of every request/response bean
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanValidatorBenchmark {
+    private BeanValidator validator;
+    private TestBean bean;
+
+    @Setup
+    public void setup() {
+        validator = new BeanValidatorBuilder(TestBean.class, Field::getName).build().orElseThrow();
+        bean = new TestBean();
+        bean.name = "name";
+        bean.email = "name@example.com";
+        bean.quantity = 10;
+        bean.items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            var item = new TestBean.Item();
+            item.sku = "sku-" + i;
+            item.price = 9.99;
+            bean.items.add(item);
+        }
+    }
+
+    @Benchmark
+    public boolean validate() {
+        var errors = new ValidationErrors();
+        validator.validate(bean, errors, false);
+        return errors.hasError();
+    }
+}
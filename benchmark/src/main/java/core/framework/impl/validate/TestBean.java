@@ -0,0 +1,44 @@
+package core.framework.impl.validate;
+
+import core.framework.api.validate.Length;
+import core.framework.api.validate.Max;
+import core.framework.api.validate.Min;
+import core.framework.api.validate.NotBlank;
+import core.framework.api.validate.NotNull;
+import core.framework.api.validate.Pattern;
+import core.framework.api.validate.Size;
+
+import java.util.List;
+
+/**
+ * @author neo
+ */
+public class TestBean {
+    @NotNull
+    @NotBlank
+    @Length(max = 50)
+    public String name;
+
+    @NotNull
+    @Pattern("[a-z0-9._-]+@[a-z0-9.-]+")
+    public String email;
+
+    @NotNull
+    @Min(0)
+    @Max(1000)
+    public Integer quantity;
+
+    @NotNull
+    @Size(min = 1, max = 10)
+    public List<Item> items;
+
+    public static class Item {
+        @NotNull
+        @Length(max = 20)
+        public String sku;
+
+        @NotNull
+        @Min(0)
+        public Double price;
+    }
+}
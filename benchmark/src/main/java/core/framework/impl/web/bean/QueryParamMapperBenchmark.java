@@ -0,0 +1,56 @@
+package core.framework.impl.web.bean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measure generated query param mapper in both directions, toParams is used by web service client, fromParams by controller
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParamMapperBenchmark {
+    private QueryParamMapper<TestQueryBean> mapper;
+    private TestQueryBean bean;
+    private Map<String, String> params;
+
+    @Setup
+    public void setup() {
+        mapper = new QueryParamMapperBuilder<>(TestQueryBean.class).build();
+        bean = new TestQueryBean();
+        bean.name = "product";
+        bean.page = 1;
+        bean.size = 20;
+        bean.minPrice = 9.99;
+        bean.inStock = Boolean.TRUE;
+        bean.fromDate = LocalDate.now();
+        params = mapper.toParams(bean);
+    }
+
+    @Benchmark
+    public Map<String, String> toParams() {
+        return mapper.toParams(bean);
+    }
+
+    @Benchmark
+    public TestQueryBean fromParams() {
+        return mapper.fromParams(params);
+    }
+}
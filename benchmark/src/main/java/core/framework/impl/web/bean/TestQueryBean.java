@@ -0,0 +1,28 @@
+package core.framework.impl.web.bean;
+
+import core.framework.api.web.service.QueryParam;
+
+import java.time.LocalDate;
+
+/**
+ * @author neo
+ */
+public class TestQueryBean {
+    @QueryParam(name = "name")
+    public String name;
+
+    @QueryParam(name = "page")
+    public Integer page;
+
+    @QueryParam(name = "size")
+    public Integer size;
+
+    @QueryParam(name = "min_price")
+    public Double minPrice;
+
+    @QueryParam(name = "in_stock")
+    public Boolean inStock;
+
+    @QueryParam(name = "from_date")
+    public LocalDate fromDate;
+}
@@ -0,0 +1,61 @@
+package core.framework.impl.web.request;
+
+import core.framework.impl.log.ActionLog;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * measure parsing GET request with query params and proxy headers, which is on path of every http request
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParserBenchmark {
+    private final RequestParser parser = new RequestParser();
+    private HttpServerExchange exchange;
+
+    @Setup
+    public void setup() {
+        exchange = new HttpServerExchange(null);
+        exchange.setRequestMethod(Methods.GET);
+        exchange.setRequestScheme("http");
+        exchange.setRequestURI("/api/v1/product/1001");
+        exchange.setQueryString("name=product%20name&page=1&size=20");
+        exchange.addQueryParam("name", "product%20name");
+        exchange.addQueryParam("page", "1");
+        exchange.addQueryParam("size", "20");
+        exchange.setSourceAddress(new InetSocketAddress("10.0.1.23", 50000));
+        exchange.getRequestHeaders()
+                .put(Headers.HOST, "www.example.com")
+                .put(Headers.X_FORWARDED_PROTO, "https")
+                .put(Headers.X_FORWARDED_FOR, "108.1.2.3, 10.0.1.22")
+                .put(Headers.USER_AGENT, "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_14_0) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/70.0.3538.77 Safari/537.36")
+                .put(Headers.ACCEPT, "application/json");
+    }
+
+    @Benchmark
+    public RequestImpl parse() throws Throwable {
+        var request = new RequestImpl(exchange, null);
+        parser.parse(request, exchange, new ActionLog(null));
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package core.framework.impl.web.route;
+
+import core.framework.impl.web.request.PathParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compare walking registration tree with parsed Path segments against compiled trie, with 300 dynamic routes
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathTrieBenchmark {
+    private static final String[] RESOURCES = {"customer", "order", "product", "inventory", "payment", "shipment", "coupon", "review", "store", "employee"};
+    private final List<String> paths = new ArrayList<>();
+    private PathNode root;
+    private PathTrie trie;
+
+    @Setup
+    public void setup() {
+        root = new PathNode(null);
+        for (int version = 1; version <= 3; version++) {
+            for (String resource : RESOURCES) {
+                register(version, resource);
+            }
+        }
+        root.register("/static/:path(*)");
+        trie = PathTrie.compile(root);
+
+        paths.add("/api/v1/customer/1001");
+        paths.add("/api/v2/order/200/detail");
+        paths.add("/api/v3/employee/3/history/10");
+        paths.add("/api/v1/product/55/items/12/");
+        paths.add("/internal/v2/payment/action4/99");
+        paths.add("/static/css/main.css");
+        paths.add("/api/v1/unknown/1");
+    }
+
+    private void register(int version, String resource) {
+        String prefix = "/api/v" + version + "/" + resource;
+        root.register(prefix + "/:id");
+        root.register(prefix + "/:id/detail");
+        root.register(prefix + "/:id/history/:historyId");
+        root.register(prefix + "/:id/items/:itemId/");
+        root.register("/ajax/v" + version + "/" + resource + "/:id");
+        for (int i = 0; i < 5; i++) {
+            root.register("/internal/v" + version + "/" + resource + "/action" + i + "/:id");
+        }
+    }
+
+    @Benchmark
+    public void pathNode(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(root.find(path, new PathParams()));
+        }
+    }
+
+    @Benchmark
+    public void pathTrie(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(trie.find(path, new PathParams()));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package core.framework.internal.json;
+
+import core.framework.api.json.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compare writing json to String then converting to byte[] against writing to byte stream directly
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONMapperBenchmark {
+    private final JSONMapper<TestBean> mapper = new JSONMapper<>(TestBean.class);
+    private TestBean bean;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        bean = new TestBean();
+        bean.id = "8F3DC6C4D3A6B6A1F3E1";
+        bean.name = "product name with some descriptions";
+        bean.price = 19.99;
+        bean.quantity = 100;
+        bean.createdTime = LocalDateTime.now();
+        bean.tags = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bean.tags.add("tag-" + i);
+        }
+        json = mapper.toJSON(bean);
+    }
+
+    @Benchmark
+    public byte[] toJSON() {
+        return mapper.toJSON(bean);
+    }
+
+    @Benchmark
+    public byte[] writeJSON() {
+        var stream = new ByteArrayOutputStream(json.length);
+        mapper.writeJSON(bean, stream);
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    public TestBean fromJSON() {
+        return mapper.fromJSON(json);
+    }
+
+    public static class TestBean {
+        @Property(name = "id")
+        public String id;
+        @Property(name = "name")
+        public String name;
+        @Property(name = "price")
+        public Double price;
+        @Property(name = "quantity")
+        public Integer quantity;
+        @Property(name = "created_time")
+        public LocalDateTime createdTime;
+        @Property(name = "tags")
+        public List<String> tags;
+    }
+}
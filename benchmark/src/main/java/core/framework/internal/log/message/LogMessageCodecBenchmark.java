@@ -0,0 +1,88 @@
+package core.framework.internal.log.message;
+
+import core.framework.internal.json.JSONMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+ * compare json and binary encoding of action log message
+ * compare json and binary encoding of action log message, bytes per message are printed on setup
+ *
+ * @author neo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogMessageCodecBenchmark {
+    private final JSONMapper<ActionLogMessage> mapper = new JSONMapper<>(ActionLogMessage.class);
+    private final LogMessageCodec codec = new LogMessageCodec();
+    private ActionLogMessage message;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        message = new ActionLogMessage();
+        message.id = "8F3DC6C4D3A6B6A1F3E1";
+        message.date = Instant.now();
+        message.app = "website";
+        message.serverIP = "10.0.1.23";
+        message.result = "OK";
+        message.action = "api:get:/product/:id";
+        message.correlationIds = List.of("8F3DC6C4D3A6B6A1F3E0");
+        message.clients = List.of("frontend");
+        message.elapsed = 12_345_678L;
+        message.cpuTime = 2_345_678L;
+        message.context = new LinkedHashMap<>();
+        message.context.put("method", "GET");
+        message.context.put("requestURL", "https://localhost/product/123");
+        message.context.put("clientIP", "10.0.2.15");
+        message.context.put("controller", "app.web.ProductController.get");
+        message.stats = Map.of("response_body_length", 2048d);
+        var stat = new PerformanceStat();
+        stat.count = 3;
+        stat.totalElapsed = 4_567_890L;
+        stat.readEntries = 12;
+        stat.writeEntries = 0;
+        message.performanceStats = Map.of("db", stat);
+
+        json = mapper.toJSON(message);
+        binary = codec.encode(message);
+    }
+
+    @Benchmark
+    public byte[] encodeJSON() {
+        return mapper.toJSON(message);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return codec.encode(message);
+    }
+
+    @Benchmark
+    public ActionLogMessage decodeJSON() {
+        return mapper.fromJSON(json);
+    }
+
+    @Benchmark
+    public ActionLogMessage decodeBinary() {
+        return codec.decodeActionLog(binary);
+    }
+}
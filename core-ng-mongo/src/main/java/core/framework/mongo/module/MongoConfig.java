@@ -3,6 +3,7 @@ package core.framework.mongo.module;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.mongo.Mongo;
 import core.framework.mongo.MongoCollection;
 import core.framework.mongo.impl.MongoImpl;
@@ -39,7 +40,7 @@ public class MongoConfig extends Config {
 
     MongoImpl createMongo() {
         var mongo = new MongoImpl();
-        context.startupHook.add(mongo::initialize);
+        context.startupHook.add(StartupHook.STAGE_0, "mongo" + (name == null ? "" : "-" + name), mongo::initialize);
         context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> mongo.close());
         return mongo;
     }
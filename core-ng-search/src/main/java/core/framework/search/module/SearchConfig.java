@@ -3,6 +3,7 @@ package core.framework.search.module;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.search.ElasticSearch;
 import core.framework.search.ElasticSearchType;
 import core.framework.search.impl.ElasticSearchImpl;
@@ -43,7 +44,7 @@ public class SearchConfig extends Config {
 
     private ElasticSearchImpl createElasticSearch(ModuleContext context) {
         var search = new ElasticSearchImpl();
-        context.startupHook.add(search::initialize);
+        context.startupHook.add(StartupHook.STAGE_0, "elasticsearch", search::initialize);
         context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> search.close());
         return search;
     }
@@ -8,4 +8,8 @@ public class TestLogConfig extends LogConfig {
     public void appendToKafka(String kafkaURI) {
         appendToConsole();
     }
+
+    @Override
+    public void binaryEncoding() {
+    }
 }
@@ -22,6 +22,10 @@ public class TestRedisConfig extends RedisConfig {
     public void poolSize(int minSize, int maxSize) {
     }
 
+    @Override
+    public void poolSpareSize(int spareSize) {
+    }
+
     @Override
     public void slowOperationThreshold(Duration threshold) {
     }
@@ -29,4 +33,8 @@ public class TestRedisConfig extends RedisConfig {
     @Override
     public void timeout(Duration timeout) {
     }
+
+    @Override
+    public void multiplex(int connections) {
+    }
 }
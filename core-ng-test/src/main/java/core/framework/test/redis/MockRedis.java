@@ -3,6 +3,7 @@ package core.framework.test.redis;
 import core.framework.redis.Redis;
 import core.framework.redis.RedisHash;
 import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
 import core.framework.redis.RedisSet;
 import core.framework.util.Maps;
 
@@ -105,4 +106,9 @@ public final class MockRedis implements Redis {
     public RedisList list() {
         return list;
     }
+
+    @Override
+    public RedisPipeline pipeline() {
+        return new MockRedisPipeline(this);
+    }
 }
@@ -0,0 +1,81 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisPipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @author neo
+ */
+public final class MockRedisPipeline implements RedisPipeline {
+    private final MockRedis redis;
+    private final List<Runnable> commands = new ArrayList<>();
+    private boolean executed;
+
+    MockRedisPipeline(MockRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public Supplier<String> get(String key) {
+        var reply = new Reply<String>();
+        commands.add(() -> reply.value = redis.get(key));
+        return reply;
+    }
+
+    @Override
+    public void set(String key, String value, Duration expiration) {
+        commands.add(() -> redis.set(key, value, expiration, false));
+    }
+
+    @Override
+    public void expire(String key, Duration expiration) {
+        commands.add(() -> redis.expire(key, expiration));
+    }
+
+    @Override
+    public void del(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        commands.add(() -> redis.del(keys));
+    }
+
+    @Override
+    public Supplier<Long> increaseBy(String key, long increment) {
+        var reply = new Reply<Long>();
+        commands.add(() -> reply.value = redis.increaseBy(key, increment));
+        return reply;
+    }
+
+    @Override
+    public Supplier<String> hget(String key, String field) {
+        var reply = new Reply<String>();
+        commands.add(() -> reply.value = redis.hash().get(key, field));
+        return reply;
+    }
+
+    @Override
+    public void hset(String key, String field, String value) {
+        commands.add(() -> redis.hash().set(key, field, value));
+    }
+
+    @Override
+    public void execute() {
+        if (executed) throw new Error("pipeline is already executed");
+        if (commands.isEmpty()) throw new Error("pipeline must not be empty");
+        commands.forEach(Runnable::run);
+        executed = true;
+    }
+
+    private class Reply<T> implements Supplier<T> {
+        T value;
+
+        @Override
+        public T get() {
+            if (!executed) throw new Error("pipeline is not executed");
+            return value;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package core.framework.test.redis;
 
+import core.framework.redis.RedisPipeline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
@@ -103,4 +105,18 @@ class MockRedisTest {
         assertThat(redis.get("key7")).isEqualTo("value7");
         assertThat(redis.get("key8")).isEqualTo("value8");
     }
+
+    @Test
+    void pipeline() {
+        redis.set("key1", "value1");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("key1");
+        pipeline.hset("key2", "field", "value2");
+        Supplier<Long> increased = pipeline.increaseBy("key3", 2);
+        pipeline.execute();
+
+        assertThat(value.get()).isEqualTo("value1");
+        assertThat(increased.get()).isEqualTo(2);
+        assertThat(redis.hash().get("key2", "field")).isEqualTo("value2");
+    }
 }
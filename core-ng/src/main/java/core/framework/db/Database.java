@@ -2,6 +2,7 @@ package core.framework.db;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -11,8 +12,13 @@ public interface Database {
 
     <T> Optional<T> selectOne(String sql, Class<T> viewClass, Object... params);
 
+    // stream rows to consumer one by one without holding all in memory, e.g. export large table,
+    // connection is occupied during iteration, consumer should not query db within same transaction
+    <T> void forEach(String sql, Class<T> viewClass, Consumer<T> consumer, Object... params);
+
     int execute(String sql, Object... params);
 
+    // with db().batchParallelism(), large batch outside transaction is committed in chunks, refer to DBConfig
     int[] batchExecute(String sql, List<Object[]> params);
 
     Transaction beginTransaction();
@@ -2,6 +2,7 @@ package core.framework.db;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -19,6 +20,8 @@ public interface Query<T> {
 
     Optional<T> fetchOne();
 
+    void forEach(Consumer<T> consumer);
+
     <P> Optional<P> project(String projection, Class<P> viewClass);
 
     default int count() {
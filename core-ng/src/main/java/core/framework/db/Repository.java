@@ -38,7 +38,7 @@ public interface Repository<T> {
 
     void delete(Object... primaryKeys);
 
-    void batchInsert(List<T> entities);
+    void batchInsert(List<T> entities);     // may be committed in chunks by parallel connections outside transaction, see db().batchParallelism()
 
     void batchDelete(List<?> primaryKeys);
 }
@@ -1,5 +1,6 @@
 package core.framework.impl.asm;
 
+import core.framework.util.Encodings;
 import javassist.CannotCompileException;
 import javassist.ClassPool;
 import javassist.CtClass;
@@ -8,19 +9,26 @@ import javassist.CtField;
 import javassist.CtMethod;
 import javassist.NotFoundException;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static core.framework.util.Strings.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
+ * class name is derived from hash of source code, so class generated at build time (by running app with codegen output property) can be loaded directly,
+ * and javassist compiling is only fallback if source code is changed or class is not pre generated
+ *
  * @author neo
  */
 public class DynamicInstanceBuilder<T> {
-    private static final AtomicInteger INDEX = new AtomicInteger();
-    private final CtClass classBuilder;
-    private final ClassPool classPool;
+    public static final String CODEGEN_OUTPUT_PROPERTY = "core.framework.codegen.output";
+    private static final Map<String, Class<?>> CLASSES = new ConcurrentHashMap<>();    // lock per class name, different classes can be compiled in parallel
+
     private final SourceCode sourceCode = new SourceCode();
-    private Class<?>[] constructorParamClasses;
 
     public DynamicInstanceBuilder(Class<? super T> interfaceClass, String className) {
         if (!interfaceClass.isInterface())
@@ -28,29 +36,100 @@ public class DynamicInstanceBuilder<T> {
 
         sourceCode.interfaceClass = interfaceClass;
         sourceCode.className = className;
+    }
+
+    public void constructor(Class<?>[] constructorParamClasses, String body) {
+        if (sourceCode.constructorParamClasses != null)
+            throw new Error("dynamic class must have no more than one custom constructor");
+
+        sourceCode.constructorParamClasses = constructorParamClasses;
+        sourceCode.constructorBody = body;
+    }
+
+    public void addMethod(String method) {
+        sourceCode.methods.add(method);
+    }
+
+    public void addField(String pattern, Object... argument) {
+        sourceCode.fields.add(format(pattern, argument));
+    }
+
+    public T build(Object... constructorParams) {
+        String className = className(sourceCode.className, sourceCode.build());
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try {
+            Class<?> targetClass = loadClass(className, loader);
+            if (targetClass == null) {
+                targetClass = CLASSES.computeIfAbsent(className, key -> {     // same class may be built by multiple threads, only define once
+                    Class<?> loadedClass = loadClass(key, loader);
+                    return loadedClass != null ? loadedClass : compile(key);
+                });
+            }
+            Class<?>[] paramClasses = sourceCode.constructorParamClasses == null ? new Class<?>[0] : sourceCode.constructorParamClasses;
+            @SuppressWarnings("unchecked")
+            T instance = (T) targetClass.getDeclaredConstructor(paramClasses).newInstance(constructorParams);
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new Error(e);
+        }
+    }
 
-        classPool = ClassPool.getDefault();
-        classBuilder = classPool.makeClass(className + "$" + (INDEX.getAndIncrement()));
+    String className(String prefix, String sourceCode) {
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5").digest(sourceCode.getBytes(UTF_8));
+            return prefix + "$" + Encodings.hex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new Error(e);
+        }
+    }
+
+    private Class<?> loadClass(String className, ClassLoader loader) {
+        try {
+            return Class.forName(className, false, loader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
 
+    private Class<?> compile(String className) {
+        ClassPool classPool = ClassPool.getDefault();
+        CtClass classBuilder = classPool.makeClass(className);
         try {
-            classBuilder.addInterface(classPool.get(interfaceClass.getName()));
+            classBuilder.addInterface(classPool.get(sourceCode.interfaceClass.getName()));
             CtConstructor constructor = new CtConstructor(null, classBuilder);
             constructor.setBody(";");
             classBuilder.addConstructor(constructor);
-        } catch (NotFoundException | CannotCompileException e) {
+
+            for (String field : sourceCode.fields) {
+                compileField(classBuilder, field);
+            }
+            if (sourceCode.constructorParamClasses != null) {
+                compileConstructor(classPool, classBuilder, sourceCode.constructorParamClasses, sourceCode.constructorBody);
+            }
+            for (String method : sourceCode.methods) {
+                compileMethod(classBuilder, method);
+            }
+
+            String output = System.getProperty(CODEGEN_OUTPUT_PROPERTY);
+            if (output != null) classBuilder.writeFile(output);
+            return classBuilder.toClass();
+        } catch (CannotCompileException | NotFoundException | IOException e) {
             throw new Error(e);
+        } finally {
+            classBuilder.detach();
         }
     }
 
-    public void constructor(Class<?>[] constructorParamClasses, String body) {
-        if (this.constructorParamClasses != null)
-            throw new Error("dynamic class must have no more than one custom constructor");
-
-        sourceCode.constructorParamClasses = constructorParamClasses;
-        sourceCode.constructorBody = body;
+    private void compileField(CtClass classBuilder, String field) {
+        try {
+            classBuilder.addField(CtField.make(field, classBuilder));
+        } catch (CannotCompileException e) {
+            throw new Error(format("{}, source:\n{}", e.getMessage(), field), e);
+        }
+    }
 
+    private void compileConstructor(ClassPool classPool, CtClass classBuilder, Class<?>[] constructorParamClasses, String body) {
         try {
-            this.constructorParamClasses = constructorParamClasses;
             CtClass[] params = new CtClass[constructorParamClasses.length];
             for (int i = 0; i < constructorParamClasses.length; i++) {
                 Class<?> paramClass = constructorParamClasses[i];
@@ -64,8 +143,7 @@ public class DynamicInstanceBuilder<T> {
         }
     }
 
-    public void addMethod(String method) {
-        sourceCode.methods.add(method);
+    private void compileMethod(CtClass classBuilder, String method) {
         try {
             classBuilder.addMethod(CtMethod.make(method, classBuilder));
         } catch (CannotCompileException e) {
@@ -73,27 +151,6 @@ public class DynamicInstanceBuilder<T> {
         }
     }
 
-    public void addField(String pattern, Object... argument) {
-        String field = format(pattern, argument);
-        sourceCode.fields.add(field);
-        try {
-            classBuilder.addField(CtField.make(field, classBuilder));
-        } catch (CannotCompileException e) {
-            throw new Error(format("{}, source:\n{}", e.getMessage(), field), e);
-        }
-    }
-
-    public T build(Object... constructorParams) {
-        try {
-            @SuppressWarnings("unchecked")
-            Class<T> targetClass = (Class<T>) classBuilder.toClass();
-            classBuilder.detach();
-            return targetClass.getDeclaredConstructor(constructorParamClasses).newInstance(constructorParams);
-        } catch (CannotCompileException | ReflectiveOperationException e) {
-            throw new Error(e);
-        }
-    }
-
     public String sourceCode() {
         return sourceCode.build();
     }
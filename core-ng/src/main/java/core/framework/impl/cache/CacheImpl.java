@@ -8,9 +8,18 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -22,9 +31,21 @@ public class CacheImpl<T> implements Cache<T> {
     public final String name;
     public final Type valueType;
     public final Duration duration;
+    final LongAdder loads = new LongAdder();
+    final LongAdder coalescedWaits = new LongAdder();
+    final LongAdder earlyRefreshes = new LongAdder();
     private final Logger logger = LoggerFactory.getLogger(CacheImpl.class);
     private final CacheStore cacheStore;
     private final JSONMapper<T> mapper;
+    private final Map<String, Loading<T>> loadings = Maps.newConcurrentHashMap();   // only one loader call per key in flight, other callers wait for its result
+    // invalidation version per key stripe, fill of near cache is discarded if key is invalidated during read from cache store or loader
+    private final AtomicLongArray nearCacheVersions = new AtomicLongArray(64);
+    LocalCacheStore nearCache;      // decoded values in front of redis, to save network round trip and deserialization, cached value must not be modified
+    NearCacheInvalidator invalidator;
+    LocalCacheStore objectStore;    // with local cache store, keep decoded values instead of json, so hit is lookup only, cached value must not be modified
+    double earlyRefreshBeta;        // probabilistic early refresh, 0 means disabled, refer to http://www.vldb.org/pvldb/vol8/p886-vattani.pdf
+    private Executor refreshExecutor;
+    private volatile double loadElapsedInMs;    // moving average of loader elapsed time
 
     CacheImpl(String name, Type valueType, Duration duration, CacheStore cacheStore) {
         this.name = name;
@@ -34,74 +55,322 @@ public class CacheImpl<T> implements Cache<T> {
         mapper = new JSONMapper<>(valueType);
     }
 
+    public void nearCache(LocalCacheStore nearCache, NearCacheInvalidator invalidator) {
+        this.nearCache = nearCache;
+        this.invalidator = invalidator;
+    }
+
+    public void objectStore(LocalCacheStore objectStore) {
+        this.objectStore = objectStore;
+    }
+
+    public void earlyRefresh(double beta, Executor refreshExecutor) {
+        if (beta <= 0) throw new Error("beta must be greater than 0, beta=" + beta);
+        earlyRefreshBeta = beta;
+        this.refreshExecutor = refreshExecutor;
+    }
+
     @Override
     public T get(String key, Function<String, T> loader) {
         String cacheKey = cacheKey(key);
-        byte[] cacheValue = cacheStore.get(cacheKey);
-        if (cacheValue == null) {
-            logger.debug("load value, key={}", key);
-            T value = loader.apply(key);
-            cacheStore.put(cacheKey, mapper.toJSON(value), duration);
-            return value;
+        LocalCacheStore localStore = objectStore != null ? objectStore : nearCache;
+        if (localStore != null) {
+            T value = getObject(localStore, key, cacheKey, loader);
+            if (value != null) return value;
         }
-        return mapper.fromJSON(cacheValue);
+        long version = nearCacheVersion(cacheKey);
+        if (objectStore == null) {
+            byte[] cacheValue = cacheStore.get(cacheKey);
+            if (cacheValue != null) {
+                T value = mapper.fromJSON(cacheValue);
+                if (nearCache != null) fillNearCache(cacheKey, value, cacheValue.length, version);
+                return value;
+            }
+        }
+        return load(key, cacheKey, loader, version);
     }
 
+    @SuppressWarnings("unchecked")
     public Optional<String> get(String key) {
-        byte[] result = cacheStore.get(cacheKey(key));
+        byte[] result;
+        if (objectStore != null) {
+            Object value = objectStore.getObject(cacheKey(key));
+            result = value == null ? null : mapper.toJSON((T) value);
+        } else {
+            result = cacheStore.get(cacheKey(key));
+        }
         if (result == null) return Optional.empty();
         return Optional.of(new String(result, UTF_8));
     }
 
     @Override
     public Map<String, T> getAll(Collection<String> keys, Function<String, T> loader) {
-        int size = keys.size();
-        int index;
-        String[] cacheKeys = cacheKeys(keys);
-        Map<String, T> values = Maps.newHashMapWithExpectedSize(size);
-        Map<String, byte[]> newValues = Maps.newHashMapWithExpectedSize(size);
+        Map<String, T> values = Maps.newHashMapWithExpectedSize(keys.size());
+        if (objectStore != null) {
+            for (String key : keys) {
+                values.put(key, get(key, loader));
+            }
+            return values;
+        }
+        Collection<String> remainingKeys = nearCache == null ? keys : getAllFromNearCache(keys, loader, values);
+        if (remainingKeys.isEmpty()) return values;
+
+        String[] cacheKeys = cacheKeys(remainingKeys);
+        long[] versions = new long[cacheKeys.length];
+        for (int i = 0; i < cacheKeys.length; i++) {
+            versions[i] = nearCacheVersion(cacheKeys[i]);
+        }
         Map<String, byte[]> cacheValues = cacheStore.getAll(cacheKeys);
-        index = 0;
-        for (String key : keys) {
-            String cacheKey = cacheKeys[index];
-            byte[] cacheValue = cacheValues.get(cacheKey);
+        List<String> missedKeys = new ArrayList<>();
+        int index = 0;
+        for (String key : remainingKeys) {
+            byte[] cacheValue = cacheValues.get(cacheKeys[index]);
             if (cacheValue == null) {
-                logger.debug("load value, key={}", key);
-                T value = loader.apply(key);
-                newValues.put(cacheKey, mapper.toJSON(value));
-                values.put(key, value);
+                missedKeys.add(key);
             } else {
-                values.put(key, mapper.fromJSON(cacheValue));
+                T value = mapper.fromJSON(cacheValue);
+                values.put(key, value);
+                if (nearCache != null) fillNearCache(cacheKeys[index], value, cacheValue.length, versions[index]);
             }
             index++;
         }
-        if (!newValues.isEmpty()) cacheStore.putAll(newValues, duration);
+        if (missedKeys.isEmpty()) return values;
+
+        Map<String, Loading<T>> otherLoadings = loadAll(missedKeys, loader, values);
+        // wait for other callers only after own loadings completed, to avoid deadlock between concurrent getAll
+        for (Map.Entry<String, Loading<T>> entry : otherLoadings.entrySet()) {
+            values.put(entry.getKey(), await(entry.getKey(), entry.getValue()));
+        }
         return values;
     }
 
+    private List<String> getAllFromNearCache(Collection<String> keys, Function<String, T> loader, Map<String, T> values) {
+        List<String> remainingKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            T value = getObject(nearCache, key, cacheKey(key), loader);
+            if (value == null) remainingKeys.add(key);
+            else values.put(key, value);
+        }
+        return remainingKeys;
+    }
+
+    // load keys not being loaded by other callers and put to cache store in one batch, returns loadings of other callers by key
+    private Map<String, Loading<T>> loadAll(List<String> keys, Function<String, T> loader, Map<String, T> values) {
+        Map<String, byte[]> newValues = Maps.newHashMapWithExpectedSize(keys.size());
+        Map<String, Loading<T>> newLoadings = Maps.newHashMap();
+        Map<String, Loading<T>> otherLoadings = Maps.newHashMap();
+        try {
+            for (String key : keys) {
+                String cacheKey = cacheKey(key);
+                long version = nearCacheVersion(cacheKey);
+                var loading = new Loading<T>();
+                Loading<T> previous = loadings.putIfAbsent(cacheKey, loading);
+                if (previous != null) {
+                    otherLoadings.put(key, previous);
+                    continue;
+                }
+                newLoadings.put(cacheKey, loading);
+                T value = load(key, loader, loading);
+                newValues.put(cacheKey, loading.json);
+                values.put(key, value);
+                if (nearCache != null) fillNearCache(cacheKey, value, loading.json.length, version);
+            }
+            if (!newValues.isEmpty()) cacheStore.putAll(newValues, duration);
+        } finally {
+            newLoadings.forEach(loadings::remove);
+        }
+        return otherLoadings;
+    }
+
     @Override
     public void put(String key, T value) {
-        cacheStore.put(cacheKey(key), mapper.toJSON(value), duration);
+        String cacheKey = cacheKey(key);
+        if (objectStore != null) {
+            putObject(cacheKey, value);
+            return;
+        }
+        byte[] cacheValue = mapper.toJSON(value);
+        cacheStore.put(cacheKey, cacheValue, duration);
+        if (nearCache != null) {
+            nearCache.putObject(cacheKey, value, cacheValue.length, duration);
+            invalidator.publish(name, List.of(key));
+        }
     }
 
     @Override
     public void putAll(Map<String, T> values) {
+        if (objectStore != null) {
+            values.forEach((key, value) -> putObject(cacheKey(key), value));
+            return;
+        }
         Map<String, byte[]> cacheValues = Maps.newHashMapWithExpectedSize(values.size());
         for (Map.Entry<String, T> entry : values.entrySet()) {
-            cacheValues.put(cacheKey(entry.getKey()), mapper.toJSON(entry.getValue()));
+            String cacheKey = cacheKey(entry.getKey());
+            byte[] cacheValue = mapper.toJSON(entry.getValue());
+            cacheValues.put(cacheKey, cacheValue);
+            if (nearCache != null) nearCache.putObject(cacheKey, entry.getValue(), cacheValue.length, duration);
         }
         cacheStore.putAll(cacheValues, duration);
+        if (nearCache != null) invalidator.publish(name, new ArrayList<>(values.keySet()));
     }
 
     @Override
     public void evict(String key) {
-        cacheStore.delete(cacheKey(key));
+        String cacheKey = cacheKey(key);
+        if (objectStore != null) {
+            objectStore.delete(cacheKey);
+            return;
+        }
+        cacheStore.delete(cacheKey);
+        if (nearCache != null) {
+            invalidateNearCache(cacheKey);
+            invalidator.publish(name, List.of(key));
+        }
     }
 
     @Override
     public void evictAll(Collection<String> keys) {
         String[] cacheKeys = cacheKeys(keys);
+        if (objectStore != null) {
+            objectStore.delete(cacheKeys);
+            return;
+        }
         cacheStore.delete(cacheKeys);
+        if (nearCache != null) {
+            invalidateNearCache(cacheKeys);
+            invalidator.publish(name, new ArrayList<>(keys));
+        }
+    }
+
+    void invalidateNearCache(List<String> keys) {
+        if (nearCache != null) invalidateNearCache(cacheKeys(keys));
+    }
+
+    private void invalidateNearCache(String... cacheKeys) {
+        for (String cacheKey : cacheKeys) {
+            nearCacheVersions.incrementAndGet(stripe(cacheKey));
+        }
+        nearCache.delete(cacheKeys);
+    }
+
+    void clearNearCache() {
+        for (int i = 0; i < nearCacheVersions.length(); i++) {
+            nearCacheVersions.incrementAndGet(i);
+        }
+        nearCache.clear();
+    }
+
+    // put first then check version, so invalidation between check and put is not missed, removing is always safe
+    private void fillNearCache(String cacheKey, T value, long weight, long version) {
+        nearCache.putObject(cacheKey, value, weight, duration);
+        if (nearCacheVersion(cacheKey) != version) nearCache.delete(cacheKey);
+    }
+
+    private long nearCacheVersion(String cacheKey) {
+        return nearCacheVersions.get(stripe(cacheKey));
+    }
+
+    private int stripe(String cacheKey) {
+        return cacheKey.hashCode() & (nearCacheVersions.length() - 1);
+    }
+
+    // expiration time is only known by local store, so early refresh only applies to object store or near cache
+    @SuppressWarnings("unchecked")
+    private T getObject(LocalCacheStore store, String key, String cacheKey, Function<String, T> loader) {
+        LocalCacheStore.CacheItem item = store.getItem(cacheKey);
+        if (item == null) return null;
+        if (earlyRefreshBeta > 0 && shouldRefresh(item.expirationTime, System.currentTimeMillis(), ThreadLocalRandom.current().nextDouble())) {
+            refresh(key, cacheKey, loader);
+        }
+        return (T) item.value;
+    }
+
+    // probability grows when expiration approaches and with longer load time, so hot key is likely reloaded by one caller before it expires
+    boolean shouldRefresh(long expirationTime, long now, double random) {
+        return now - loadElapsedInMs * earlyRefreshBeta * Math.log(random) >= expirationTime;
+    }
+
+    // loader runs in background, so hit is not blocked by refresh, current value is returned until refreshed
+    private void refresh(String key, String cacheKey, Function<String, T> loader) {
+        var loading = new Loading<T>();
+        if (loadings.putIfAbsent(cacheKey, loading) != null) return;   // other caller is loading, keep current value
+        logger.debug("refresh value before expiration, key={}", key);
+        earlyRefreshes.increment();
+        long version = nearCacheVersion(cacheKey);
+        try {
+            refreshExecutor.execute(() -> reload(key, cacheKey, loader, loading, version));
+        } catch (RejectedExecutionException e) {    // during shutdown
+            logger.warn("failed to submit refresh, key={}", key, e);
+            loading.future.completeExceptionally(e);
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    private void reload(String key, String cacheKey, Function<String, T> loader, Loading<T> loading, long version) {
+        try {
+            T value = load(key, loader, loading);
+            putValue(cacheKey, value, loading.json, version);
+        } catch (Throwable e) {
+            logger.warn("failed to refresh value, key={}, error={}", key, e.getMessage(), e);   // current value is still valid
+        } finally {
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    private T load(String key, String cacheKey, Function<String, T> loader, long version) {
+        var loading = new Loading<T>();
+        Loading<T> previous = loadings.putIfAbsent(cacheKey, loading);
+        if (previous != null) return await(key, previous);
+        try {
+            T value = load(key, loader, loading);
+            putValue(cacheKey, value, loading.json, version);
+            return value;
+        } finally {
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    private T load(String key, Function<String, T> loader, Loading<T> loading) {
+        logger.debug("load value, key={}", key);
+        loads.increment();
+        long start = System.nanoTime();
+        try {
+            T value = loader.apply(key);
+            loadElapsedInMs = (loadElapsedInMs * 7 + (System.nanoTime() - start) / 1_000_000d) / 8;
+            loading.json = mapper.toJSON(value);
+            loading.value = value;
+            loading.future.complete(Boolean.TRUE);
+            return value;
+        } catch (Throwable e) {
+            loading.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private T await(String key, Loading<T> loading) {
+        logger.debug("wait for value loaded by other caller, key={}", key);
+        coalescedWaits.increment();
+        try {
+            loading.future.join();
+        } catch (CompletionException e) {   // exception of loader is thrown to its own caller, waiters get it as cause
+            throw new Error("failed to load value by other caller, key=" + key, e);
+        }
+        if (objectStore != null || nearCache != null) return loading.value;
+        return mapper.fromJSON(loading.json);   // without local store, each caller gets its own copy as before
+    }
+
+    private void putValue(String cacheKey, T value, byte[] json, long version) {
+        if (objectStore != null) {
+            objectStore.putObject(cacheKey, value, json.length, duration);
+            return;
+        }
+        cacheStore.put(cacheKey, json, duration);
+        if (nearCache != null) fillNearCache(cacheKey, value, json.length, version);
+    }
+
+    // serialize only on write to measure weight, to keep maxWeight of local cache store meaningful
+    private void putObject(String cacheKey, T value) {
+        objectStore.putObject(cacheKey, value, mapper.toJSON(value).length, duration);
     }
 
     private String[] cacheKeys(Collection<String> keys) {
@@ -117,4 +386,10 @@ public class CacheImpl<T> implements Cache<T> {
     private String cacheKey(String key) {
         return name + ":" + key;
     }
+
+    static class Loading<T> {
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        T value;        // visible to waiters after future completed
+        byte[] json;
+    }
 }
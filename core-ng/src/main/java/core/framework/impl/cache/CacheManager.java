@@ -1,6 +1,5 @@
 package core.framework.impl.cache;
 
-import core.framework.cache.Cache;
 import core.framework.util.Maps;
 import core.framework.util.Strings;
 
@@ -22,15 +21,24 @@ public class CacheManager {
         this.cacheStore = cacheStore;
     }
 
-    public <T> Cache<T> add(String name, Type valueType, Duration duration) {
-        new CacheTypeValidator(valueType).validate();
+    public <T> CacheImpl<T> add(String name, Type valueType, Duration duration) {
+        var validator = new CacheTypeValidator(valueType);
+        validator.validate();
 
         CacheImpl<T> cache = new CacheImpl<>(name, valueType, duration, cacheStore);
+        if (validator.immutable()) keepObject(cache);
         CacheImpl<?> previous = caches.putIfAbsent(name, cache);
         if (previous != null) throw new Error(Strings.format("found duplicate cache name, name={}", name));
         return cache;
     }
 
+    // with local cache store, value can be kept as object without json serialization, only if value is immutable
+    public boolean keepObject(CacheImpl<?> cache) {
+        if (!(cacheStore instanceof LocalCacheStore)) return false;
+        cache.objectStore((LocalCacheStore) cacheStore);
+        return true;
+    }
+
     public Optional<CacheImpl<?>> get(String name) {
         return Optional.ofNullable(caches.get(name));
     }
@@ -0,0 +1,30 @@
+package core.framework.impl.cache;
+
+import core.framework.internal.stat.Metrics;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+public class CacheMetrics implements Metrics {
+    private final CacheManager cacheManager;
+
+    public CacheMetrics(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // counts since last collection
+    @Override
+    public void collect(Map<String, Double> stats) {
+        for (CacheImpl<?> cache : cacheManager.caches()) {
+            stats.put(statName(cache, "load_count"), (double) cache.loads.sumThenReset());
+            stats.put(statName(cache, "coalesced_wait_count"), (double) cache.coalescedWaits.sumThenReset());
+            if (cache.earlyRefreshBeta > 0) stats.put(statName(cache, "early_refresh_count"), (double) cache.earlyRefreshes.sumThenReset());
+        }
+    }
+
+    String statName(CacheImpl<?> cache, String statName) {
+        return "cache_" + cache.name + '_' + statName;
+    }
+}
@@ -1,5 +1,6 @@
 package core.framework.impl.cache;
 
+import core.framework.impl.reflect.GenericTypes;
 import core.framework.impl.validate.type.DataTypeValidator;
 
 import java.lang.reflect.Type;
@@ -20,4 +21,9 @@ class CacheTypeValidator {
     public void validate() {
         validator.validate();
     }
+
+    // all allowed value classes are immutable, bean and list can not be checked, as bean fields must not be final
+    boolean immutable() {
+        return !GenericTypes.isList(validator.type) && validator.allowedValueClasses.contains(GenericTypes.rawClass(validator.type));
+    }
 }
@@ -0,0 +1,90 @@
+package core.framework.impl.cache;
+
+/**
+ * count-min sketch with 4-bit counters, to estimate access frequency of keys for TinyLFU admission,
+ * refer to https://arxiv.org/pdf/1512.00727.pdf
+ *
+ * each long holds 16 counters, 4 hash functions select 4 counters from one group of 4 within the slot,
+ * all counters are halved once sample size is reached, to age out historical frequency
+ *
+ * not thread safe, must be accessed under lock of LocalCacheStore
+ *
+ * @author neo
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int maxSize) {
+        int capacity = tableSize(maxSize);
+        table = new long[capacity];
+        tableMask = capacity - 1;
+        sampleSize = maxSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : 10 * maxSize;
+    }
+
+    int frequency(int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added) {
+            size++;
+            if (size >= sampleSize) reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xFL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = size >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long value = (hash + SEEDS[i]) * SEEDS[i];
+        value += value >>> 32;
+        return (int) value & tableMask;
+    }
+
+    private int spread(int hashCode) {
+        int value = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+        value = ((value >>> 16) ^ value) * 0x45d9f3b;
+        return (value >>> 16) ^ value;
+    }
+
+    private int tableSize(int maxSize) {
+        int size = Math.max(maxSize, 16);
+        if (size >= 1 << 30) return 1 << 30;
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
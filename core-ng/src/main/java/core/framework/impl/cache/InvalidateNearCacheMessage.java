@@ -0,0 +1,17 @@
+package core.framework.impl.cache;
+
+import core.framework.api.json.Property;
+
+import java.util.List;
+
+/**
+ * @author neo
+ */
+public class InvalidateNearCacheMessage {
+    @Property(name = "sender")
+    public String sender;
+    @Property(name = "cache")
+    public String cache;
+    @Property(name = "keys")
+    public List<String> keys;
+}
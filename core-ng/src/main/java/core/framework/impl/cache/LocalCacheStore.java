@@ -6,23 +6,103 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * local cache store with W-TinyLFU eviction when bounded by maxSize, refer to https://arxiv.org/pdf/1512.00727.pdf
+ *
+ * new items enter small LRU window, items evicted from window compete with LRU victim of main space by estimated frequency,
+ * main space is segmented LRU of probation and protected, item accessed in probation is promoted to protected
+ *
+ * values are either byte[] via CacheStore interface, or decoded objects via getObject/putObject, each key is only used in one way
+ *
+ * unbounded by default, which is plain concurrent map with expiration checked on lookup and by cleanup, without lock or eviction bookkeeping,
+ * once bounded, lookup is still lock free, access is recorded only if lock is available, it's ok to lose some access history under contention,
+ * all writes go through lock to maintain eviction policy and timer wheel
+ *
  * @author neo
  */
 public class LocalCacheStore implements CacheStore {
     final Map<String, CacheItem> caches = Maps.newConcurrentHashMap();
     private final Logger logger = LoggerFactory.getLogger(LocalCacheStore.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AccessOrderQueue window = new AccessOrderQueue();
+    private final AccessOrderQueue probation = new AccessOrderQueue();
+    private final AccessOrderQueue protectedQueue = new AccessOrderQueue();
+    private final TimerWheel timerWheel = new TimerWheel(System.currentTimeMillis());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile boolean bounded;
+    private FrequencySketch sketch;
+    private int maxSize = Integer.MAX_VALUE;
+    private long maxWeight = Long.MAX_VALUE;
+    private int windowMaxSize;
+    private int protectedMaxSize;
+    private long weight;    // total bytes of values, only tracked when bounded
+
+    // called during configuration, existing items are moved under eviction policy
+    public void maxSize(int maxSize, long maxWeight) {
+        if (maxSize <= 0 || maxWeight <= 0) throw new Error("maxSize and maxWeight must be greater than 0, maxSize=" + maxSize + ", maxWeight=" + maxWeight);
+        lock.lock();
+        try {
+            this.maxSize = maxSize;
+            this.maxWeight = maxWeight;
+            windowMaxSize = Math.max(1, maxSize / 100);
+            protectedMaxSize = (int) ((maxSize - windowMaxSize) * 80L / 100);
+            sketch = new FrequencySketch(maxSize);
+            if (!bounded) {
+                for (CacheItem item : caches.values()) {
+                    window.add(item);
+                    timerWheel.schedule(item);
+                    weight += item.weight;
+                }
+                bounded = true;
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
 
     @Override
     public byte[] get(String key) {
+        Object value = getObject(key);
+        if (value instanceof byte[]) return (byte[]) value;
+        if (value != null) logger.warn("value is not stored as bytes, key={}", key);  // key collides with object entry of other cache, treat as miss
+        return null;
+    }
+
+    Object getObject(String key) {
+        CacheItem item = getItem(key);
+        return item == null ? null : item.value;
+    }
+
+    CacheItem getItem(String key) {
         CacheItem item = caches.get(key);
-        if (item == null) return null;
+        if (item == null) {
+            misses.increment();
+            return null;
+        }
         if (item.expired(System.currentTimeMillis())) {
-            caches.remove(key);
+            remove(item);
+            misses.increment();
             return null;
         }
-        return item.value;
+        hits.increment();
+        if (bounded && lock.tryLock()) {
+            try {
+                recordAccess(item);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return item;
     }
 
     @Override
@@ -37,36 +117,240 @@ public class LocalCacheStore implements CacheStore {
 
     @Override
     public void put(String key, byte[] value, Duration expiration) {
-        long now = System.currentTimeMillis();
-        caches.put(key, new CacheItem(value, now + expiration.toMillis()));
+        putObject(key, value, value.length, expiration);
     }
 
     @Override
     public void putAll(Map<String, byte[]> values, Duration expiration) {
-        values.forEach((key, value) -> put(key, value, expiration));
+        long now = System.currentTimeMillis();
+        long expirationTime = now + expiration.toMillis();
+        if (!bounded) {
+            values.forEach((key, value) -> caches.put(key, new CacheItem(key, value, value.length, expirationTime)));
+            return;
+        }
+        lock.lock();
+        try {
+            values.forEach((key, value) -> putItem(new CacheItem(key, value, value.length, expirationTime), now));
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // weight is serialized size of value, to keep maxWeight meaningful for decoded object
+    void putObject(String key, Object value, long weight, Duration expiration) {
+        long now = System.currentTimeMillis();
+        var item = new CacheItem(key, value, weight, now + expiration.toMillis());
+        if (!bounded) {
+            caches.put(key, item);
+            return;
+        }
+        lock.lock();
+        try {
+            putItem(item, now);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putItem(CacheItem item, long now) {
+        timerWheel.advance(now, this::expire);
+        sketch.increment(item.key.hashCode());
+        if (item.weight > maxWeight || item.expired(now)) {   // not able to hold, only remove previous value
+            CacheItem previous = caches.remove(item.key);
+            if (previous != null) removeFromPolicy(previous);
+            return;
+        }
+        CacheItem previous = caches.put(item.key, item);
+        if (previous != null) removeFromPolicy(previous);
+        window.add(item);
+        timerWheel.schedule(item);
+        weight += item.weight;
     }
 
     @Override
     public void delete(String... keys) {
-        for (String key : keys) {
-            caches.remove(key);
+        if (!bounded) {
+            for (String key : keys) {
+                caches.remove(key);
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            for (String key : keys) {
+                CacheItem item = caches.remove(key);
+                if (item != null) removeFromPolicy(item);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        if (!bounded) {
+            caches.clear();
+            return;
+        }
+        lock.lock();
+        try {
+            caches.values().forEach(this::removeFromPolicy);
+            caches.clear();
+        } finally {
+            lock.unlock();
         }
     }
 
     public void cleanup() {
-        logger.info("clean up local cache store");
-        long now = System.currentTimeMillis();
-        caches.forEach((key, value) -> {
-            if (value.expired(now)) caches.remove(key);
-        });
+        logger.debug("clean up local cache store");
+        if (!bounded) {
+            long now = System.currentTimeMillis();
+            caches.values().removeIf(item -> item.expired(now));
+            return;
+        }
+        lock.lock();
+        try {
+            timerWheel.advance(System.currentTimeMillis(), this::expire);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    public int size() {
+        if (!bounded) return caches.size();
+        lock.lock();
+        try {
+            return window.size + probation.size + protectedQueue.size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long weight() {
+        if (!bounded) return caches.values().stream().mapToLong(item -> item.weight).sum();    // only for management, not to track weight on every write
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private void remove(CacheItem item) {
+        if (!bounded) {
+            caches.remove(item.key, item);
+            return;
+        }
+        lock.lock();
+        try {
+            if (caches.remove(item.key, item)) removeFromPolicy(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordAccess(CacheItem item) {
+        if (item.queue == null) return;     // removed by other thread
+        sketch.increment(item.key.hashCode());
+        if (item.queue == window) {
+            window.moveToTail(item);
+        } else if (item.queue == probation) {
+            probation.remove(item);
+            protectedQueue.add(item);
+            while (protectedQueue.size > protectedMaxSize) {    // demote LRU of protected back to probation
+                CacheItem demoted = protectedQueue.head;
+                protectedQueue.remove(demoted);
+                probation.add(demoted);
+            }
+        } else {
+            protectedQueue.moveToTail(item);
+        }
+    }
+
+    // move overflow of window to probation as candidates, then evict either candidate or probation LRU victim by frequency, until within bound
+    private void evict() {
+        CacheItem candidate = null;
+        while (window.size > windowMaxSize) {
+            CacheItem item = window.head;
+            window.remove(item);
+            probation.add(item);
+            if (candidate == null) candidate = item;
+        }
+        while (window.size + probation.size + protectedQueue.size > maxSize || weight > maxWeight) {
+            CacheItem victim = probation.head;
+            if (victim == null) victim = protectedQueue.head;
+            if (victim == null) victim = window.head;
+            if (candidate == null) {
+                evictItem(victim);
+            } else if (candidate.equals(victim)) {
+                candidate = candidate.next;
+                evictItem(victim);
+            } else if (admit(candidate, victim)) {
+                evictItem(victim);
+            } else {
+                CacheItem nextCandidate = candidate.next;
+                evictItem(candidate);
+                candidate = nextCandidate;
+            }
+        }
+    }
+
+    private boolean admit(CacheItem candidate, CacheItem victim) {
+        int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+        int victimFrequency = sketch.frequency(victim.key.hashCode());
+        return candidateFrequency > victimFrequency;
+    }
+
+    private void evictItem(CacheItem item) {
+        caches.remove(item.key, item);
+        removeFromPolicy(item);
+        evictions.increment();
+    }
+
+    private void expire(CacheItem item) {
+        caches.remove(item.key, item);
+        removeFromPolicy(item);
+    }
+
+    private void removeFromPolicy(CacheItem item) {
+        if (item.queue == null) return;
+        item.queue.remove(item);
+        timerWheel.deschedule(item);
+        weight -= item.weight;
     }
 
     static class CacheItem {
-        final byte[] value;
+        final String key;
+        final Object value;     // byte[] if used as CacheStore, or decoded object if used as near cache or object store
+        final long weight;
         final long expirationTime;
+        AccessOrderQueue queue;
+        CacheItem previous;
+        CacheItem next;
+        CacheItem previousInTimer;
+        CacheItem nextInTimer;
 
-        CacheItem(byte[] value, long expirationTime) {
+        CacheItem(String key, Object value, long weight, long expirationTime) {
+            this.key = key;
             this.value = value;
+            this.weight = weight;
             this.expirationTime = expirationTime;
         }
 
@@ -74,4 +358,38 @@ public class LocalCacheStore implements CacheStore {
             return now >= expirationTime;
         }
     }
+
+    // doubly linked list, head is least recently used
+    static class AccessOrderQueue {
+        CacheItem head;
+        CacheItem tail;
+        int size;
+
+        void add(CacheItem item) {
+            item.queue = this;
+            item.previous = tail;
+            item.next = null;
+            if (tail == null) head = item;
+            else tail.next = item;
+            tail = item;
+            size++;
+        }
+
+        void remove(CacheItem item) {
+            if (item.previous == null) head = item.next;
+            else item.previous.next = item.next;
+            if (item.next == null) tail = item.previous;
+            else item.next.previous = item.previous;
+            item.previous = null;
+            item.next = null;
+            item.queue = null;
+            size--;
+        }
+
+        void moveToTail(CacheItem item) {
+            if (item.equals(tail)) return;
+            remove(item);
+            add(item);
+        }
+    }
 }
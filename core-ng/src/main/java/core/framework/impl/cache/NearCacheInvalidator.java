@@ -0,0 +1,60 @@
+package core.framework.impl.cache;
+
+import core.framework.impl.redis.RedisChannelListener;
+import core.framework.impl.redis.RedisException;
+import core.framework.impl.redis.RedisImpl;
+import core.framework.internal.json.JSONMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * broadcast changed keys via redis pub/sub, so other instances evict stale values from near cache
+ *
+ * @author neo
+ */
+public class NearCacheInvalidator implements RedisChannelListener {
+    public static final String CHANNEL = "cache:invalidate";
+
+    final String sender = UUID.randomUUID().toString();     // to skip message published by itself, host name is not unique if multiple processes run on same host
+    private final Logger logger = LoggerFactory.getLogger(NearCacheInvalidator.class);
+    private final JSONMapper<InvalidateNearCacheMessage> mapper = new JSONMapper<>(InvalidateNearCacheMessage.class);
+    private final RedisImpl redis;
+    private final CacheManager cacheManager;
+
+    public NearCacheInvalidator(RedisImpl redis, CacheManager cacheManager) {
+        this.redis = redis;
+        this.cacheManager = cacheManager;
+    }
+
+    void publish(String cache, List<String> keys) {
+        var message = new InvalidateNearCacheMessage();
+        message.sender = sender;
+        message.cache = cache;
+        message.keys = keys;
+        try {
+            redis.publish(CHANNEL, mapper.toJSON(message));
+        } catch (UncheckedIOException | RedisException e) {
+            logger.warn("failed to publish near cache invalidation, cache={}, error={}", cache, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onSubscribe() {
+        logger.info("clear all near caches, as invalidation messages may be lost during disconnection");
+        for (CacheImpl<?> cache : cacheManager.caches()) {
+            if (cache.nearCache != null) cache.clearNearCache();
+        }
+    }
+
+    @Override
+    public void onMessage(byte[] body) {
+        InvalidateNearCacheMessage message = mapper.fromJSON(body);
+        if (sender.equals(message.sender)) return;
+        logger.debug("invalidate near cache, cache={}, keys={}", message.cache, message.keys);
+        cacheManager.get(message.cache).ifPresent(cache -> cache.invalidateNearCache(message.keys));
+    }
+}
@@ -0,0 +1,98 @@
+package core.framework.impl.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * hierarchical timer wheel to expire cache items, only buckets whose time span passed are visited on advance,
+ * so the cost is proportional to number of expired items, not number of total items,
+ * refer to http://www.cs.columbia.edu/~nahum/w6998/papers/ton97-timing-wheels.pdf
+ *
+ * level 0 buckets span ~1s (2^10 ms), level 1 ~65s, level 2 ~70m, level 3 ~3d, each level has 64 buckets,
+ * item is placed in lowest level can cover its expiration, and cascaded down when the higher level bucket passed
+ *
+ * not thread safe, must be accessed under lock of LocalCacheStore
+ *
+ * @author neo
+ */
+class TimerWheel {
+    private static final int[] SHIFTS = {10, 16, 22, 28};
+    private static final int BUCKETS = 64;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+
+    private final LocalCacheStore.CacheItem[][] wheel = new LocalCacheStore.CacheItem[SHIFTS.length][BUCKETS];
+    long currentTime;
+
+    TimerWheel(long currentTime) {
+        this.currentTime = currentTime;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                var sentinel = new LocalCacheStore.CacheItem(null, null, 0, 0);
+                sentinel.previousInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+                wheel[level][bucket] = sentinel;
+            }
+        }
+    }
+
+    void schedule(LocalCacheStore.CacheItem item) {
+        LocalCacheStore.CacheItem sentinel = bucket(item.expirationTime);
+        item.nextInTimer = sentinel;
+        item.previousInTimer = sentinel.previousInTimer;
+        sentinel.previousInTimer.nextInTimer = item;
+        sentinel.previousInTimer = item;
+    }
+
+    void deschedule(LocalCacheStore.CacheItem item) {
+        if (item.nextInTimer == null) return;
+        item.nextInTimer.previousInTimer = item.previousInTimer;
+        item.previousInTimer.nextInTimer = item.nextInTimer;
+        item.nextInTimer = null;
+        item.previousInTimer = null;
+    }
+
+    void advance(long now, Consumer<LocalCacheStore.CacheItem> expiredItemHandler) {
+        long previousTime = currentTime;
+        if (now <= previousTime) return;
+        currentTime = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previousTime >>> SHIFTS[level];
+            long currentTicks = now >>> SHIFTS[level];
+            if (currentTicks <= previousTicks) break;   // higher level will not tick either
+            expire(level, previousTicks, currentTicks - previousTicks, expiredItemHandler);
+        }
+    }
+
+    // visit buckets from previousTicks to currentTicks (inclusive), items not expired yet are rescheduled, which cascades them to lower level
+    private void expire(int level, long previousTicks, long delta, Consumer<LocalCacheStore.CacheItem> expiredItemHandler) {
+        int start = (int) (previousTicks & BUCKET_MASK);
+        int steps = (int) Math.min(delta + 1, BUCKETS);
+        for (int i = 0; i < steps; i++) {
+            LocalCacheStore.CacheItem sentinel = wheel[level][(start + i) & BUCKET_MASK];
+            LocalCacheStore.CacheItem item = sentinel.nextInTimer;
+            sentinel.previousInTimer = sentinel;    // detach all items of bucket first, rescheduled item may come back to same bucket
+            sentinel.nextInTimer = sentinel;
+            while (!item.equals(sentinel)) {
+                LocalCacheStore.CacheItem next = item.nextInTimer;
+                item.previousInTimer = null;
+                item.nextInTimer = null;
+                if (item.expired(currentTime)) {
+                    expiredItemHandler.accept(item);
+                } else {
+                    schedule(item);
+                }
+                item = next;
+            }
+        }
+    }
+
+    private LocalCacheStore.CacheItem bucket(long expirationTime) {
+        long duration = expirationTime - currentTime;
+        int lastLevel = SHIFTS.length - 1;
+        for (int level = 0; level < lastLevel; level++) {
+            if (duration < 1L << (SHIFTS[level + 1])) {
+                return wheel[level][(int) ((expirationTime >>> SHIFTS[level]) & BUCKET_MASK)];
+            }
+        }
+        return wheel[lastLevel][(int) ((expirationTime >>> SHIFTS[lastLevel]) & BUCKET_MASK)];
+    }
+}
@@ -0,0 +1,78 @@
+package core.framework.impl.db;
+
+import core.framework.util.ASCII;
+import core.framework.util.Maps;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * column indexes of view mapper are resolved from result set meta data once per sql, as same sql always returns same columns,
+ * then mapping row only uses positional getters, instead of looking up column by name for each field of each row
+ *
+ * @author neo
+ */
+final class ColumnIndexCache {
+    private static final int MAX_SIZE = 1000;  // sql with dynamic conditions, e.g. IN clause with various number of params, may have unbounded shapes
+
+    private final Map<Key, int[]> cache = Maps.newConcurrentHashMap();
+
+    int[] columnIndexes(String sql, RowMapper<?> mapper, ResultSet resultSet) throws SQLException {
+        var key = new Key(sql, mapper);     // same sql may be mapped to different views
+        int[] columnIndexes = cache.get(key);
+        if (columnIndexes != null) return columnIndexes;
+
+        String[] columns = mapper.columns();
+        if (columns == null) return null;
+        columnIndexes = columnIndexes(resultSet.getMetaData(), columns);
+        if (cache.size() < MAX_SIZE) cache.put(key, columnIndexes);
+        return columnIndexes;
+    }
+
+    // different db are using various of rules to return column name/label, some of reserved case, some does not
+    // here we have to make name/column case insensitive for view mapping
+    // http://hsqldb.org/doc/guide/databaseobjects-chapt.html#dbc_collations
+    int[] columnIndexes(ResultSetMetaData meta, String... columns) throws SQLException {
+        int count = meta.getColumnCount();
+        Map<String, Integer> index = Maps.newHashMapWithExpectedSize(count);
+        for (int i = 1; i < count + 1; i++) {
+            String column = meta.getColumnLabel(i);
+            index.put(ASCII.toLowerCase(column), i);
+        }
+        int[] columnIndexes = new int[columns.length];
+        for (int slot = 0; slot < columns.length; slot++) {
+            Integer columnIndex = index.get(ASCII.toLowerCase(columns[slot]));
+            if (columnIndex != null) columnIndexes[slot] = columnIndex;     // JDBC ResultSet doesn't support to ignore non-existed column, 0 means not returned
+        }
+        return columnIndexes;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    // row mapper is created once per view class, so mapper identity stands for view class
+    private static final class Key {
+        final String sql;
+        final RowMapper<?> mapper;
+
+        Key(String sql, RowMapper<?> mapper) {
+            this.sql = sql;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) return false;
+            Key key = (Key) object;
+            return mapper.equals(key.mapper) && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + mapper.hashCode();
+        }
+    }
+}
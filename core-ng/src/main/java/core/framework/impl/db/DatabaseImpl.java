@@ -5,6 +5,8 @@ import core.framework.db.IsolationLevel;
 import core.framework.db.Repository;
 import core.framework.db.Transaction;
 import core.framework.db.UncheckedSQLException;
+import core.framework.impl.async.ThreadPools;
+import core.framework.impl.reflect.Classes;
 import core.framework.impl.resource.Pool;
 import core.framework.log.ActionLogContext;
 import core.framework.log.Markers;
@@ -21,11 +23,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.lang.reflect.Field;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import static core.framework.util.Strings.format;
 
@@ -37,24 +43,30 @@ public final class DatabaseImpl implements Database {
     public final DatabaseOperation operation;
 
     private final Logger logger = LoggerFactory.getLogger(DatabaseImpl.class);
-    private final Map<Class<?>, RowMapper<?>> rowMappers = new HashMap<>(32);
+    private final Map<Class<?>, RowMapper<?>> rowMappers = new ConcurrentHashMap<>(32);   // view row mappers are prebuilt on startup, or built on first use if startup is skipped, e.g. integration test
+    private final Set<Class<?>> viewClasses = new HashSet<>();
+    private final String name;
     public String user;
     public String password;
     public Vendor vendor;
     public int tooManyRowsReturnedThreshold = 1000;
+    public int fetchSize = 1000;    // used by forEach, number of rows per round trip if vendor supports
     public long slowOperationThresholdInNanos = Duration.ofSeconds(5).toNanos();
     public IsolationLevel isolationLevel;
     private String url;
     private Properties driverProperties;
     private Duration timeout;
     private Driver driver;
+    boolean vendorDriver;   // vendor specific fetch size only applies to driver of vendor, e.g. vendor dialect runs on hsqldb in test, which only accepts positive fetch size
 
     public DatabaseImpl(String name) {
+        this.name = name;
         initializeRowMappers();
 
         pool = new Pool<>(this::createConnection, name);
         pool.size(5, 50);    // default optimization for AWS medium/large instances
         pool.maxIdleTime = Duration.ofHours(1);  // make sure db server does not kill connection shorter than this, e.g. MySQL default wait_timeout is 8 hours
+        pool.validator(this::validate);
 
         operation = new DatabaseOperation(pool);
         timeout(Duration.ofSeconds(15));
@@ -88,6 +100,16 @@ public final class DatabaseImpl implements Database {
         }
     }
 
+    // validate idle connection in background, so broken connection is not found by request
+    private boolean validate(Connection connection) {
+        try {
+            return connection.isValid(operation.queryTimeoutInSeconds);
+        } catch (SQLException e) {
+            logger.debug("failed to validate connection, error={}", e.getMessage(), e);
+            return false;
+        }
+    }
+
     private Properties driverProperties() {
         var properties = new Properties();
         if (user != null) properties.setProperty("user", user);
@@ -107,9 +129,17 @@ public final class DatabaseImpl implements Database {
 
     public void close() {
         logger.info("close database client, url={}", url);
+        if (operation.batchExecutor != null) operation.batchExecutor.shutdown();
         pool.close();
     }
 
+    // large batch outside transaction is split into chunks executed with multiple connections, parallelism should be less than max pool size
+    public void batchParallelism(int parallelism) {
+        if (operation.batchExecutor != null) operation.batchExecutor.shutdown();
+        operation.batchParallelism = parallelism;
+        operation.batchExecutor = parallelism > 1 ? ThreadPools.cachedThreadPool(parallelism - 1, name + "-batch-") : null;     // first chunk is executed by caller thread
+    }
+
     public void timeout(Duration timeout) {
         this.timeout = timeout;
         operation.queryTimeoutInSeconds = (int) timeout.getSeconds();
@@ -121,6 +151,7 @@ public final class DatabaseImpl implements Database {
         logger.info("set database connection url, url={}", url);
         this.url = url;
         driver = driver(url);
+        vendorDriver = !url.startsWith("jdbc:hsqldb:");
     }
 
     private Driver driver(String url) {
@@ -202,6 +233,25 @@ public final class DatabaseImpl implements Database {
         }
     }
 
+    // not to check too many rows or slow operation, as it's designed for large result set and elapsed includes consumer processing time
+    @Override
+    public <T> void forEach(String sql, Class<T> viewClass, Consumer<T> consumer, Object... params) {
+        var watch = new StopWatch();
+        int returnedRows = 0;
+        try {
+            returnedRows = operation.forEach(sql, rowMapper(viewClass), consumer, streamingFetchSize(), params);
+        } finally {
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("db", elapsed, returnedRows, 0);
+            logger.debug("forEach, sql={}, params={}, returnedRows={}, elapsed={}", sql, new SQLParams(operation.enumMapper, params), returnedRows, elapsed);
+        }
+    }
+
+    int streamingFetchSize() {
+        if (vendor == null || !vendorDriver) return fetchSize;
+        return vendor.streamingFetchSize(fetchSize);
+    }
+
     @Override
     public int execute(String sql, Object... params) {
         var watch = new StopWatch();
@@ -233,20 +283,36 @@ public final class DatabaseImpl implements Database {
         }
     }
 
+    // compile row mappers on startup in parallel with other resources, instead of on configure()
+    public void buildRowMappers() {
+        for (Class<?> viewClass : viewClasses) {
+            rowMapper(viewClass);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     private <T> RowMapper<T> rowMapper(Class<T> viewClass) {
-        @SuppressWarnings("unchecked")
         RowMapper<T> mapper = (RowMapper<T>) rowMappers.get(viewClass);
-        if (mapper == null)
-            throw new Error(format("view class is not registered, please register in module by db().view(), viewClass={}", viewClass.getCanonicalName()));
+        if (mapper == null) {
+            if (!viewClasses.contains(viewClass))
+                throw new Error(format("view class is not registered, please register in module by db().view(), viewClass={}", viewClass.getCanonicalName()));
+            mapper = (RowMapper<T>) rowMappers.computeIfAbsent(viewClass, key -> new RowMapperBuilder<>(key, operation.enumMapper).build());
+        }
         return mapper;
     }
 
     private <T> void registerViewClass(Class<T> viewClass) {
-        if (rowMappers.containsKey(viewClass)) {
+        if (rowMappers.containsKey(viewClass) || !viewClasses.add(viewClass)) {
             throw new Error(format("found duplicate view class, viewClass={}", viewClass.getCanonicalName()));
         }
-        RowMapper<T> mapper = new RowMapperBuilder<>(viewClass, operation.enumMapper).build();
-        rowMappers.put(viewClass, mapper);
+        for (Field field : Classes.instanceFields(viewClass)) {     // enum mappings are used by query params, must be registered on configure() before row mapper is built
+            Class<?> fieldClass = field.getType();
+            if (fieldClass.isEnum()) {
+                @SuppressWarnings("unchecked")
+                Class<? extends Enum<?>> enumClass = (Class<? extends Enum<?>>) fieldClass;
+                operation.enumMapper.registerEnumClass(enumClass);
+            }
+        }
     }
 
     private void checkTooManyRowsReturned(int size) {
@@ -16,9 +16,14 @@ import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import static core.framework.util.Strings.format;
 
@@ -27,11 +32,18 @@ import static core.framework.util.Strings.format;
  */
 public class DatabaseOperation {
     public final TransactionManager transactionManager;
+    private final Pool<Connection> pool;
     final EnumDBMapper enumMapper = new EnumDBMapper();
+    final ColumnIndexCache columnIndexCache = new ColumnIndexCache();
     public int batchSize = 1000;   // use 1000 as default batch size by considering both MySQL and Oracle
+    public long batchMaxBytes = 2 * 1024 * 1024;   // flush batch once estimated params size exceeds, to keep mysql rewritten multi-row statement under max_allowed_packet (4M by default)
+    int batchParallelism = 1;
+    ExecutorService batchExecutor;  // only created if batch parallelism > 1
+    public int statementCacheSize;  // max prepared statements cached per connection, 0 means disabled
     int queryTimeoutInSeconds;
 
     DatabaseOperation(Pool<Connection> pool) {
+        this.pool = pool;
         transactionManager = new TransactionManager(pool);
     }
 
@@ -39,7 +51,8 @@ public class DatabaseOperation {
     // it's harder to trace and read if creating a lot of lambda or template pattern, also impact the mem usage and GC
     int update(String sql, Object... params) {
         PoolItem<Connection> connection = transactionManager.getConnection();
-        try (PreparedStatement statement = connection.resource.prepareStatement(sql)) {
+        try (StatementHolder holder = statement(connection, sql, null)) {
+            PreparedStatement statement = holder.statement;
             statement.setQueryTimeout(queryTimeoutInSeconds);
             setParams(statement, params);
             return statement.executeUpdate();
@@ -53,21 +66,36 @@ public class DatabaseOperation {
 
     int[] batchUpdate(String sql, List<Object[]> params) {
         int size = params.size();
+        if (batchExecutor != null && size > batchSize && !transactionManager.inTransaction()) {
+            return parallelBatchUpdate(sql, params);
+        }
         int[] results = new int[size];
+        batchUpdate(sql, params, results, 0);
+        return results;
+    }
+
+    private void batchUpdate(String sql, List<Object[]> params, int[] results, int offset) {
+        int size = params.size();
         PoolItem<Connection> connection = transactionManager.getConnection();
-        try (PreparedStatement statement = connection.resource.prepareStatement(sql)) {
+        try (StatementHolder holder = statement(connection, sql, null)) {
+            PreparedStatement statement = holder.statement;
             statement.setQueryTimeout(queryTimeoutInSeconds);
             int index = 1;
+            int batchCount = 0;
+            long batchBytes = 0;
             for (Object[] batchParams : params) {
                 setParams(statement, batchParams);
                 statement.addBatch();
-                if (index % batchSize == 0 || index == size) {
+                batchCount++;
+                batchBytes += estimatedBytes(batchParams);
+                if (batchCount == batchSize || batchBytes >= batchMaxBytes || index == size) {
                     int[] batchResults = statement.executeBatch();
-                    System.arraycopy(batchResults, 0, results, index - batchResults.length, batchResults.length);
+                    System.arraycopy(batchResults, 0, results, offset + index - batchResults.length, batchResults.length);
+                    batchCount = 0;
+                    batchBytes = 0;
                 }
                 index++;
             }
-            return results;
         } catch (SQLException e) {
             Connections.checkConnectionState(connection, e);
             throw new UncheckedSQLException(e);
@@ -76,14 +104,70 @@ public class DatabaseOperation {
         }
     }
 
+    // split large batch into chunks executed by multiple pooled connections, each chunk is auto committed separately, so it's only used outside transaction,
+    // if one chunk fails, other chunks may be committed already, chunks of concurrent callers queue up in batch executor
+    private int[] parallelBatchUpdate(String sql, List<Object[]> params) {
+        int size = params.size();
+        int[] results = new int[size];
+        int chunks = Math.min(batchParallelism, (size + batchSize - 1) / batchSize);
+        int chunkSize = (size + chunks - 1) / chunks;
+        List<Future<?>> futures = new ArrayList<>(chunks - 1);
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            int start = from;
+            List<Object[]> chunk = params.subList(start, Math.min(start + chunkSize, size));
+            futures.add(batchExecutor.submit(() -> batchUpdate(sql, chunk, results, start)));
+        }
+        Throwable exception = null;
+        try {
+            batchUpdate(sql, params.subList(0, chunkSize), results, 0);     // execute first chunk in current thread
+        } catch (Throwable e) {
+            exception = e;
+        }
+        for (Future<?> future : futures) {     // wait all chunks to complete even if one failed, results array must not be written after return
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (exception == null) exception = e.getCause();    // runnable only throws unchecked exception or error
+            } catch (InterruptedException e) {
+                if (exception == null) exception = new Error(e);
+            }
+        }
+        if (exception instanceof Error) throw (Error) exception;
+        if (exception != null) throw (RuntimeException) exception;
+        return results;
+    }
+
+    // size of params in sql text, only to bound batch size for large rows, string is counted by utf-8 encoded length
+    long estimatedBytes(Object... params) {
+        long bytes = 0;
+        for (Object param : params) {
+            if (param instanceof String) bytes += utf8Bytes((String) param) + 2;
+            else if (param instanceof byte[]) bytes += ((byte[]) param).length + 2;
+            else bytes += 8;
+        }
+        return bytes;
+    }
+
+    private long utf8Bytes(String value) {
+        int length = value.length();
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= 0x800) bytes += 2;    // surrogate pair is counted as 6 bytes rather than 4, which is fine as upper bound
+            else if (ch >= 0x80) bytes += 1;
+        }
+        return bytes;
+    }
+
     <T> Optional<T> selectOne(String sql, RowMapper<T> mapper, Object... params) {
         validateSelectSQL(sql);
 
         PoolItem<Connection> connection = transactionManager.getConnection();
-        try (PreparedStatement statement = connection.resource.prepareStatement(sql)) {
+        try (StatementHolder holder = statement(connection, sql, null)) {
+            PreparedStatement statement = holder.statement;
             statement.setQueryTimeout(queryTimeoutInSeconds);
             setParams(statement, params);
-            return fetchOne(statement, mapper);
+            return fetchOne(statement, sql, mapper);
         } catch (SQLException e) {
             Connections.checkConnectionState(connection, e);
             throw new UncheckedSQLException(e);
@@ -95,11 +179,29 @@ public class DatabaseOperation {
     <T> List<T> select(String sql, RowMapper<T> mapper, Object... params) {
         validateSelectSQL(sql);
 
+        PoolItem<Connection> connection = transactionManager.getConnection();
+        try (StatementHolder holder = statement(connection, sql, null)) {
+            PreparedStatement statement = holder.statement;
+            statement.setQueryTimeout(queryTimeoutInSeconds);
+            setParams(statement, params);
+            return fetch(statement, sql, mapper);
+        } catch (SQLException e) {
+            Connections.checkConnectionState(connection, e);
+            throw new UncheckedSQLException(e);
+        } finally {
+            transactionManager.returnConnection(connection);
+        }
+    }
+
+    <T> int forEach(String sql, RowMapper<T> mapper, Consumer<T> consumer, int fetchSize, Object... params) {
+        validateSelectSQL(sql);
+
         PoolItem<Connection> connection = transactionManager.getConnection();
         try (PreparedStatement statement = connection.resource.prepareStatement(sql)) {
             statement.setQueryTimeout(queryTimeoutInSeconds);
+            statement.setFetchSize(fetchSize);
             setParams(statement, params);
-            return fetch(statement, mapper);
+            return fetch(statement, sql, mapper, consumer);
         } catch (SQLException e) {
             Connections.checkConnectionState(connection, e);
             throw new UncheckedSQLException(e);
@@ -110,7 +212,8 @@ public class DatabaseOperation {
 
     OptionalLong insert(String sql, Object[] params, String generatedColumn) {
         PoolItem<Connection> connection = transactionManager.getConnection();
-        try (PreparedStatement statement = insertStatement(connection.resource, sql, generatedColumn)) {
+        try (StatementHolder holder = statement(connection, sql, generatedColumn)) {
+            PreparedStatement statement = holder.statement;
             statement.setQueryTimeout(queryTimeoutInSeconds);
             setParams(statement, params);
             statement.executeUpdate();
@@ -124,7 +227,26 @@ public class DatabaseOperation {
         }
     }
 
-    private PreparedStatement insertStatement(Connection connection, String sql, String generatedColumn) throws SQLException {
+    // forEach is not using cached statement, as consumer may run other queries on same connection while result set is open, and fetch size is changed
+    private StatementHolder statement(PoolItem<Connection> connection, String sql, String generatedColumn) throws SQLException {
+        if (statementCacheSize <= 0) return new StatementHolder(prepareStatement(connection.resource, sql, generatedColumn), false);
+        var cache = (StatementCache) connection.attachment;
+        if (cache == null) {
+            cache = new StatementCache(statementCacheSize);
+            connection.attachment = cache;
+        }
+        PreparedStatement statement = cache.get(sql, generatedColumn);
+        if (statement != null) {
+            pool.cacheHits.increment();
+        } else {
+            pool.cacheMisses.increment();
+            statement = prepareStatement(connection.resource, sql, generatedColumn);
+            cache.put(sql, generatedColumn, statement);
+        }
+        return new StatementHolder(statement, true);
+    }
+
+    private PreparedStatement prepareStatement(Connection connection, String sql, String generatedColumn) throws SQLException {
         if (generatedColumn == null) return connection.prepareStatement(sql);
         return connection.prepareStatement(sql, new String[]{generatedColumn});
     }
@@ -134,11 +256,11 @@ public class DatabaseOperation {
             throw new Error(format("sql must not contain wildcard(*), please only select columns needed, sql={}", sql));
     }
 
-    private <T> Optional<T> fetchOne(PreparedStatement statement, RowMapper<T> mapper) throws SQLException {
+    private <T> Optional<T> fetchOne(PreparedStatement statement, String sql, RowMapper<T> mapper) throws SQLException {
         try (ResultSet resultSet = statement.executeQuery()) {
             T result = null;
             if (resultSet.next()) {
-                result = mapper.map(new ResultSetWrapper(resultSet));
+                result = mapper.map(new ResultSetWrapper(resultSet, columnIndexCache.columnIndexes(sql, mapper, resultSet)));
                 if (resultSet.next())
                     throw new Error("more than one row returned");
             }
@@ -146,9 +268,9 @@ public class DatabaseOperation {
         }
     }
 
-    private <T> List<T> fetch(PreparedStatement statement, RowMapper<T> mapper) throws SQLException {
+    private <T> List<T> fetch(PreparedStatement statement, String sql, RowMapper<T> mapper) throws SQLException {
         try (ResultSet resultSet = statement.executeQuery()) {
-            var wrapper = new ResultSetWrapper(resultSet);
+            var wrapper = new ResultSetWrapper(resultSet, columnIndexCache.columnIndexes(sql, mapper, resultSet));
             List<T> results = Lists.newArrayList();
             while (resultSet.next()) {
                 T result = mapper.map(wrapper);
@@ -158,6 +280,18 @@ public class DatabaseOperation {
         }
     }
 
+    private <T> int fetch(PreparedStatement statement, String sql, RowMapper<T> mapper, Consumer<T> consumer) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            var wrapper = new ResultSetWrapper(resultSet, columnIndexCache.columnIndexes(sql, mapper, resultSet));
+            int rows = 0;
+            while (resultSet.next()) {
+                consumer.accept(mapper.map(wrapper));
+                rows++;
+            }
+            return rows;
+        }
+    }
+
     // the LAST_INSERT_ID() function of mysql returns BIGINT, so here it uses Long
     // http://dev.mysql.com/doc/refman/5.7/en/information-functions.html
     private OptionalLong fetchGeneratedKey(PreparedStatement statement) throws SQLException {
@@ -8,6 +8,7 @@ import core.framework.util.Strings;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -67,6 +68,14 @@ public class QueryImpl<T> implements Query<T> {
         return database.selectOne(sql, entityClass, params);
     }
 
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        if (limit != null && limit == 0) return;
+        String sql = selectQuery.fetchSQL(whereClause, sort, skip, limit);
+        Object[] params = selectQuery.fetchParams(this.params, skip, limit);
+        database.forEach(sql, entityClass, consumer, params);
+    }
+
     @Override
     public <P> Optional<P> project(String projection, Class<P> viewClass) {
         String sql = selectQuery.projectionSQL(projection, whereClause);
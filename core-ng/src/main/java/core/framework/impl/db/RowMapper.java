@@ -13,13 +13,18 @@ import static core.framework.util.Strings.format;
  */
 @FunctionalInterface
 interface RowMapper<T> {
-    static void checkColumnCount(ResultSetWrapper resultSet) {
+    static void checkColumnCount(ResultSetWrapper resultSet) throws SQLException {
         int count = resultSet.columnCount();
         if (count > 1) throw new Error(format("returned column count must be one, count={}", count));
     }
 
     T map(ResultSetWrapper resultSet) throws SQLException;
 
+    // columns of field slots for generated view mapper, which maps by resultSet.columnIndexes, null for single column mapper
+    default String[] columns() {
+        return null;
+    }
+
     class StringRowMapper implements RowMapper<String> {
         @Override
         public String map(ResultSetWrapper resultSet) throws SQLException {
@@ -10,6 +10,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import static core.framework.impl.asm.Literal.type;
 import static core.framework.impl.asm.Literal.variable;
@@ -29,42 +30,47 @@ final class RowMapperBuilder<T> {
     }
 
     RowMapper<T> build() {
-        builder.addMethod(mapMethod());
+        List<Field> fields = Classes.instanceFields(entityClass);
+        builder.addMethod(mapMethod(fields));
+        builder.addMethod(columnsMethod(fields));
         return builder.build();
     }
 
-    private String mapMethod() {
+    // map by column indexes of field slots, which are resolved once per sql, refer to ColumnIndexCache
+    private String mapMethod(List<Field> fields) {
         var builder = new CodeBuilder().append("public Object map({} resultSet) {\n", type(ResultSetWrapper.class));
+        builder.indent(1).append("int[] indexes = resultSet.columnIndexes;\n");
         String entityClassLiteral = type(entityClass);
         builder.indent(1).append("{} entity = new {}();\n", entityClassLiteral, entityClassLiteral);
 
-        for (Field field : Classes.instanceFields(entityClass)) {
+        int slot = 0;
+        for (Field field : fields) {
             String fieldName = field.getName();
             Class<?> fieldClass = field.getType();
-            String column = field.getDeclaredAnnotation(Column.class).name();
             if (Integer.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getInt(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getInt(indexes[{}]);\n", fieldName, slot);
             } else if (String.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getString(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getString(indexes[{}]);\n", fieldName, slot);
             } else if (Boolean.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getBoolean(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getBoolean(indexes[{}]);\n", fieldName, slot);
             } else if (Long.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getLong(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getLong(indexes[{}]);\n", fieldName, slot);
             } else if (LocalDateTime.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getLocalDateTime(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getLocalDateTime(indexes[{}]);\n", fieldName, slot);
             } else if (LocalDate.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getLocalDate(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getLocalDate(indexes[{}]);\n", fieldName, slot);
             } else if (ZonedDateTime.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getZonedDateTime(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getZonedDateTime(indexes[{}]);\n", fieldName, slot);
             } else if (fieldClass.isEnum()) {
                 registerEnumClass(fieldClass);
                 this.builder.addField("private final {} {}Mappings = new {}({});", type(DBEnumMapper.class), fieldName, type(DBEnumMapper.class), variable(fieldClass));
-                builder.indent(1).append("entity.{} = ({}){}Mappings.getEnum(resultSet.getString(\"{}\"));\n", fieldName, type(fieldClass), fieldName, column);
+                builder.indent(1).append("entity.{} = ({}){}Mappings.getEnum(resultSet.getString(indexes[{}]));\n", fieldName, type(fieldClass), fieldName, slot);
             } else if (Double.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getDouble(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getDouble(indexes[{}]);\n", fieldName, slot);
             } else if (BigDecimal.class.equals(fieldClass)) {
-                builder.indent(1).append("entity.{} = resultSet.getBigDecimal(\"{}\");\n", fieldName, column);
+                builder.indent(1).append("entity.{} = resultSet.getBigDecimal(indexes[{}]);\n", fieldName, slot);
             }
+            slot++;
         }
         builder.indent(1).append("return entity;\n");
         builder.append("}");
@@ -72,6 +78,19 @@ final class RowMapperBuilder<T> {
         return builder.build();
     }
 
+    private String columnsMethod(List<Field> fields) {
+        var builder = new CodeBuilder().append("public String[] columns() {\n");
+        builder.indent(1).append("String[] columns = new String[{}];\n", fields.size());
+        int slot = 0;
+        for (Field field : fields) {
+            builder.indent(1).append("columns[{}] = {};\n", slot, variable(field.getDeclaredAnnotation(Column.class).name()));
+            slot++;
+        }
+        builder.indent(1).append("return columns;\n");
+        builder.append("}");
+        return builder.build();
+    }
+
     private void registerEnumClass(Class<?> fieldClass) {
         @SuppressWarnings("unchecked")
         Class<? extends Enum<?>> enumClass = (Class<? extends Enum<?>>) fieldClass;
@@ -0,0 +1,83 @@
+package core.framework.impl.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LRU cache of prepared statements bound to one pooled connection, to skip parsing/planning (or server round trip of oracle) for repeated sql,
+ * pooled connection is only used by one thread at a time, so it's not thread safe, all statements are closed when connection is removed from pool
+ *
+ * @author neo
+ */
+final class StatementCache implements AutoCloseable {
+    private final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+    private final Map<Key, PreparedStatement> statements;
+
+    StatementCache(int maxSize) {
+        statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() <= maxSize) return false;
+                close(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement get(String sql, String generatedColumn) {
+        return statements.get(new Key(sql, generatedColumn));
+    }
+
+    void put(String sql, String generatedColumn, PreparedStatement statement) {
+        statements.put(new Key(sql, generatedColumn), statement);
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement statement : statements.values()) {
+            close(statement);
+        }
+        statements.clear();
+    }
+
+    private void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.warn("failed to close statement", e);
+        }
+    }
+
+    private static final class Key {
+        final String sql;
+        final String generatedColumn;
+
+        Key(String sql, String generatedColumn) {
+            this.sql = sql;
+            this.generatedColumn = generatedColumn;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            Key key = (Key) other;
+            return sql.equals(key.sql) && Objects.equals(generatedColumn, key.generatedColumn);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + (generatedColumn == null ? 0 : generatedColumn.hashCode());
+        }
+    }
+}
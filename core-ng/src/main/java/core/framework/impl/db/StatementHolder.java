@@ -0,0 +1,29 @@
+package core.framework.impl.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * cached statement is kept open and reset for next use, otherwise it's closed
+ *
+ * @author neo
+ */
+final class StatementHolder implements AutoCloseable {
+    final PreparedStatement statement;
+    private final boolean cached;
+
+    StatementHolder(PreparedStatement statement, boolean cached) {
+        this.statement = statement;
+        this.cached = cached;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (cached) {
+            statement.clearParameters();
+            statement.clearBatch();     // in case of batch failed in middle
+        } else {
+            statement.close();
+        }
+    }
+}
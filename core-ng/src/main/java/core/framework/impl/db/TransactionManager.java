@@ -40,6 +40,10 @@ public final class TransactionManager {
         return pool.borrowItem();
     }
 
+    boolean inTransaction() {
+        return CURRENT_CONNECTION.get() != null;
+    }
+
     void returnConnection(PoolItem<Connection> connection) {
         if (CURRENT_CONNECTION.get() == null)
             returnConnectionToPool(connection, false);
@@ -4,5 +4,21 @@ package core.framework.impl.db;
  * @author neo
  */
 public enum Vendor {
-    MYSQL, ORACLE
+    MYSQL {
+        // mysql driver reads whole result set into memory unless fetch size is Integer.MIN_VALUE, which streams row by row,
+        // refer to https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-implementation-notes.html
+        @Override
+        int streamingFetchSize(int fetchSize) {
+            return Integer.MIN_VALUE;
+        }
+    },
+    ORACLE {
+        // oracle driver fetches 10 rows per round trip by default, larger fetch size reduces round trips with bounded memory
+        @Override
+        int streamingFetchSize(int fetchSize) {
+            return fetchSize;
+        }
+    };
+
+    abstract int streamingFetchSize(int fetchSize);
 }
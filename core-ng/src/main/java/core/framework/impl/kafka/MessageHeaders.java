@@ -8,4 +8,5 @@ public final class MessageHeaders {
     public static final String HEADER_TRACE = "trace";
     public static final String HEADER_CLIENT = "client";
     public static final String HEADER_REF_ID = "refId";
+    public static final String HEADER_CONTENT_TYPE = "contentType";     // only set if message is not json
 }
@@ -1,5 +1,6 @@
 package core.framework.impl.kafka;
 
+import core.framework.impl.async.ThreadPools;
 import core.framework.impl.log.LogManager;
 import core.framework.kafka.BulkMessageHandler;
 import core.framework.kafka.MessageHandler;
@@ -18,6 +19,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static core.framework.util.Strings.format;
 
@@ -40,7 +44,9 @@ public class MessageListener {
     public int maxPollBytes = 3 * 1024 * 1024;  // get 3M bytes message at max
     public int minPollBytes = 1;                // default kafka setting
     public Duration minPollMaxWaitTime = Duration.ofMillis(500);
+    public int workerSize;                      // if greater than 0, records are processed by shared worker pool in key lanes, to decouple consumer count from processing parallelism
 
+    ExecutorService workers;
     private MessageListenerThread[] threads;
 
     public MessageListener(String uri, String name, LogManager logManager) {
@@ -56,8 +62,22 @@ public class MessageListener {
         processes.put(topic, new MessageProcess<>(handler, bulkHandler, messageClass));
     }
 
-    public void start() {
+    @SuppressWarnings("unchecked")
+    public <T> void decoder(String topic, Class<T> messageClass, String contentType, Function<byte[], T> decoder) {
+        MessageProcess<?> process = processes.get(topic);
+        if (process == null) throw new Error(format("topic is not subscribed, topic={}", topic));
+        if (process.messageClass != messageClass)
+            throw new Error(format("message class does not match subscription, topic={}, messageClass={}, subscribedClass={}", topic, messageClass.getCanonicalName(), process.messageClass.getCanonicalName()));
+        ((MessageProcess<T>) process).decoders.put(contentType, decoder);
+    }
+
+    // create consumers in parallel with other resources during startup, and start consuming after all resources are ready
+    public void initialize() {
+        if (workerSize > 0) workers = ThreadPools.cachedThreadPool(workerSize, "kafka-worker-" + (name == null ? "" : name + "-"));
         this.threads = createListenerThreads(); // if it fails to create thread (such kafka host is invalid, failed to create consumer), this.threads will be null to skip shutdown/awaitTermination
+    }
+
+    public void start() {
         for (var thread : threads) {
             thread.start();
         }
@@ -97,6 +117,14 @@ public class MessageListener {
                     logger.warn(e.getMessage(), e);
                 }
             }
+            if (workers != null) {
+                workers.shutdown();     // listener threads wait until all submitted lanes complete, so workers are idle here
+                try {
+                    workers.awaitTermination(Math.max(0, end - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    logger.warn(e.getMessage(), e);
+                }
+            }
             logger.info("kafka listener stopped, uri={}, topics={}, name={}", uri, topics, name);
         }
     }
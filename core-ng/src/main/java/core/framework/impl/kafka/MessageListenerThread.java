@@ -3,7 +3,6 @@ package core.framework.impl.kafka;
 import core.framework.impl.log.ActionLog;
 import core.framework.impl.log.LogManager;
 import core.framework.impl.log.filter.BytesLogParam;
-import core.framework.internal.json.JSONMapper;
 import core.framework.kafka.Message;
 import core.framework.log.Markers;
 import core.framework.util.StopWatch;
@@ -11,6 +10,8 @@ import core.framework.util.Threads;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
@@ -18,11 +19,15 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -35,6 +40,8 @@ class MessageListenerThread extends Thread {
     private final Consumer<byte[], byte[]> consumer;
     private final LogManager logManager;
     private final Map<String, MessageProcess<?>> processes;
+    private final ExecutorService workers;
+    private final int laneSize;
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
     private final AtomicBoolean processing = new AtomicBoolean(false);
     private final double batchLongProcessThresholdInNano;
@@ -45,6 +52,8 @@ class MessageListenerThread extends Thread {
         this.consumer = consumer;
         processes = listener.processes;
         logManager = listener.logManager;
+        workers = listener.workers;
+        laneSize = listener.workerSize;
         batchLongProcessThresholdInNano = listener.maxProcessTime.toNanos() * 0.7; // 70% time of max
     }
 
@@ -96,10 +105,11 @@ class MessageListenerThread extends Thread {
         consumer.close();
     }
 
-    private void processRecords(ConsumerRecords<byte[], byte[]> kafkaRecords) {
+    void processRecords(ConsumerRecords<byte[], byte[]> kafkaRecords) {
         var watch = new StopWatch();
         int count = 0;
         int size = 0;
+        ProcessedOffsets offsets = workers == null ? null : new ProcessedOffsets(kafkaRecords);
         try {
             Map<String, List<ConsumerRecord<byte[], byte[]>>> messages = new HashMap<>();     // record in one topic maintains order
             for (ConsumerRecord<byte[], byte[]> record : kafkaRecords) {
@@ -107,6 +117,10 @@ class MessageListenerThread extends Thread {
                 count++;
                 size += record.value().length;
             }
+            if (offsets != null) {
+                processInLanes(messages, offsets, count);
+                return;
+            }
             for (Map.Entry<String, List<ConsumerRecord<byte[], byte[]>>> entry : messages.entrySet()) {
                 String topic = entry.getKey();
                 List<ConsumerRecord<byte[], byte[]>> records = entry.getValue();
@@ -118,48 +132,130 @@ class MessageListenerThread extends Thread {
                 }
             }
         } finally {
-            consumer.commitAsync();
+            if (offsets == null) consumer.commitAsync();
+            else commit(offsets);
             logger.info("process kafka records, count={}, size={}, elapsed={}", count, size, watch.elapsed());
         }
     }
 
-    private <T> void handle(String topic, MessageProcess<T> process, List<ConsumerRecord<byte[], byte[]>> records, double longProcessThresholdInNano) {
+    // records with same key go to same lane and are handled in order, lanes are handled by worker pool in parallel, and all lanes complete before next poll
+    private void processInLanes(Map<String, List<ConsumerRecord<byte[], byte[]>>> messages, ProcessedOffsets offsets, int count) {
+        double longProcessThresholdInNano = longProcessThreshold(batchLongProcessThresholdInNano, 1, count);
+        List<List<ConsumerRecord<byte[], byte[]>>> lanes = new ArrayList<>(laneSize);
+        for (int i = 0; i < laneSize; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        List<Map.Entry<String, List<ConsumerRecord<byte[], byte[]>>>> bulkMessages = new ArrayList<>();
+        for (Map.Entry<String, List<ConsumerRecord<byte[], byte[]>>> entry : messages.entrySet()) {
+            if (processes.get(entry.getKey()).bulkHandler != null) {
+                bulkMessages.add(entry);
+            } else {
+                for (ConsumerRecord<byte[], byte[]> record : entry.getValue()) {
+                    lanes.get(lane(record.key(), laneSize)).add(record);
+                }
+            }
+        }
+
+        var cancelled = new AtomicBoolean(false);
+        List<Future<?>> futures = new ArrayList<>(laneSize);
+        for (List<ConsumerRecord<byte[], byte[]>> lane : lanes) {
+            if (!lane.isEmpty()) futures.add(workers.submit(() -> handleLane(lane, offsets, cancelled, longProcessThresholdInNano)));
+        }
+        for (Map.Entry<String, List<ConsumerRecord<byte[], byte[]>>> entry : bulkMessages) {  // bulk handler processes in listener thread along with lanes
+            List<ConsumerRecord<byte[], byte[]>> records = entry.getValue();
+            handleBulk(entry.getKey(), processes.get(entry.getKey()), records, longProcessThreshold(batchLongProcessThresholdInNano, records.size(), count));
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                offsets.processed(record);
+            }
+        }
+        awaitLanes(futures, cancelled);
+    }
+
+    // offsets must only be committed after all lanes stopped, if interrupted, let lanes stop after current record and still wait for them
+    private void awaitLanes(List<Future<?>> futures, AtomicBoolean cancelled) {
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    if (!interrupted) logger.warn("interrupted while waiting for lanes to complete, cancel remaining records", e);
+                    interrupted = true;
+                    cancelled.set(true);
+                } catch (ExecutionException e) {
+                    logger.error("failed to handle lane", e);
+                    break;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void handleLane(List<ConsumerRecord<byte[], byte[]>> records, ProcessedOffsets offsets, AtomicBoolean cancelled, double longProcessThresholdInNano) {
         for (ConsumerRecord<byte[], byte[]> record : records) {
-            ActionLog actionLog = logManager.begin("=== message handling begin ===");
-            try {
-                actionLog.action("topic:" + topic);
-                actionLog.context("topic", topic);
-                actionLog.context("handler", process.handler.getClass().getCanonicalName());
-                actionLog.track("kafka", 0, 1, 0);
-
-                Headers headers = record.headers();
-                if ("true".equals(header(headers, MessageHeaders.HEADER_TRACE))) actionLog.trace = true;
-                String correlationId = header(headers, MessageHeaders.HEADER_CORRELATION_ID);
-                if (correlationId != null) actionLog.correlationIds = List.of(correlationId);
-                String client = header(headers, MessageHeaders.HEADER_CLIENT);
-                if (client != null) actionLog.clients = List.of(client);
-                String refId = header(headers, MessageHeaders.HEADER_REF_ID);
-                if (refId != null) actionLog.refIds = List.of(refId);
-                logger.debug("[header] refId={}, client={}, correlationId={}", refId, client, correlationId);
-
-                String key = new String(record.key(), UTF_8);   // key will be not null in our system
-                actionLog.context("key", key);
-
-                byte[] value = record.value();
-                logger.debug("[message] value={}", new BytesLogParam(value));
-                T message = process.mapper.fromJSON(value);
-                process.validator.validate(message);
-                process.handler.handle(key, message);
-            } catch (Throwable e) {
-                logManager.logError(e);
-            } finally {
-                long elapsed = actionLog.elapsed();
-                checkSlowProcess(elapsed, longProcessThresholdInNano);
-                logManager.end("=== message handling end ===");
+            if (shutdown.get() || cancelled.get()) break;  // remaining records are not committed and will be redelivered, to stop faster
+            String topic = record.topic();
+            handle(topic, processes.get(topic), record, longProcessThresholdInNano);
+            offsets.processed(record);
+        }
+    }
+
+    int lane(byte[] key, int laneSize) {
+        return (Arrays.hashCode(key) & Integer.MAX_VALUE) % laneSize;
+    }
+
+    private void commit(ProcessedOffsets offsets) {
+        Map<TopicPartition, OffsetAndMetadata> commitOffsets = offsets.commitOffsets();
+        if (!commitOffsets.isEmpty()) consumer.commitAsync(commitOffsets, null);
+        if (!shutdown.get()) {
+            for (Map.Entry<TopicPartition, Long> entry : offsets.unprocessedOffsets().entrySet()) {
+                consumer.seek(entry.getKey(), entry.getValue());    // redeliver unprocessed records in next poll
             }
         }
     }
 
+    private <T> void handle(String topic, MessageProcess<T> process, List<ConsumerRecord<byte[], byte[]>> records, double longProcessThresholdInNano) {
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            handle(topic, process, record, longProcessThresholdInNano);
+        }
+    }
+
+    private <T> void handle(String topic, MessageProcess<T> process, ConsumerRecord<byte[], byte[]> record, double longProcessThresholdInNano) {
+        ActionLog actionLog = logManager.begin("=== message handling begin ===");
+        try {
+            actionLog.action("topic:" + topic);
+            actionLog.context("topic", topic);
+            actionLog.context("handler", process.handler.getClass().getCanonicalName());
+            actionLog.track("kafka", 0, 1, 0);
+
+            Headers headers = record.headers();
+            if ("true".equals(header(headers, MessageHeaders.HEADER_TRACE))) actionLog.trace = true;
+            String correlationId = header(headers, MessageHeaders.HEADER_CORRELATION_ID);
+            if (correlationId != null) actionLog.correlationIds = List.of(correlationId);
+            String client = header(headers, MessageHeaders.HEADER_CLIENT);
+            if (client != null) actionLog.clients = List.of(client);
+            String refId = header(headers, MessageHeaders.HEADER_REF_ID);
+            if (refId != null) actionLog.refIds = List.of(refId);
+            logger.debug("[header] refId={}, client={}, correlationId={}", refId, client, correlationId);
+
+            String key = new String(record.key(), UTF_8);   // key will be not null in our system
+            actionLog.context("key", key);
+
+            byte[] value = record.value();
+            logger.debug("[message] value={}", new BytesLogParam(value));
+            T message = process.decode(header(headers, MessageHeaders.HEADER_CONTENT_TYPE), value);
+            process.validator.validate(message);
+            process.handler.handle(key, message);
+        } catch (Throwable e) {
+            logManager.logError(e);
+        } finally {
+            long elapsed = actionLog.elapsed();
+            checkSlowProcess(elapsed, longProcessThresholdInNano);
+            logManager.end("=== message handling end ===");
+        }
+    }
+
     private <T> void handleBulk(String topic, MessageProcess<T> process, List<ConsumerRecord<byte[], byte[]>> records, double longProcessThresholdInNano) {
         ActionLog actionLog = logManager.begin("=== message handling begin ===");
         try {
@@ -167,7 +263,7 @@ class MessageListenerThread extends Thread {
             actionLog.context("topic", topic);
             actionLog.context("handler", process.bulkHandler.getClass().getCanonicalName());
 
-            List<Message<T>> messages = messages(records, actionLog, process.mapper);
+            List<Message<T>> messages = messages(records, actionLog, process);
             for (Message<T> message : messages) {
                 process.validator.validate(message.value);
             }
@@ -182,7 +278,7 @@ class MessageListenerThread extends Thread {
         }
     }
 
-    <T> List<Message<T>> messages(List<ConsumerRecord<byte[], byte[]>> records, ActionLog actionLog, JSONMapper<T> mapper) {
+    <T> List<Message<T>> messages(List<ConsumerRecord<byte[], byte[]>> records, ActionLog actionLog, MessageProcess<T> process) {
         int size = records.size();
         actionLog.track("kafka", 0, size, 0);
         List<Message<T>> messages = new ArrayList<>(size);
@@ -204,7 +300,7 @@ class MessageListenerThread extends Thread {
             byte[] value = record.value();
             logger.debug("[message] key={}, value={}, refId={}, client={}, correlationId={}", key, new BytesLogParam(value), refId, client, correlationId);
 
-            T message = mapper.fromJSON(value);
+            T message = process.decode(header(headers, MessageHeaders.HEADER_CONTENT_TYPE), value);
             messages.add(new Message<>(key, message));
         }
 
@@ -4,6 +4,10 @@ import core.framework.internal.json.JSONMapper;
 import core.framework.kafka.BulkMessageHandler;
 import core.framework.kafka.MessageHandler;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * @author neo
  */
@@ -12,11 +16,21 @@ class MessageProcess<T> {
     final BulkMessageHandler<T> bulkHandler;
     final MessageValidator<T> validator;
     final JSONMapper<T> mapper;
+    final Class<T> messageClass;
+    final Map<String, Function<byte[], T>> decoders = new HashMap<>();    // by content type header, message without content type is json
 
     MessageProcess(MessageHandler<T> handler, BulkMessageHandler<T> bulkHandler, Class<T> messageClass) {
         this.handler = handler;
         this.bulkHandler = bulkHandler;
+        this.messageClass = messageClass;
         validator = new MessageValidator<>(messageClass);
         mapper = new JSONMapper<>(messageClass);
     }
+
+    T decode(String contentType, byte[] value) {
+        if (contentType == null) return mapper.fromJSON(value);
+        Function<byte[], T> decoder = decoders.get(contentType);
+        if (decoder == null) throw new Error("unsupported content type, contentType=" + contentType);
+        return decoder.apply(value);
+    }
 }
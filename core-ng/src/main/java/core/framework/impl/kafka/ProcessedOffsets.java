@@ -0,0 +1,91 @@
+package core.framework.impl.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * tracks processed records of one poll per partition, records can be completed out of order by key lanes,
+ * only offset before first unprocessed record of each partition is committed
+ *
+ * @author neo
+ */
+final class ProcessedOffsets {
+    private final Map<TopicPartition, PartitionOffsets> partitions = new HashMap<>();
+
+    ProcessedOffsets(ConsumerRecords<byte[], byte[]> records) {
+        for (TopicPartition partition : records.partitions()) {
+            partitions.put(partition, new PartitionOffsets(records.records(partition)));
+        }
+    }
+
+    void processed(ConsumerRecord<byte[], byte[]> record) {
+        partitions.get(new TopicPartition(record.topic(), record.partition())).processed(record.offset());
+    }
+
+    // offset to commit is next offset to consume, partition without any processed record from beginning is skipped
+    Map<TopicPartition, OffsetAndMetadata> commitOffsets() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, PartitionOffsets> entry : partitions.entrySet()) {
+            long offset = entry.getValue().nextOffset();
+            if (offset >= 0) offsets.put(entry.getKey(), new OffsetAndMetadata(offset));
+        }
+        return offsets;
+    }
+
+    // first unprocessed offset of each partition which is not fully processed, consumer must seek back to it to redeliver
+    Map<TopicPartition, Long> unprocessedOffsets() {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, PartitionOffsets> entry : partitions.entrySet()) {
+            long offset = entry.getValue().firstUnprocessedOffset();
+            if (offset >= 0) offsets.put(entry.getKey(), offset);
+        }
+        return offsets;
+    }
+
+    static final class PartitionOffsets {
+        private final long[] offsets;   // offsets in one poll are ascending, may have gaps with compacted topic
+        private final AtomicIntegerArray processed;
+
+        PartitionOffsets(List<ConsumerRecord<byte[], byte[]>> records) {
+            int size = records.size();
+            offsets = new long[size];
+            for (int i = 0; i < size; i++) {
+                offsets[i] = records.get(i).offset();
+            }
+            processed = new AtomicIntegerArray(size);
+        }
+
+        void processed(long offset) {
+            int index = Arrays.binarySearch(offsets, offset);
+            if (index >= 0) processed.set(index, 1);
+        }
+
+        long nextOffset() {
+            int index = firstUnprocessedIndex();
+            if (index == 0) return -1;
+            if (index == offsets.length) return offsets[offsets.length - 1] + 1;
+            return offsets[index];
+        }
+
+        long firstUnprocessedOffset() {
+            int index = firstUnprocessedIndex();
+            return index == offsets.length ? -1 : offsets[index];
+        }
+
+        private int firstUnprocessedIndex() {
+            int length = offsets.length;
+            for (int i = 0; i < length; i++) {
+                if (processed.get(i) == 0) return i;
+            }
+            return length;
+        }
+    }
+}
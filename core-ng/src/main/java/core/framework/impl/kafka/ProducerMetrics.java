@@ -5,12 +5,17 @@ import org.apache.kafka.common.Metric;
 import org.apache.kafka.common.MetricName;
 
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
 
 /**
  * @author neo
  */
 public class ProducerMetrics implements Metrics {
     private final String name;
+    private final LongAdder sentRecords = new LongAdder();
+    private final LongAdder droppedRecords = new LongAdder();
+    private IntSupplier queueSize;  // only for producer sends from bounded queue, e.g. log forwarder
     private Metric requestRate; // The number of requests sent per second, one request contains multiple batches
     private Metric requestSizeAvg; // The average size of requests sent
     private Metric outgoingByteRate; // The number of outgoing bytes sent to all servers per second
@@ -24,6 +29,23 @@ public class ProducerMetrics implements Metrics {
         if (requestRate != null) stats.put(statName("request_rate"), (Double) requestRate.metricValue());
         if (requestSizeAvg != null) stats.put(statName("request_size_avg"), (Double) requestSizeAvg.metricValue());
         if (outgoingByteRate != null) stats.put(statName("outgoing_byte_rate"), (Double) outgoingByteRate.metricValue());
+        if (queueSize != null) {
+            stats.put(statName("queued_records"), (double) queueSize.getAsInt());
+            stats.put(statName("sent_records"), (double) sentRecords.sumThenReset());
+            stats.put(statName("dropped_records"), (double) droppedRecords.sumThenReset());
+        }
+    }
+
+    public void queueSize(IntSupplier queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void sent(int records) {
+        sentRecords.add(records);
+    }
+
+    public void dropped(int records) {
+        droppedRecords.add(records);
     }
 
     public void set(Map<MetricName, ? extends Metric> kafkaMetrics) {
@@ -2,6 +2,7 @@ package core.framework.impl.log;
 
 import core.framework.internal.log.message.PerformanceStat;
 import core.framework.util.Strings;
+import org.slf4j.Marker;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
@@ -31,11 +32,11 @@ public final class ActionLog {
 
     public final String id;
     final Instant date;
-    final Map<String, String> context;
-    final Map<String, PerformanceStat> performanceStats;
-    final List<LogEvent> events;
+    final LogEventArena events;
     final long startTime;
-    private final long startCPUTime;
+    private long startCPUTime;         // cpu time is per thread, reset when resumed on other thread
+    private final String beginMessage;
+    private final String threadName;
 
     public boolean trace;  // whether flush trace log for all subsequent actions
     public String action = "unassigned";
@@ -43,61 +44,101 @@ public final class ActionLog {
     public List<String> clients;
     public List<String> refIds;
     Map<String, Double> stats;
+    Map<String, String> context;        // context and performance stats are created on first use
+    Map<String, PerformanceStat> performanceStats;
 
     String errorMessage;
+    String traceLog;        // rendered on request thread if flushed, before action log is handed off to encoder
     long elapsed;
     long cpuTime;
 
     private LogLevel result = LogLevel.INFO;
     private String errorCode;
+    private String endMessage;
 
     public ActionLog(String message) {
         startTime = System.nanoTime();
         startCPUTime = THREAD.getCurrentThreadCpuTime();
         date = Instant.now();
         id = LogManager.ID_GENERATOR.next(date);
-        events = new ArrayList<>(32);   // according to benchmark, ArrayList is as fast as LinkedList with max 3000 items, and has smaller memory footprint
-        context = new LinkedHashMap<>();
-        performanceStats = new HashMap<>();
-
-        add(event(message));
-        add(event("id={}", id));
-        add(event("date={}", DateTimeFormatter.ISO_INSTANT.format(date)));
-        Thread thread = Thread.currentThread();
-        add(event("thread={}", thread.getName()));
-    }
-
-    void process(LogEvent event) {
-        if (event.level.value > result.value) {
-            result = event.level;
-            errorCode = event.errorCode();      // only update errorCode/message if level raised, so errorCode will be first WARN or ERROR
-            errorMessage = Strings.truncate(event.message(), MAX_ERROR_MESSAGE_LENGTH);     // limit error message length in action log
-        }
-        if (event.level.value >= WARN.value || events.size() < MAX_TRACE_HOLD_SIZE) {       // after reach max holding lines, only add warning/error events
-            add(event);
+        events = LogEventArena.acquire();
+        beginMessage = message;
+        threadName = Thread.currentThread().getName();
+    }
+
+    void process(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        if (level.value >= WARN.value || events.size() < MAX_TRACE_HOLD_SIZE) {       // after reach max holding lines, only add warning/error events
+            if (level.value > result.value) {   // only WARN or ERROR raises level, which is always added
+                LogEvent event = add(logger, marker, level, message, arguments, exception);
+                result = level;
+                errorCode = event.errorCode();      // only update errorCode/message if level raised, so errorCode will be first WARN or ERROR
+                errorMessage = Strings.truncate(event.message(), MAX_ERROR_MESSAGE_LENGTH);     // limit error message length in action log
+            } else {
+                add(logger, marker, level, message, arguments, exception);
+            }
         }
     }
 
+    // action continues on other thread, e.g. async controller, events arena must not be held by current thread
+    void suspend() {
+        cpuTime += THREAD.getCurrentThreadCpuTime() - startCPUTime;
+        events.detach();
+    }
+
+    void resume() {
+        startCPUTime = THREAD.getCurrentThreadCpuTime();
+    }
+
     void end(String message) {
-        cpuTime = THREAD.getCurrentThreadCpuTime() - startCPUTime;
+        cpuTime += THREAD.getCurrentThreadCpuTime() - startCPUTime;
         elapsed = elapsed();
-        add(event("elapsed={}", elapsed));
-        add(event(message));
+        endMessage = message;
+        if (flushTraceLog()) events.detach();
+        else events.release();      // trace log will not be rendered, events can be reused by next action of current thread
+    }
+
+    // begin and end lines are only created when trace log is flushed
+    List<LogEvent> traceEvents() {
+        int size = events.size();
+        List<LogEvent> traceEvents = new ArrayList<>(size + 6);
+        traceEvents.add(event(startTime, beginMessage));
+        traceEvents.add(event(startTime, "id={}", id));
+        traceEvents.add(event(startTime, "date={}", DateTimeFormatter.ISO_INSTANT.format(date)));
+        traceEvents.add(event(startTime, "thread={}", threadName));
+        for (int i = 0; i < size; i++) {
+            traceEvents.add(events.get(i));
+        }
+        if (endMessage != null) {
+            long endTime = startTime + elapsed;
+            traceEvents.add(event(endTime, "elapsed={}", elapsed));
+            traceEvents.add(event(endTime, endMessage));
+        }
+        return traceEvents;
     }
 
     public long elapsed() {
         return System.nanoTime() - startTime;
     }
 
-    private void add(LogEvent event) {  // log inside action log will call this to add log event directly, so internal message won't be suspended
-        events.add(event);
+    private LogEvent add(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        long now = System.nanoTime();
+        LogEvent event = events.add(now);
+        event.update(logger, marker, level, message, arguments, exception);
         if (events.size() == MAX_TRACE_HOLD_SIZE) {
-            events.add(event("reached max trace log holding size, only collect critical log event from now on"));
+            events.add(now).update(LOGGER, null, DEBUG, "reached max trace log holding size, only collect critical log event from now on", null, null);
         }
+        return event;
+    }
+
+    private void add(String message, Object... arguments) {     // log inside action log will call this to add log event directly, so internal message won't be suspended
+        add(LOGGER, null, DEBUG, message, arguments, null);
     }
 
-    private LogEvent event(String message, Object... arguments) {
-        return new LogEvent(LOGGER, null, DEBUG, message, arguments, null);
+    private LogEvent event(long time, String message, Object... arguments) {
+        var event = new LogEvent();
+        event.time = time;
+        event.update(LOGGER, null, DEBUG, message, arguments, null);
+        return event;
     }
 
     String result() {
@@ -117,6 +158,7 @@ public final class ActionLog {
     }
 
     public Optional<String> context(String key) {
+        if (context == null) return Optional.empty();
         return Optional.ofNullable(context.get(key));
     }
 
@@ -125,19 +167,21 @@ public final class ActionLog {
         if (contextValue.length() > MAX_CONTEXT_VALUE_LENGTH) { // prevent application code from putting large blob as context, e.g. xml or json response
             throw new Error(format("context value is too long, key={}, value={}...(truncated)", key, contextValue.substring(0, MAX_CONTEXT_VALUE_LENGTH)));
         }
+        if (context == null) context = new LinkedHashMap<>();
         String previous = context.put(key, contextValue);
         // put context can be called by application code, check duplication to avoid producing huge trace log by accident
         if (previous != null) throw new Error(format("found duplicate context key, key={}, value={}, previous={}", key, contextValue, previous));
-        add(event("[context] {}={}", key, contextValue));
+        add("[context] {}={}", key, contextValue);
     }
 
     public void stat(String key, double value) {
         if (stats == null) stats = new HashMap<>();
         stats.compute(key, (k, oldValue) -> (oldValue == null) ? value : oldValue + value);
-        add(event("[stat] {}={}", key, value));
+        add("[stat] {}={}", key, value);
     }
 
     public void track(String action, long elapsed, Integer readEntries, Integer writeEntries) {
+        if (performanceStats == null) performanceStats = new HashMap<>();
         PerformanceStat stat = performanceStats.computeIfAbsent(action, key -> createPerformanceStat());
         stat.count += 1;
         stat.totalElapsed += elapsed;
@@ -165,7 +209,7 @@ public final class ActionLog {
     }
 
     public void action(String action) {
-        add(event("action={}", action));
+        add("action={}", action);
         this.action = action;
     }
 }
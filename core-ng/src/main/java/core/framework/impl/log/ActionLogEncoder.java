@@ -0,0 +1,100 @@
+package core.framework.impl.log;
+
+import core.framework.internal.log.appender.LogAppender;
+import core.framework.internal.log.appender.RingBuffer;
+import core.framework.internal.log.message.ActionLogMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * creates message and appends (e.g. json serialization of kafka appender) in background thread, to keep cost off request thread,
+ * trace log is rendered on request thread before handing off, as log event arguments may still be modified by request thread after action ended,
+ * other fields of ended action log are strings or numbers, which are not touched by request thread anymore,
+ * if queue is full, action log is encoded on request thread as backpressure instead of being dropped
+ *
+ * @author neo
+ */
+public final class ActionLogEncoder {
+    private static final int MAX_QUEUE_SIZE = 4096;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    final LongAdder encodedCount = new LongAdder();
+    final LongAdder inlineCount = new LongAdder();
+    final LongAdder waitElapsed = new LongAdder();      // from action end to encoding start
+    final LongAdder encodeElapsed = new LongAdder();    // create message and render trace log
+    final LongAdder appendElapsed = new LongAdder();    // append message to appender
+    final RingBuffer<ActionLog> logs = new RingBuffer<>(MAX_QUEUE_SIZE);
+    private final Logger logger = LoggerFactory.getLogger(ActionLogEncoder.class);
+    private final ActionLogMessageFactory factory = new ActionLogMessageFactory();
+    private final LogAppender appender;
+    private final Thread encoderThread;
+    private volatile boolean stop;
+    private volatile boolean waiting;   // encoder thread is parked or about to park, submit unparks it
+
+    public ActionLogEncoder(LogAppender appender) {
+        this.appender = appender;
+        encoderThread = new Thread(this::process, "action-log-encoder");
+    }
+
+    public void start() {
+        encoderThread.start();
+    }
+
+    public void stop(long timeoutInMs) throws InterruptedException {
+        logger.info("stop action log encoder");
+        stop = true;
+        LockSupport.unpark(encoderThread);
+        encoderThread.join(timeoutInMs <= 0 ? 1000 : timeoutInMs);
+    }
+
+    void submit(ActionLog log) {
+        if (log.flushTraceLog()) log.traceLog = factory.trace(log);
+        if (stop || !logs.offer(log)) {
+            inlineCount.increment();
+            encode(log, System.nanoTime());
+        } else if (waiting) {
+            LockSupport.unpark(encoderThread);
+        }
+    }
+
+    private void process() {
+        List<ActionLog> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            if (logs.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                if (stop) break;    // all remaining logs are flushed
+                waiting = true;
+                if (!stop && logs.isEmpty()) LockSupport.park(this);   // check again after flag is set, submit either sees flag or is seen here
+                waiting = false;
+                continue;
+            }
+            for (ActionLog log : batch) {
+                long start = System.nanoTime();
+                waitElapsed.add(start - (log.startTime + log.elapsed));
+                encode(log, start);
+            }
+            batch.clear();
+        }
+    }
+
+    void encode(ActionLog log, long start) {
+        try {
+            ActionLogMessage message = factory.create(log);
+            long encoded = System.nanoTime();
+            encodeElapsed.add(encoded - start);
+            appender.append(message);
+            appendElapsed.add(System.nanoTime() - encoded);
+            encodedCount.increment();
+        } catch (Throwable e) {
+            logger.warn("failed to append action log, error={}", e.getMessage(), e);
+        }
+    }
+
+    int queueSize() {
+        return logs.size();
+    }
+}
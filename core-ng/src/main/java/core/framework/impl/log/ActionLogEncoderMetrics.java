@@ -0,0 +1,27 @@
+package core.framework.impl.log;
+
+import core.framework.internal.stat.Metrics;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+public class ActionLogEncoderMetrics implements Metrics {
+    private final ActionLogEncoder encoder;
+
+    public ActionLogEncoderMetrics(ActionLogEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    @Override
+    public void collect(Map<String, Double> stats) {
+        stats.put("action_log_queued", (double) encoder.queueSize());
+        stats.put("action_log_encoded_count", (double) encoder.encodedCount.sumThenReset());
+        stats.put("action_log_inline_count", (double) encoder.inlineCount.sumThenReset());
+        // total elapsed of each stage since last collection, in nanoseconds
+        stats.put("action_log_wait_total_elapsed", (double) encoder.waitElapsed.sumThenReset());
+        stats.put("action_log_encode_total_elapsed", (double) encoder.encodeElapsed.sumThenReset());
+        stats.put("action_log_append_total_elapsed", (double) encoder.appendElapsed.sumThenReset());
+    }
+}
@@ -3,6 +3,9 @@ package core.framework.impl.log;
 import core.framework.internal.log.message.ActionLogMessage;
 import core.framework.util.Network;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author neo
  */
@@ -24,18 +27,23 @@ public class ActionLogMessageFactory {
         message.action = log.action;
         message.errorCode = log.errorCode();
         message.errorMessage = log.errorMessage;
-        message.context = log.context;
+        message.context = log.context == null ? Map.of() : log.context;
         message.stats = log.stats;
-        message.performanceStats = log.performanceStats;
+        message.performanceStats = log.performanceStats == null ? Map.of() : log.performanceStats;
         if (log.flushTraceLog()) {
-            message.traceLog = trace(log, MAX_TRACE_LENGTH);
+            message.traceLog = log.traceLog != null ? log.traceLog : trace(log);
         }
         return message;
     }
 
+    String trace(ActionLog log) {
+        return trace(log, MAX_TRACE_LENGTH);
+    }
+
     String trace(ActionLog log, int maxLength) {
-        var builder = new StringBuilder(log.events.size() << 7);  // length * 128 as rough initial capacity
-        for (LogEvent event : log.events) {
+        List<LogEvent> events = log.traceEvents();
+        var builder = new StringBuilder(events.size() << 7);  // length * 128 as rough initial capacity
+        for (LogEvent event : events) {
             event.appendTrace(builder, log.startTime);
             if (builder.length() >= maxLength) {
                 builder.setLength(maxLength);
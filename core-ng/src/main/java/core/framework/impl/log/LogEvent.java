@@ -9,19 +9,29 @@ import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 
 /**
+ * event is reused by LogEventArena, message is only formatted when trace log is flushed or event is written to console
+ *
  * @author neo
  */
 final class LogEvent {
-    final LogLevel level;
+    LogLevel level;
+    long time;
 
-    private final long time = System.nanoTime();
-    private final String logger;
-    private final Marker marker;
-    private final String message;
-    private final Object[] arguments;
-    private final Throwable exception;
+    private String logger;
+    private Marker marker;
+    private String message;
+    private Object[] arguments;
+    private Throwable exception;
+
+    LogEvent() {
+    }
 
     LogEvent(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
+        time = System.nanoTime();
+        update(logger, marker, level, message, arguments, exception);
+    }
+
+    void update(String logger, Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
         this.level = level;
         this.marker = marker;
         this.logger = logger;
@@ -30,6 +40,10 @@ final class LogEvent {
         this.exception = exception;
     }
 
+    void clear() {  // not to hold references of arguments after action ended
+        update(null, null, null, null, null, null);
+    }
+
     String message() {  // only be called for error message
         if (arguments == null || arguments.length == 0) return message;     // most of case, message is from exception, and without no arguments
 
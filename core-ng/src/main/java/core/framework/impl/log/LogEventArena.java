@@ -0,0 +1,61 @@
+package core.framework.impl.log;
+
+import java.util.Arrays;
+
+/**
+ * per thread reusable log events of action log, to avoid allocating event per log call,
+ * arena is released back to thread when action ended without flushing trace,
+ * otherwise it's detached and handed to encoder along with action log, and thread will create new one for next action
+ *
+ * @author neo
+ */
+final class LogEventArena {
+    private static final ThreadLocal<LogEventArena> ARENA = ThreadLocal.withInitial(LogEventArena::new);
+    private static final int INITIAL_SIZE = 32;
+    private static final int MAX_RETAINED_SIZE = 512;   // not to keep large arena for all threads after long action
+
+    static LogEventArena acquire() {
+        LogEventArena arena = ARENA.get();
+        if (arena.inUse) return new LogEventArena();    // nested action log in same thread, e.g. unit test
+        arena.inUse = true;
+        return arena;
+    }
+
+    private LogEvent[] events = new LogEvent[INITIAL_SIZE];
+    private int size;
+    private boolean inUse;
+
+    // returns next reusable slot with given time, caller fills it by LogEvent.update()
+    LogEvent add(long time) {
+        if (size == events.length) events = Arrays.copyOf(events, size << 1);
+        LogEvent event = events[size];
+        if (event == null) {
+            event = new LogEvent();
+            events[size] = event;
+        }
+        event.time = time;
+        size++;
+        return event;
+    }
+
+    LogEvent get(int index) {
+        return events[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void release() {
+        for (int i = 0; i < size; i++) {
+            events[i].clear();
+        }
+        size = 0;
+        if (events.length > MAX_RETAINED_SIZE) events = Arrays.copyOf(events, MAX_RETAINED_SIZE);
+        inUse = false;
+    }
+
+    void detach() {
+        if (ARENA.get() == this) ARENA.remove();
+    }
+}
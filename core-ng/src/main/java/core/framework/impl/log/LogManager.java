@@ -33,6 +33,7 @@ public class LogManager {
 
     private final ActionLogMessageFactory actionLogMessageFactory = new ActionLogMessageFactory();
     public LogAppender appender;
+    public ActionLogEncoder encoder;    // if set, action log is encoded and appended in background
 
     public ActionLog begin(String message) {
         var actionLog = new ActionLog(message);
@@ -45,7 +46,9 @@ public class LogManager {
         CURRENT_ACTION_LOG.remove();
         actionLog.end(message);
 
-        if (appender != null) {
+        if (encoder != null) {
+            encoder.submit(actionLog);
+        } else if (appender != null) {
             try {
                 appender.append(actionLogMessageFactory.create(actionLog));
             } catch (Throwable e) {
@@ -54,6 +57,18 @@ public class LogManager {
         }
     }
 
+    public ActionLog suspend() {
+        ActionLog actionLog = CURRENT_ACTION_LOG.get();
+        CURRENT_ACTION_LOG.remove();
+        actionLog.suspend();
+        return actionLog;
+    }
+
+    public void resume(ActionLog actionLog) {
+        actionLog.resume();
+        CURRENT_ACTION_LOG.set(actionLog);
+    }
+
     public void logError(Throwable e) {
         String errorMessage = e.getMessage();
         String errorCode = errorCode(e);
@@ -41,13 +41,11 @@ public final class LoggerImpl extends AbstractLogger {
     @Override
     public void log(Marker marker, LogLevel level, String message, Object[] arguments, Throwable exception) {
         if (level.value >= traceLevel.value) {
-            var event = new LogEvent(logger, marker, level, message, arguments, exception);
-
             ActionLog actionLog = LogManager.CURRENT_ACTION_LOG.get();
-            if (actionLog != null) actionLog.process(event);    // logManager.begin() may not be called
+            if (actionLog != null) actionLog.process(logger, marker, level, message, arguments, exception);    // logManager.begin() may not be called
 
             if (level.value >= infoLevel.value) {
-                write(event);
+                write(new LogEvent(logger, marker, level, message, arguments, exception));
             }
         }
     }
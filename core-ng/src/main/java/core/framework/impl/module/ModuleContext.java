@@ -1,6 +1,5 @@
 package core.framework.impl.module;
 
-import core.framework.async.Task;
 import core.framework.http.HTTPMethod;
 import core.framework.impl.inject.BeanFactory;
 import core.framework.impl.log.LogManager;
@@ -10,20 +9,21 @@ import core.framework.impl.web.controller.ControllerHolder;
 import core.framework.impl.web.controller.ControllerInspector;
 import core.framework.impl.web.management.DiagnosticController;
 import core.framework.impl.web.management.PropertyController;
+import core.framework.impl.web.management.StartupController;
+import core.framework.impl.web.response.AsyncResponse;
 import core.framework.impl.web.route.PathPatternValidator;
 import core.framework.impl.web.service.ErrorResponse;
 import core.framework.impl.web.site.AJAXErrorResponse;
 import core.framework.internal.stat.Stat;
 import core.framework.util.ASCII;
-import core.framework.util.Lists;
 import core.framework.util.Maps;
+import core.framework.web.AsyncController;
 import core.framework.web.Controller;
 import core.framework.web.WebContext;
 import core.framework.web.site.WebDirectory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,7 +31,7 @@ import java.util.Map;
  */
 public class ModuleContext {
     public final BeanFactory beanFactory = new BeanFactory();
-    public final List<Task> startupHook = Lists.newArrayList();
+    public final StartupHook startupHook = new StartupHook();
     public final ShutdownHook shutdownHook = new ShutdownHook();
     public final PropertyManager propertyManager = new PropertyManager();
     public final LogManager logManager = new LogManager();
@@ -44,7 +44,7 @@ public class ModuleContext {
         httpServer = new HTTPServer(logManager);
         beanFactory.bind(WebContext.class, null, httpServer.handler.webContext);
         beanFactory.bind(WebDirectory.class, null, httpServer.siteManager.webDirectory);
-        startupHook.add(httpServer::start);
+        startupHook.add(StartupHook.STAGE_2, "http-server", httpServer::start);
         shutdownHook.add(ShutdownHook.STAGE_0, timeout -> httpServer.shutdown());
         shutdownHook.add(ShutdownHook.STAGE_1, httpServer::awaitRequestCompletion);
         shutdownHook.add(ShutdownHook.STAGE_9, timeout -> httpServer.awaitTermination());
@@ -58,12 +58,13 @@ public class ModuleContext {
         route(HTTPMethod.GET, "/_sys/heap", diagnosticController::heap, true);
         var propertyController = new PropertyController(propertyManager);
         route(HTTPMethod.GET, "/_sys/property", propertyController, true);
+        route(HTTPMethod.GET, "/_sys/startup", new StartupController(startupHook), true);
     }
 
     public BackgroundTaskExecutor backgroundTask() {
         if (backgroundTask == null) {
             backgroundTask = new BackgroundTaskExecutor();
-            startupHook.add(backgroundTask::start);
+            startupHook.add(StartupHook.STAGE_1, "background-task", backgroundTask::start);
             shutdownHook.add(ShutdownHook.STAGE_2, timeoutInMs -> backgroundTask.shutdown());
             shutdownHook.add(ShutdownHook.STAGE_3, backgroundTask::awaitTermination);
         }
@@ -78,6 +79,15 @@ public class ModuleContext {
         httpServer.handler.route.add(method, path, new ControllerHolder(controller, inspector.targetMethod, inspector.controllerInfo, action, skipInterceptor));
     }
 
+    public final void route(HTTPMethod method, String path, AsyncController controller) {
+        new PathPatternValidator(path, true).validate();
+        var inspector = ControllerInspector.async(controller);
+        new ControllerClassValidator(inspector.targetClass, inspector.targetMethod).validate();
+        String action = "http:" + ASCII.toLowerCase(method.name()) + ":" + path;
+        Controller adapter = request -> new AsyncResponse(controller.execute(request));     // interceptors get placeholder response, HTTPHandler resumes when stage completes
+        httpServer.handler.route.add(method, path, new ControllerHolder(adapter, inspector.targetMethod, inspector.controllerInfo, action, false));
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Config> T config(Class<T> configClass, String name) {
         String key = configClass.getCanonicalName() + ":" + name;   // not using computeIfAbsent, to avoid concurrent modification in nested call, e.g. httpConfig->publishAPIConfig->apiConfig
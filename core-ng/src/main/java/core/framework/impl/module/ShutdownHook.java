@@ -36,6 +36,11 @@ public final class ShutdownHook implements Runnable {
         stages.computeIfAbsent(stage, key -> new ArrayList<>()).add(shutdown);
     }
 
+    // for app which is only configured but not started (e.g. build time codegen), there is nothing to shutdown
+    public void cancel() {
+        Runtime.getRuntime().removeShutdownHook(thread);
+    }
+
     @Override
     public void run() {
         var watch = new StopWatch();
@@ -0,0 +1,123 @@
+package core.framework.impl.module;
+
+import core.framework.async.Task;
+import core.framework.impl.async.ThreadPools;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static core.framework.util.Strings.format;
+
+/**
+ * @author neo
+ */
+public final class StartupHook {
+    public static final int STAGE_0 = 0;    // initialize resources in parallel, tasks must not depend on each other, e.g. warm up db/redis pool, create kafka consumers, initialize mongo/search client
+    public static final int STAGE_1 = 1;    // start internal processors and application startup tasks in order, e.g. log forwarder / background task / onStartup
+    public static final int STAGE_2 = 2;    // finally start processors for external requests, e.g. kafka listener / scheduler / http server, to make sure all resources are ready, health check only passes after app is ready
+    public final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());     // elapsed time of each startup phase, in execution order
+    private final Logger logger = LoggerFactory.getLogger(StartupHook.class);
+    private final Map<Integer, List<StartupTask>> stages = new TreeMap<>();
+
+    public void add(int stage, String name, Task task) {
+        stages.computeIfAbsent(stage, key -> new ArrayList<>()).add(new StartupTask(name, task));
+    }
+
+    public void record(String name, long elapsed) {
+        phases.add(new Phase(name, elapsed));
+    }
+
+    List<String> tasks(int stage) {
+        List<StartupTask> tasks = stages.getOrDefault(stage, List.of());
+        List<String> names = new ArrayList<>(tasks.size());
+        for (StartupTask task : tasks) {
+            names.add(task.name);
+        }
+        return names;
+    }
+
+    public void execute() throws Exception {
+        var watch = new StopWatch();
+        for (Map.Entry<Integer, List<StartupTask>> entry : stages.entrySet()) {
+            Integer stage = entry.getKey();
+            List<StartupTask> tasks = entry.getValue();
+            logger.info("startup stage: {}", stage);
+            if (stage == STAGE_0 && tasks.size() > 1) {
+                executeInParallel(tasks);
+            } else {
+                for (StartupTask task : tasks) {
+                    execute(task);
+                }
+            }
+        }
+        logger.info("startup completed, elapsed={}", watch.elapsed());
+        for (Phase phase : phases) {
+            logger.info("[startup] {}={}", phase.name, Duration.ofNanos(phase.elapsed));
+        }
+    }
+
+    private void execute(StartupTask task) throws Exception {
+        var watch = new StopWatch();
+        try {
+            task.task.execute();
+        } finally {
+            record(task.name, watch.elapsed());
+        }
+    }
+
+    private void executeInParallel(List<StartupTask> tasks) throws InterruptedException {
+        ExecutorService executor = ThreadPools.cachedThreadPool(tasks.size(), "startup-");
+        try {
+            List<Future<Void>> futures = new ArrayList<>(tasks.size());
+            for (StartupTask task : tasks) {
+                futures.add(executor.submit(() -> {
+                    execute(task);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                waitFor(future);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void waitFor(Future<Void> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw new Error(format("failed to execute startup task, error={}", e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    public static final class Phase {
+        public final String name;
+        public final long elapsed;
+
+        Phase(String name, long elapsed) {
+            this.name = name;
+            this.elapsed = elapsed;
+        }
+    }
+
+    private static final class StartupTask {
+        final String name;
+        final Task task;
+
+        StartupTask(String name, Task task) {
+            this.name = name;
+            this.task = task;
+        }
+    }
+}
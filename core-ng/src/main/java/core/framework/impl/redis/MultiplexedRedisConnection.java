@@ -0,0 +1,114 @@
+package core.framework.impl.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * virtual connection on top of shared RedisMultiplexer, commands are buffered and sent on flush, replies are received from reader thread of multiplexer,
+ * each virtual connection has its own reply queue, so late replies after timeout go to the broken connection only, and never mismatch next command
+ *
+ * @author neo
+ */
+class MultiplexedRedisConnection extends RedisConnection {
+    private final RedisMultiplexer multiplexer;
+    private final CommandBuffer buffer = new CommandBuffer();
+    final BlockingQueue<Object> replies = new LinkedBlockingQueue<>();
+    private final Deque<Object> arrayElements = new ArrayDeque<>();    // reply is decoded by reader thread, elements of array reply are returned one by one
+    private final long timeoutInMs;
+    private RedisMultiplexer.Session session;
+    private int commands;
+
+    MultiplexedRedisConnection(RedisMultiplexer multiplexer, long timeoutInMs) {
+        this.multiplexer = multiplexer;
+        this.timeoutInMs = timeoutInMs;
+        outputStream = new RedisOutputStream(buffer, 8192);
+    }
+
+    @Override
+    void writeArray(int length) throws IOException {
+        commands++;     // client only writes array at top level, each array is one command with one reply
+        super.writeArray(length);
+    }
+
+    @Override
+    void flush() throws IOException {
+        outputStream.flush();
+        try {
+            session = multiplexer.send(buffer, commands, replies);
+        } finally {
+            buffer.reset();
+            commands = 0;
+        }
+    }
+
+    @Override
+    byte[] readBulkString() throws IOException {
+        return (byte[]) next();
+    }
+
+    @Override
+    String readString() throws IOException {
+        return RedisEncodings.decode((byte[]) next());
+    }
+
+    @Override
+    long readLong() throws IOException {
+        return (Long) next();
+    }
+
+    @Override
+    int readArrayLength() throws IOException {
+        Object[] array = (Object[]) next();
+        if (array == null) return -1;
+        for (int i = array.length - 1; i >= 0; i--) {
+            Object element = array[i];
+            arrayElements.push(element == null ? RedisMultiplexer.NULL_REPLY : element);
+        }
+        return array.length;
+    }
+
+    private Object next() throws IOException {
+        Object element = arrayElements.poll();
+        if (element == null) return read();
+        return element == RedisMultiplexer.NULL_REPLY ? null : element;
+    }
+
+    @Override
+    Object read() throws IOException {
+        Object reply;
+        try {
+            reply = replies.poll(timeoutInMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new Error("interrupted during waiting for redis reply", e);
+        }
+        if (reply == null) {
+            var exception = new SocketTimeoutException("read timed out, timeout=" + timeoutInMs + "ms");
+            if (session != null) session.close(exception);  // shared connection may be half open, close to let next command reconnect
+            throw exception;
+        }
+        if (reply == RedisMultiplexer.NULL_REPLY) return null;
+        if (reply instanceof RedisException) throw new RedisException(((RedisException) reply).getMessage());
+        if (reply instanceof IOException) throw new IOException(((IOException) reply).getMessage(), (IOException) reply);
+        return reply;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    static class CommandBuffer extends ByteArrayOutputStream {
+        CommandBuffer() {
+            super(512);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
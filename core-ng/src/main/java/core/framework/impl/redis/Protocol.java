@@ -5,7 +5,7 @@ import core.framework.util.Strings;
 import java.io.IOException;
 
 /**
- * refer to https://redis.io/topics/protocol, this only supports request-response/pipeline model
+ * refer to https://redis.io/topics/protocol, this supports request-response/pipeline model, and push messages of pub/sub on dedicated connection
  */
 final class Protocol {
     private static final byte SIMPLE_STRING_BYTE = '+';
@@ -16,19 +16,72 @@ final class Protocol {
 
     static void writeArray(RedisOutputStream stream, int length) throws IOException {
         stream.write(ARRAY_BYTE);
-        stream.writeBytesCRLF(RedisEncodings.encode(length));
+        stream.writeIntCRLF(length);
     }
 
     static void writeBulkString(RedisOutputStream stream, byte[] value) throws IOException {
         stream.write(BULK_STRING_BYTE);
-        stream.writeBytesCRLF(RedisEncodings.encode(value.length));
+        stream.writeIntCRLF(value.length);
         stream.writeBytesCRLF(value);
     }
 
+    // keys are mostly ascii, write chars to buffer directly to save encoded bytes
+    static void writeBulkString(RedisOutputStream stream, String value) throws IOException {
+        if (value == null) throw new Error("value must not be null");
+        if (!isASCII(value)) {
+            writeBulkString(stream, RedisEncodings.encode(value));
+            return;
+        }
+        stream.write(BULK_STRING_BYTE);
+        stream.writeIntCRLF(value.length());
+        stream.writeASCIICRLF(value);
+    }
+
     static Object read(RedisInputStream stream) throws IOException {
         return parseObject(stream);
     }
 
+    // following methods read expected type of reply without boxing or intermediate array, array elements are read one by one by caller
+
+    static long readLong(RedisInputStream stream) throws IOException {
+        byte firstByte = stream.readByte();
+        if (firstByte != INTEGER_BYTE) throw unexpectedReply(stream, firstByte);
+        return stream.readLong();
+    }
+
+    static byte[] readBulkString(RedisInputStream stream) throws IOException {
+        byte firstByte = stream.readByte();
+        if (firstByte != BULK_STRING_BYTE) throw unexpectedReply(stream, firstByte);
+        return parseBulkString(stream);
+    }
+
+    static String readString(RedisInputStream stream) throws IOException {
+        byte firstByte = stream.readByte();
+        if (firstByte != BULK_STRING_BYTE) throw unexpectedReply(stream, firstByte);
+        int length = (int) stream.readLong();
+        if (length == -1) return null;
+        return stream.readString(length);
+    }
+
+    static int readArrayLength(RedisInputStream stream) throws IOException {
+        byte firstByte = stream.readByte();
+        if (firstByte != ARRAY_BYTE) throw unexpectedReply(stream, firstByte);
+        return (int) stream.readLong();
+    }
+
+    private static IOException unexpectedReply(RedisInputStream stream, byte firstByte) throws IOException {
+        if (firstByte == ERROR_BYTE) throw new RedisException(stream.readSimpleString());
+        return new IOException("unexpected redis response, firstByte=" + (char) firstByte);
+    }
+
+    private static boolean isASCII(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
     private static Object parseObject(RedisInputStream stream) throws IOException {
         byte firstByte = stream.readByte();
         switch (firstByte) {
@@ -87,6 +140,9 @@ final class Protocol {
         static final byte[] RPUSH = Strings.bytes("RPUSH");
         static final byte[] LPOP = Strings.bytes("LPOP");
         static final byte[] LRANGE = Strings.bytes("LRANGE");
+        static final byte[] PUBLISH = Strings.bytes("PUBLISH");
+        static final byte[] SUBSCRIBE = Strings.bytes("SUBSCRIBE");
+        static final byte[] PING = Strings.bytes("PING");
     }
 
     static class Keyword {
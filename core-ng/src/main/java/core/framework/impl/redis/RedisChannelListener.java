@@ -0,0 +1,10 @@
+package core.framework.impl.redis;
+
+/**
+ * @author neo
+ */
+public interface RedisChannelListener {
+    void onSubscribe();     // called on every (re)subscribe, messages published during disconnection are lost
+
+    void onMessage(byte[] message);
+}
@@ -4,8 +4,6 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 
-import static core.framework.impl.redis.RedisEncodings.encode;
-
 /**
  * @author neo
  */
@@ -17,13 +15,18 @@ class RedisConnection implements AutoCloseable {
     private Socket socket;
 
     void connect(String host, int timeoutInMs) throws IOException {
+        connect(host, timeoutInMs, timeoutInMs);
+    }
+
+    // subscriber connection waits for push message, its read timeout is longer than ping interval
+    void connect(String host, int connectTimeoutInMs, int readTimeoutInMs) throws IOException {
         socket = new Socket();
         socket.setReuseAddress(true);
         socket.setKeepAlive(true);
         socket.setTcpNoDelay(true); // Socket buffer whether closed, to ensure timely delivery of data
         socket.setSoLinger(true, 0); // Control calls close () method, the underlying socket is closed immediately
-        socket.connect(new InetSocketAddress(host, DEFAULT_PORT), timeoutInMs);
-        socket.setSoTimeout(timeoutInMs);
+        socket.connect(new InetSocketAddress(host, DEFAULT_PORT), connectTimeoutInMs);
+        socket.setSoTimeout(readTimeoutInMs);
         outputStream = new RedisOutputStream(socket.getOutputStream(), 8192);
         inputStream = new RedisInputStream(socket.getInputStream());
     }
@@ -31,7 +34,7 @@ class RedisConnection implements AutoCloseable {
     void writeKeyCommand(byte[] command, String key) throws IOException {
         writeArray(2);
         writeBulkString(command);
-        writeBulkString(encode(key));
+        writeBulkString(key);
         flush();
     }
 
@@ -39,7 +42,7 @@ class RedisConnection implements AutoCloseable {
         writeArray(1 + keys.length);
         writeBulkString(command);
         for (String key : keys) {
-            writeBulkString(encode(key));
+            writeBulkString(key);
         }
         flush();
     }
@@ -47,7 +50,7 @@ class RedisConnection implements AutoCloseable {
     void writeKeyArgumentCommand(byte[] command, String key, byte[] argument) throws IOException {
         writeArray(3);
         writeBulkString(command);
-        writeBulkString(encode(key));
+        writeBulkString(key);
         writeBulkString(argument);
         flush();
     }
@@ -55,9 +58,9 @@ class RedisConnection implements AutoCloseable {
     void writeKeyArgumentsCommand(byte[] command, String key, String... arguments) throws IOException {
         writeArray(2 + arguments.length);
         writeBulkString(command);
-        writeBulkString(encode(key));
+        writeBulkString(key);
         for (String value : arguments) {
-            writeBulkString(encode(value));
+            writeBulkString(value);
         }
         flush();
     }
@@ -70,6 +73,10 @@ class RedisConnection implements AutoCloseable {
         Protocol.writeBulkString(outputStream, value);
     }
 
+    void writeBulkString(String value) throws IOException {
+        Protocol.writeBulkString(outputStream, value);
+    }
+
     void flush() throws IOException {
         outputStream.flush();
     }
@@ -80,30 +87,43 @@ class RedisConnection implements AutoCloseable {
     }
 
     String readSimpleString() throws IOException {
-        return (String) Protocol.read(inputStream);
+        return (String) read();
     }
 
     byte[] readBulkString() throws IOException {
-        return (byte[]) Protocol.read(inputStream);
+        return Protocol.readBulkString(inputStream);
     }
 
-    Long readLong() throws IOException {
-        return (Long) Protocol.read(inputStream);
+    String readString() throws IOException {
+        return Protocol.readString(inputStream);
+    }
+
+    long readLong() throws IOException {
+        return Protocol.readLong(inputStream);
+    }
+
+    // array elements are read one by one with readBulkString/readString/readLong/readArrayLength, to avoid intermediate Object[]
+    int readArrayLength() throws IOException {
+        return Protocol.readArrayLength(inputStream);
     }
 
     Object[] readArray() throws IOException {
-        return (Object[]) Protocol.read(inputStream);
+        return (Object[]) read();
     }
 
     void readAll(int size) throws IOException {
         RedisException exception = null;
         for (int i = 0; i < size; i++) {
             try {
-                Protocol.read(inputStream);
+                read();
             } catch (RedisException e) {
                 exception = e;
             }
         }
         if (exception != null) throw exception;
     }
+
+    Object read() throws IOException {
+        return Protocol.read(inputStream);
+    }
 }
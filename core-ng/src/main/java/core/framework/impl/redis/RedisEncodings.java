@@ -8,10 +8,11 @@ import java.nio.charset.StandardCharsets;
  * @author neo
  */
 class RedisEncodings {
-    private static final byte[][] INT_BYTES_CACHE = new byte[256][];
+    static final int INT_BYTES_CACHE_SIZE = 1024;     // to cover length prefix of most keys and values
+    private static final byte[][] INT_BYTES_CACHE = new byte[INT_BYTES_CACHE_SIZE][];
 
     static {
-        for (int i = 0; i < 256; i++) {
+        for (int i = 0; i < INT_BYTES_CACHE_SIZE; i++) {
             String text = Integer.toString(i);
             INT_BYTES_CACHE[i] = Strings.bytes(text);
         }
@@ -23,7 +24,7 @@ class RedisEncodings {
     }
 
     static byte[] encode(long value) {
-        if (value >= 0 && value < 256) {
+        if (value >= 0 && value < INT_BYTES_CACHE_SIZE) {
             return INT_BYTES_CACHE[(int) value];
         }
         String text = Long.toString(value);
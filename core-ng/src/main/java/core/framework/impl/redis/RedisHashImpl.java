@@ -19,7 +19,6 @@ import static core.framework.impl.redis.Protocol.Command.HGET;
 import static core.framework.impl.redis.Protocol.Command.HGETALL;
 import static core.framework.impl.redis.Protocol.Command.HMSET;
 import static core.framework.impl.redis.Protocol.Command.HSET;
-import static core.framework.impl.redis.RedisEncodings.decode;
 import static core.framework.impl.redis.RedisEncodings.encode;
 
 /**
@@ -41,7 +40,7 @@ public final class RedisHashImpl implements RedisHash {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyArgumentCommand(HGET, key, encode(field));
-            value = decode(connection.readBulkString());
+            value = connection.readString();
             return value;
         } catch (IOException e) {
             item.broken = true;
@@ -63,11 +62,11 @@ public final class RedisHashImpl implements RedisHash {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyCommand(HGETALL, key);
-            Object[] response = connection.readArray();
-            if (response.length % 2 != 0) throw new IOException("unexpected length of array, length=" + response.length);
-            values = Maps.newHashMapWithExpectedSize(response.length / 2);
-            for (int i = 0; i < response.length; i += 2) {
-                values.put(decode((byte[]) response[i]), decode((byte[]) response[i + 1]));
+            int length = connection.readArrayLength();
+            if (length % 2 != 0) throw new IOException("unexpected length of array, length=" + length);
+            values = Maps.newHashMapWithExpectedSize(length / 2);
+            for (int i = 0; i < length; i += 2) {
+                values.put(connection.readString(), connection.readString());
             }
             return values;
         } catch (IOException e) {
@@ -90,7 +89,7 @@ public final class RedisHashImpl implements RedisHash {
             RedisConnection connection = item.resource;
             connection.writeArray(4);
             connection.writeBulkString(HSET);
-            connection.writeBulkString(encode(key));
+            connection.writeBulkString(key);
             connection.writeBulkString(encode(field));
             connection.writeBulkString(encode(value));
             connection.flush();
@@ -116,9 +115,9 @@ public final class RedisHashImpl implements RedisHash {
             RedisConnection connection = item.resource;
             connection.writeArray(2 + values.size() * 2);
             connection.writeBulkString(HMSET);
-            connection.writeBulkString(encode(key));
+            connection.writeBulkString(key);
             for (Map.Entry<String, String> entry : values.entrySet()) {
-                connection.writeBulkString(encode(entry.getKey()));
+                connection.writeBulkString(entry.getKey());
                 connection.writeBulkString(encode(entry.getValue()));
             }
             connection.flush();
@@ -10,6 +10,7 @@ import core.framework.log.Markers;
 import core.framework.redis.Redis;
 import core.framework.redis.RedisHash;
 import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
 import core.framework.redis.RedisSet;
 import core.framework.util.Maps;
 import core.framework.util.StopWatch;
@@ -20,6 +21,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static core.framework.impl.redis.Protocol.Command.DEL;
@@ -28,6 +30,8 @@ import static core.framework.impl.redis.Protocol.Command.GET;
 import static core.framework.impl.redis.Protocol.Command.INCRBY;
 import static core.framework.impl.redis.Protocol.Command.MGET;
 import static core.framework.impl.redis.Protocol.Command.MSET;
+import static core.framework.impl.redis.Protocol.Command.PING;
+import static core.framework.impl.redis.Protocol.Command.PUBLISH;
 import static core.framework.impl.redis.Protocol.Command.SCAN;
 import static core.framework.impl.redis.Protocol.Command.SET;
 import static core.framework.impl.redis.Protocol.Keyword.COUNT;
@@ -46,16 +50,19 @@ public final class RedisImpl implements Redis {
     private final RedisHash redisHash = new RedisHashImpl(this);
     private final RedisList redisList = new RedisListImpl(this);
     private final String name;
+    private final AtomicInteger nextMultiplexer = new AtomicInteger();
     public Pool<RedisConnection> pool;
     public String host;
     long slowOperationThresholdInNanos = Duration.ofMillis(500).toNanos();
     int timeoutInMs;
+    private RedisMultiplexer[] multiplexers;
 
     public RedisImpl(String name) {
         this.name = name;
         pool = new Pool<>(this::createConnection, name);
         pool.size(5, 50);
         pool.maxIdleTime = Duration.ofMinutes(30);
+        pool.validator(this::ping);
         timeout(Duration.ofSeconds(5));
     }
 
@@ -68,8 +75,21 @@ public final class RedisImpl implements Redis {
         slowOperationThresholdInNanos = threshold.toNanos();
     }
 
+    // share few sockets among callers, pooled connections become virtual and cheap, so pool max size can be raised without more sockets
+    public void multiplex(int connections) {
+        if (connections <= 0) throw new Error("connections must be greater than 0, connections=" + connections);
+        multiplexers = new RedisMultiplexer[connections];
+        for (int i = 0; i < connections; i++) {
+            multiplexers[i] = new RedisMultiplexer(this, "redis-multiplexer-" + name + "-" + i);
+        }
+    }
+
     private RedisConnection createConnection() {
         if (host == null) throw new Error("redis.host must not be null");
+        if (multiplexers != null) {
+            RedisMultiplexer multiplexer = multiplexers[Math.floorMod(nextMultiplexer.getAndIncrement(), multiplexers.length)];
+            return new MultiplexedRedisConnection(multiplexer, timeoutInMs);
+        }
         try {
             var connection = new RedisConnection();
             connection.connect(host, timeoutInMs);
@@ -79,9 +99,32 @@ public final class RedisImpl implements Redis {
         }
     }
 
+    // validate idle connection in background, so broken connection is not found by request
+    boolean ping(RedisConnection connection) {
+        try {
+            connection.writeArray(1);
+            connection.writeBulkString(PING);
+            connection.flush();
+            return "PONG".equals(connection.readSimpleString());
+        } catch (IOException e) {
+            logger.debug("failed to ping redis, name={}, error={}", name, e.getMessage(), e);
+            return false;
+        }
+    }
+
     public void close() {
         logger.info("close redis client, name={}, host={}", name, host);
         pool.close();
+        if (multiplexers != null) {
+            for (RedisMultiplexer multiplexer : multiplexers) {
+                multiplexer.close();
+            }
+        }
+    }
+
+    @Override
+    public RedisPipeline pipeline() {
+        return new RedisPipelineImpl(this);
     }
 
     @Override
@@ -129,7 +172,7 @@ public final class RedisImpl implements Redis {
             int length = 3 + (onlyIfAbsent ? 1 : 0) + (expiration != null ? 2 : 0);
             connection.writeArray(length);
             connection.writeBulkString(SET);
-            connection.writeBulkString(encode(key));
+            connection.writeBulkString(key);
             connection.writeBulkString(value);
             if (onlyIfAbsent) connection.writeBulkString(NX);
             if (expiration != null) {
@@ -235,9 +278,9 @@ public final class RedisImpl implements Redis {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeysCommand(MGET, keys);
-            Object[] response = connection.readArray();
-            for (int i = 0; i < response.length; i++) {
-                byte[] value = (byte[]) response[i];
+            int length = connection.readArrayLength();
+            for (int i = 0; i < length; i++) {
+                byte[] value = connection.readBulkString();
                 if (value != null) values.put(keys[i], value);
             }
             return values;
@@ -263,7 +306,7 @@ public final class RedisImpl implements Redis {
             connection.writeArray(1 + values.size() * 2);
             connection.writeBulkString(MSET);
             for (Map.Entry<String, String> entry : values.entrySet()) {
-                connection.writeBulkString(encode(entry.getKey()));
+                connection.writeBulkString(entry.getKey());
                 connection.writeBulkString(encode(entry.getValue()));
             }
             connection.flush();
@@ -292,7 +335,7 @@ public final class RedisImpl implements Redis {
             for (Map.Entry<String, byte[]> entry : values.entrySet()) { // redis doesn't support mset with expiration, here to use pipeline
                 connection.writeArray(5);
                 connection.writeBulkString(SET);
-                connection.writeBulkString(encode(entry.getKey()));
+                connection.writeBulkString(entry.getKey());
                 connection.writeBulkString(entry.getValue());
                 connection.writeBulkString(EX);
                 connection.writeBulkString(expirationValue);
@@ -311,6 +354,27 @@ public final class RedisImpl implements Redis {
         }
     }
 
+    public long publish(String channel, byte[] message) {
+        var watch = new StopWatch();
+        long receivers = 0;
+        PoolItem<RedisConnection> item = pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeKeyArgumentCommand(PUBLISH, channel, message);
+            receivers = connection.readLong();
+            return receivers;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, 1);
+            logger.debug("publish, channel={}, message={}, receivers={}, elapsed={}", channel, new BytesLogParam(message), receivers, elapsed);
+            checkSlowOperation(elapsed);
+        }
+    }
+
     @Override
     public RedisHash hash() {
         return redisHash;
@@ -330,19 +394,22 @@ public final class RedisImpl implements Redis {
             do {
                 connection.writeArray(6);
                 connection.writeBulkString(SCAN);
-                connection.writeBulkString(encode(cursor));
+                connection.writeBulkString(cursor);
                 connection.writeBulkString(MATCH);
-                connection.writeBulkString(encode(pattern));
+                connection.writeBulkString(pattern);
                 connection.writeBulkString(COUNT);
                 connection.writeBulkString(batchSize);
                 connection.flush();
-                Object[] response = connection.readArray();
-                cursor = decode((byte[]) response[0]);
-                Object[] keys = (Object[]) response[1];
+                connection.readArrayLength();   // response is [cursor, [keys]]
+                cursor = connection.readString();
+                String[] keys = new String[connection.readArrayLength()];
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = connection.readString();
+                }
                 returnedKeys += keys.length;
                 redisTook += System.nanoTime() - start;
-                for (Object key : keys) {
-                    consumer.accept(decode((byte[]) key));
+                for (String key : keys) {
+                    consumer.accept(key);
                 }
                 start = System.nanoTime();
             } while (!"0".equals(cursor));
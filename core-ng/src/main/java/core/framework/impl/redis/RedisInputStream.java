@@ -3,6 +3,8 @@ package core.framework.impl.redis;
 import java.io.IOException;
 import java.io.InputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * refer to jedis impl, https://github.com/xetorthio/jedis/blob/master/src/main/java/redis/clients/util/RedisInputStream.java
  * @author neo
@@ -70,6 +72,25 @@ class RedisInputStream {
     }
 
     byte[] readBulkString(int length) throws IOException {
+        byte[] response = readBytes(length);
+        readCRLF();
+        return response;
+    }
+
+    // decode from buffer directly if whole value is buffered, to save intermediate bytes
+    String readString(int length) throws IOException {
+        String response;
+        if (limit - position >= length) {
+            response = new String(buffer, position, length, UTF_8);
+            position += length;
+        } else {
+            response = new String(readBytes(length), UTF_8);
+        }
+        readCRLF();
+        return response;
+    }
+
+    private byte[] readBytes(int length) throws IOException {
         byte[] response = new byte[length];
         int offset = 0;
         while (offset < length) {
@@ -79,11 +100,14 @@ class RedisInputStream {
             position += readLength;
             offset += readLength;
         }
+        return response;
+    }
+
+    private void readCRLF() throws IOException {
         byte value = readByte();
         if (value != '\r') throw new IOException("unexpected character");
         value = readByte();
         if (value != '\n') throw new IOException("unexpected character");
-        return response;
     }
 
     private void fill() throws IOException {
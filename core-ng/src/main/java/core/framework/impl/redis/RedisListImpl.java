@@ -16,7 +16,6 @@ import java.util.List;
 import static core.framework.impl.redis.Protocol.Command.LPOP;
 import static core.framework.impl.redis.Protocol.Command.LRANGE;
 import static core.framework.impl.redis.Protocol.Command.RPUSH;
-import static core.framework.impl.redis.RedisEncodings.decode;
 import static core.framework.impl.redis.RedisEncodings.encode;
 
 /**
@@ -38,7 +37,7 @@ public final class RedisListImpl implements RedisList {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyCommand(LPOP, key);
-            value = decode(connection.readBulkString());
+            value = connection.readString();
             return value;
         } catch (IOException e) {
             item.broken = true;
@@ -82,14 +81,14 @@ public final class RedisListImpl implements RedisList {
             RedisConnection connection = item.resource;
             connection.writeArray(4);
             connection.writeBulkString(LRANGE);
-            connection.writeBulkString(encode(key));
+            connection.writeBulkString(key);
             connection.writeBulkString(encode(start));
             connection.writeBulkString(encode(end));
             connection.flush();
-            Object[] response = connection.readArray();
-            values = new ArrayList<>(response.length);
-            for (Object value : response) {
-                values.add(decode((byte[]) value));
+            int length = connection.readArrayLength();
+            values = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                values.add(connection.readString());
             }
             return values;
         } catch (IOException e) {
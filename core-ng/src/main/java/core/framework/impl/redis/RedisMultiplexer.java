@@ -0,0 +1,146 @@
+package core.framework.impl.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * shared connection for many caller threads, redis replies in same order of commands,
+ * so pending replies are queued in write order under lock, and dispatched back to callers by dedicated reader thread
+ *
+ * @author neo
+ */
+class RedisMultiplexer {
+    static final Object NULL_REPLY = new Object();     // blocking queue doesn't accept null
+
+    private final Logger logger = LoggerFactory.getLogger(RedisMultiplexer.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final RedisImpl redis;
+    private final String name;
+    private volatile Session session;
+    private volatile boolean closed;
+
+    RedisMultiplexer(RedisImpl redis, String name) {
+        this.redis = redis;
+        this.name = name;
+    }
+
+    // return session which commands are sent to, caller closes it if reply times out, as connection may be half open
+    Session send(MultiplexedRedisConnection.CommandBuffer buffer, int commands, Queue<Object> replies) throws IOException {
+        lock.lock();
+        try {
+            Session session = this.session;
+            if (session == null || session.closed) {
+                session = connect();
+                this.session = session;
+            }
+            session.pendings.add(new PendingReplies(commands, replies));
+            write(session, buffer);
+            if (session.closed) session.failPendings(new IOException("redis connection closed, name=" + name));   // reader may close session before pending added
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Session session, MultiplexedRedisConnection.CommandBuffer buffer) throws IOException {
+        try {
+            session.connection.outputStream.write(buffer.bytes(), 0, buffer.size());
+            session.connection.flush();
+        } catch (IOException e) {
+            session.close(e);
+            throw e;
+        }
+    }
+
+    void close() {
+        closed = true;
+        Session session = this.session;
+        if (session != null) session.close(new IOException("redis multiplexer closed, name=" + name));
+    }
+
+    private Session connect() throws IOException {
+        if (closed) throw new IOException("redis multiplexer closed, name=" + name);
+        if (redis.host == null) throw new Error("redis.host must not be null");
+        logger.info("create multiplexed redis connection, name={}, host={}", name, redis.host);
+        var connection = new RedisConnection();
+        connection.connect(redis.host, redis.timeoutInMs, 0);     // reader waits for replies without timeout, caller enforces timeout on its own replies and closes session on timeout
+        var session = new Session(connection);
+        var readerThread = new Thread(() -> read(session), name + "-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return session;
+    }
+
+    private void read(Session session) {
+        try {
+            while (true) {
+                Object reply = readReply(session);
+                PendingReplies pending = session.pendings.peek();
+                if (pending == null) throw new IOException("unexpected redis reply without pending command");
+                pending.replies.add(reply);
+                pending.remaining--;
+                if (pending.remaining == 0) session.pendings.poll();
+            }
+        } catch (IOException e) {
+            fail(session, e);
+        } catch (Throwable e) {
+            fail(session, new IOException(e));
+        }
+    }
+
+    // error reply is dispatched to caller as reply, only io failure breaks session
+    private Object readReply(Session session) throws IOException {
+        try {
+            Object reply = session.connection.read();
+            return reply == null ? NULL_REPLY : reply;
+        } catch (RedisException e) {
+            return e;
+        }
+    }
+
+    private void fail(Session session, IOException error) {
+        if (!closed) logger.warn("redis multiplexed connection failed, name={}, error={}", name, error.getMessage(), error);
+        session.close(error);
+    }
+
+    class Session {
+        final RedisConnection connection;
+        final Queue<PendingReplies> pendings = new ConcurrentLinkedQueue<>();
+        volatile boolean closed;
+
+        Session(RedisConnection connection) {
+            this.connection = connection;
+        }
+
+        void close(IOException error) {
+            closed = true;
+            try {
+                connection.close();
+            } catch (IOException e) {
+                logger.warn("failed to close redis connection, name={}", name, e);
+            }
+            failPendings(error);
+        }
+
+        void failPendings(IOException error) {
+            for (PendingReplies pending = pendings.poll(); pending != null; pending = pendings.poll()) {
+                pending.replies.add(error);
+            }
+        }
+    }
+
+    static class PendingReplies {
+        final Queue<Object> replies;
+        int remaining;      // only accessed by reader thread
+
+        PendingReplies(int remaining, Queue<Object> replies) {
+            this.remaining = remaining;
+            this.replies = replies;
+        }
+    }
+}
@@ -24,6 +24,18 @@ class RedisOutputStream {
         buffer[position++] = value;
     }
 
+    void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            flush();
+            if (length > buffer.length) {
+                stream.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
     void writeBytesCRLF(byte[] bytes) throws IOException {
         int length = bytes.length;
         if (length > buffer.length) {
@@ -44,10 +56,53 @@ class RedisOutputStream {
         buffer[position++] = '\n';
     }
 
+    // write digits to buffer directly, to avoid allocating encoded bytes for length prefix
+    void writeIntCRLF(int value) throws IOException {
+        if (value >= 0 && value < RedisEncodings.INT_BYTES_CACHE_SIZE) {
+            writeBytesCRLF(RedisEncodings.encode(value));
+            return;
+        }
+        int digits = digits(value);
+        if (buffer.length - position < digits + 2) flush();
+        if (value < 0 || buffer.length < digits + 2) {
+            writeBytesCRLF(RedisEncodings.encode((long) value));
+            return;
+        }
+        int remaining = value;
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        position += digits;
+        buffer[position++] = '\r';
+        buffer[position++] = '\n';
+    }
+
+    void writeASCIICRLF(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (position == buffer.length) flush();
+            buffer[position++] = (byte) value.charAt(i);
+        }
+        if (buffer.length - position < 2) flush();
+        buffer[position++] = '\r';
+        buffer[position++] = '\n';
+    }
+
     void flush() throws IOException {
         if (position > 0) {
             stream.write(buffer, 0, position);
             position = 0;
         }
     }
+
+    private int digits(int value) {
+        int digits = 1;
+        int remaining = value;
+        while (remaining >= 10) {
+            remaining /= 10;
+            digits++;
+        }
+        return digits;
+    }
 }
@@ -0,0 +1,153 @@
+package core.framework.impl.redis;
+
+import core.framework.impl.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisPipeline;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static core.framework.impl.redis.Protocol.Command.DEL;
+import static core.framework.impl.redis.Protocol.Command.EXPIRE;
+import static core.framework.impl.redis.Protocol.Command.GET;
+import static core.framework.impl.redis.Protocol.Command.HGET;
+import static core.framework.impl.redis.Protocol.Command.HSET;
+import static core.framework.impl.redis.Protocol.Command.INCRBY;
+import static core.framework.impl.redis.Protocol.Command.SET;
+import static core.framework.impl.redis.Protocol.Keyword.EX;
+import static core.framework.impl.redis.RedisEncodings.decode;
+import static core.framework.impl.redis.RedisEncodings.encode;
+
+/**
+ * @author neo
+ */
+public final class RedisPipelineImpl implements RedisPipeline {
+    private final Logger logger = LoggerFactory.getLogger(RedisPipelineImpl.class);
+    private final RedisImpl redis;
+    private final List<byte[][]> commands = new ArrayList<>();
+    private Object[] replies;
+    private int reads;
+    private int writes;
+
+    RedisPipelineImpl(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public Supplier<String> get(String key) {
+        int index = add(GET, encode(key));
+        reads++;
+        return () -> decode((byte[]) reply(index));
+    }
+
+    @Override
+    public void set(String key, String value, Duration expiration) {
+        if (expiration == null) add(SET, encode(key), encode(value));
+        else add(SET, encode(key), encode(value), EX, encode(expiration.getSeconds()));
+        writes++;
+    }
+
+    @Override
+    public void expire(String key, Duration expiration) {
+        add(EXPIRE, encode(key), encode(expiration.getSeconds()));
+        writes++;
+    }
+
+    @Override
+    public void del(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        byte[][] command = new byte[keys.length + 1][];
+        command[0] = DEL;
+        for (int i = 0; i < keys.length; i++) {
+            command[i + 1] = encode(keys[i]);
+        }
+        add(command);
+        writes += keys.length;
+    }
+
+    @Override
+    public Supplier<Long> increaseBy(String key, long increment) {
+        int index = add(INCRBY, encode(key), encode(increment));
+        writes++;
+        return () -> (Long) reply(index);
+    }
+
+    @Override
+    public Supplier<String> hget(String key, String field) {
+        int index = add(HGET, encode(key), encode(field));
+        reads++;
+        return () -> decode((byte[]) reply(index));
+    }
+
+    @Override
+    public void hset(String key, String field, String value) {
+        add(HSET, encode(key), encode(field), encode(value));
+        writes++;
+    }
+
+    @Override
+    public void execute() {
+        var watch = new StopWatch();
+        if (replies != null) throw new Error("pipeline is already executed");
+        int size = commands.size();
+        if (size == 0) throw new Error("pipeline must not be empty");
+        Object[] replies = new Object[size];
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            for (byte[][] command : commands) {
+                connection.writeArray(command.length);
+                for (byte[] argument : command) {
+                    connection.writeBulkString(argument);
+                }
+            }
+            connection.flush();
+            RedisException exception = null;
+            for (int i = 0; i < size; i++) {
+                Object reply = readReply(connection);
+                if (reply instanceof RedisException) exception = (RedisException) reply;
+                replies[i] = reply;
+            }
+            this.replies = replies;
+            if (exception != null) throw exception;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, reads, writes);
+            logger.debug("pipeline, commands={}, elapsed={}", size, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    // read all replies to keep connection in sync, error is thrown when reading reply of failed command
+    private Object readReply(RedisConnection connection) throws IOException {
+        try {
+            return connection.read();
+        } catch (RedisException e) {
+            return e;
+        }
+    }
+
+    private int add(byte[]... command) {
+        if (replies != null) throw new Error("pipeline is already executed");
+        commands.add(command);
+        return commands.size() - 1;
+    }
+
+    private Object reply(int index) {
+        if (replies == null) throw new Error("pipeline is not executed");
+        Object reply = replies[index];
+        if (reply instanceof RedisException) throw (RedisException) reply;
+        return reply;
+    }
+}
@@ -17,7 +17,6 @@ import static core.framework.impl.redis.Protocol.Command.SADD;
 import static core.framework.impl.redis.Protocol.Command.SISMEMBER;
 import static core.framework.impl.redis.Protocol.Command.SMEMBERS;
 import static core.framework.impl.redis.Protocol.Command.SREM;
-import static core.framework.impl.redis.RedisEncodings.decode;
 import static core.framework.impl.redis.RedisEncodings.encode;
 
 /**
@@ -62,10 +61,10 @@ public final class RedisSetImpl implements RedisSet {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyCommand(SMEMBERS, key);
-            Object[] response = connection.readArray();
-            values = Sets.newHashSetWithExpectedSize(response.length);
-            for (Object value : response) {
-                values.add(decode((byte[]) value));
+            int length = connection.readArrayLength();
+            values = Sets.newHashSetWithExpectedSize(length);
+            for (int i = 0; i < length; i++) {
+                values.add(connection.readString());
             }
             return values;
         } catch (IOException e) {
@@ -88,7 +87,7 @@ public final class RedisSetImpl implements RedisSet {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyArgumentCommand(SISMEMBER, key, encode(value));
-            Long response = connection.readLong();
+            long response = connection.readLong();
             isMember = response == 1;
             return isMember;
         } catch (IOException e) {
@@ -0,0 +1,112 @@
+package core.framework.impl.redis;
+
+import core.framework.util.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static core.framework.impl.redis.Protocol.Command.PING;
+import static core.framework.impl.redis.Protocol.Command.SUBSCRIBE;
+
+/**
+ * subscribe is on dedicated connection, as connection in subscribed state can only receive push messages
+ *
+ * ping() must be called every PING_INTERVAL, so silently dropped connection is detected by read timeout and resubscribed
+ *
+ * @author neo
+ */
+public final class RedisSubscriber {
+    public static final Duration PING_INTERVAL = Duration.ofSeconds(30);
+    private final Logger logger = LoggerFactory.getLogger(RedisSubscriber.class);
+    private final RedisImpl redis;
+    private final String channel;
+    private final RedisChannelListener listener;
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+    private final Thread subscriberThread;
+    private volatile RedisConnection connection;
+
+    public RedisSubscriber(RedisImpl redis, String channel, RedisChannelListener listener) {
+        this.redis = redis;
+        this.channel = channel;
+        this.listener = listener;
+        subscriberThread = new Thread(this::process, "redis-subscriber-" + channel);
+    }
+
+    public void start() {
+        subscriberThread.start();
+    }
+
+    public void close() {
+        logger.info("stop redis subscriber, channel={}", channel);
+        stop.set(true);
+        closeConnection();
+    }
+
+    private void process() {
+        logger.info("redis subscriber thread started, channel={}", channel);
+        while (!stop.get()) {
+            try {
+                subscribe();
+                while (!stop.get()) {
+                    Object[] message = connection.readArray();  // push message is ["message", channel, payload], ping reply is ["pong", ""]
+                    if (message.length == 3) handle((byte[]) message[2]);
+                }
+            } catch (Throwable e) {
+                if (stop.get()) break;
+                logger.warn("failed to subscribe redis channel, retry in 5 seconds, channel={}, error={}", channel, e.getMessage(), e);
+                closeConnection();
+                Threads.sleepRoughly(Duration.ofSeconds(5));
+            }
+        }
+        closeConnection();
+    }
+
+    private void subscribe() throws IOException {
+        if (redis.host == null) throw new Error("redis.host must not be null");
+        var connection = new RedisConnection();
+        this.connection = connection;
+        connection.connect(redis.host, redis.timeoutInMs, (int) PING_INTERVAL.toMillis() * 2 + redis.timeoutInMs);   // at least one ping reply is expected within read timeout
+        synchronized (connection) {
+            connection.writeKeyCommand(SUBSCRIBE, channel);
+        }
+        connection.readArray();     // subscribe confirmation, ["subscribe", channel, count]
+        logger.info("subscribed redis channel, host={}, channel={}", redis.host, channel);
+        listener.onSubscribe();
+    }
+
+    public void ping() {
+        RedisConnection connection = this.connection;
+        if (connection == null) return;
+        try {
+            synchronized (connection) {
+                connection.writeArray(1);
+                connection.writeBulkString(PING);
+                connection.flush();
+            }
+        } catch (IOException e) {
+            logger.warn("failed to ping redis subscriber connection, channel={}, error={}", channel, e.getMessage(), e);
+            closeConnection();  // subscriber thread will fail to read and resubscribe
+        }
+    }
+
+    private void handle(byte[] message) {
+        try {
+            listener.onMessage(message);
+        } catch (Throwable e) {
+            logger.warn("failed to handle redis message, channel={}, error={}", channel, e.getMessage(), e);
+        }
+    }
+
+    private void closeConnection() {
+        RedisConnection connection = this.connection;
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (IOException e) {
+            logger.warn("failed to close redis subscriber connection, channel={}", channel, e);
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package core.framework.impl.resource;
 
+import core.framework.impl.async.ThreadPools;
 import core.framework.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
 import java.time.Duration;
-import java.util.Iterator;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -19,72 +25,159 @@ import java.util.function.Supplier;
  * is to keep original exception, and simplify context variable access (read or write var within method),
  * <p>
  * the downside is boilerplate code, so to keep it only for internal
+ * <p>
+ * borrow takes one permit of fair semaphore first, so at most maxSize items are in use and waiters are served in order,
+ * then tries last item used by current thread (weakly referenced), then scans all items and claims idle one by CAS, refer to HikariCP ConcurrentBag,
+ * holding permit guarantees either idle item exists or size is under maxSize, so no lock is needed to pick or create item
+ * <p>
+ * background maintenance (warm up, validate, replenish) also holds permit while creating or checking item, to keep above invariant
  *
  * @author neo
  */
 public class Pool<T extends AutoCloseable> {
-    final BlockingDeque<PoolItem<T>> idleItems = new LinkedBlockingDeque<>();
+    static final long[] WAIT_TIME_BUCKETS_IN_MS = {1, 5, 10, 50, 100, 500, 1000};
+    private static final long POLL_RETRY_INTERVAL_IN_NANOS = 50_000;
+
+    final List<PoolItem<T>> items = new CopyOnWriteArrayList<>();    // all items, hot items stay in front as scan starts from head
     final String name;
     final AtomicInteger size = new AtomicInteger(0);
+    final LongAdder[] waitTimes = new LongAdder[WAIT_TIME_BUCKETS_IN_MS.length + 1];    // last bucket is for wait time over max bucket
+    final LongAdder leaks = new LongAdder();
+    public final LongAdder cacheHits = new LongAdder();     // of resource bound cache, e.g. prepared statement cache of db connection
+    public final LongAdder cacheMisses = new LongAdder();
     private final Logger logger = LoggerFactory.getLogger(Pool.class);
     private final Supplier<T> factory;
+    private final ThreadLocal<WeakReference<PoolItem<T>>> lastUsedItem = new ThreadLocal<>();    // weak reference, not to keep removed item reachable from threads which used it
     public Duration maxIdleTime = Duration.ofMinutes(30);
+    private Predicate<T> validator;     // check if idle resource is still alive, e.g. server closed idle connection
+    private Semaphore permits;
     private int minSize = 1;
     private int maxSize = 50;
+    private int spareSize;      // number of idle items to keep ahead of demand
     private long checkoutTimeoutInMs = Duration.ofSeconds(30).toMillis();
+    private long leakDetectionThresholdInMs;    // 0 means disabled
+    private volatile boolean closed;
+    private boolean warmedUp;
 
     public Pool(Supplier<T> factory, String name) {
         this.factory = factory;
         this.name = name;
+        permits = new Semaphore(maxSize, true);
+        for (int i = 0; i < waitTimes.length; i++) {
+            waitTimes[i] = new LongAdder();
+        }
     }
 
+    // must be called during configuration, before any item is borrowed
     public void size(int minSize, int maxSize) {
         this.minSize = minSize;
         this.maxSize = maxSize;
+        permits = new Semaphore(maxSize, true);
+    }
+
+    public void spareSize(int spareSize) {
+        if (spareSize < 0) throw new Error("spareSize must not be negative, spareSize=" + spareSize);
+        this.spareSize = spareSize;
+    }
+
+    public void validator(Predicate<T> validator) {
+        this.validator = validator;
     }
 
     public void checkoutTimeout(Duration timeout) {
         checkoutTimeoutInMs = timeout.toMillis();
     }
 
-    public PoolItem<T> borrowItem() {
-        PoolItem<T> item = idleItems.poll();
-        if (item != null) return item;
+    // item borrowed longer than threshold is reported with stack trace of borrower, capturing stack costs, only enable to troubleshoot
+    public void leakDetectionThreshold(Duration threshold) {
+        leakDetectionThresholdInMs = threshold.toMillis();
+    }
 
-        if (size.get() < maxSize) {
-            return createNewItem();
-        } else {
-            return waitNextAvailableItem();
+    public PoolItem<T> borrowItem() {
+        acquirePermit();
+        try {
+            PoolItem<T> item = pollLastUsedItem();
+            if (item == null) {
+                item = pollIdleItem();
+                if (item == null) item = createNewItem();
+                lastUsedItem.set(new WeakReference<>(item));
+            }
+            item.borrowTime = System.currentTimeMillis();
+            if (leakDetectionThresholdInMs > 0) item.borrowStack = new Throwable("resource borrowed by thread " + Thread.currentThread().getName());
+            return item;
+        } catch (Throwable e) {
+            permits.release();
+            throw e;
         }
     }
 
     public void returnItem(PoolItem<T> item) {
-        if (item.broken) {
-            closeResource(item.resource);
+        item.borrowStack = null;
+        if (item.broken || closed) {
+            removeItem(item);
         } else {
             item.returnTime = System.currentTimeMillis();
-            idleItems.push(item);
+            item.state.set(PoolItem.STATE_IDLE);
         }
+        permits.release();
     }
 
-    private PoolItem<T> waitNextAvailableItem() {
-        var watch = new StopWatch();
+    // untimed tryAcquire() barges ahead of queued waiters even with fair semaphore, timed version honors fairness,
+    // wait time only counts waiting for permit, not creating or validating item
+    private void acquirePermit() {
+        if (closed) throw new PoolException("pool is closed, pool=" + name, "POOL_CLOSED");
+        long start = System.nanoTime();
         try {
-            PoolItem<T> item = idleItems.poll(checkoutTimeoutInMs, TimeUnit.MILLISECONDS);
-            if (item == null) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
-            return item;
+            if (!permits.tryAcquire(checkoutTimeoutInMs, TimeUnit.MILLISECONDS))
+                throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
         } catch (InterruptedException e) {
             throw new Error("interrupted during waiting for next available resource", e);
-        } finally {
-            logger.debug("wait for next available resource, pool={}, elapsed={}", name, watch.elapsed());
         }
+        long elapsed = System.nanoTime() - start;
+        recordWaitTime(elapsed);
+        if (elapsed >= 1_000_000) logger.debug("wait for next available resource, pool={}, elapsed={}", name, Duration.ofNanos(elapsed));
     }
 
+    // for background maintenance, not to take permit if borrowers are waiting
+    private boolean tryAcquirePermit() {
+        try {
+            return permits.tryAcquire(0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private PoolItem<T> pollLastUsedItem() {
+        WeakReference<PoolItem<T>> reference = lastUsedItem.get();
+        if (reference == null) return null;
+        PoolItem<T> item = reference.get();
+        if (item != null && item.state.compareAndSet(PoolItem.STATE_IDLE, PoolItem.STATE_IN_USE)) return item;
+        return null;
+    }
+
+    // with permit held, idle item may be claimed by other thread concurrently, or item is being removed but size is not decreased yet,
+    // both complete shortly, so retry with short park instead of busy spinning, and give up after checkout timeout as safety net
+    private PoolItem<T> pollIdleItem() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(checkoutTimeoutInMs);
+        while (true) {
+            for (PoolItem<T> item : items) {
+                if (item.state.compareAndSet(PoolItem.STATE_IDLE, PoolItem.STATE_IN_USE)) return item;
+            }
+            int currentSize = size.get();
+            if (currentSize < maxSize && size.compareAndSet(currentSize, currentSize + 1)) return null;
+            LockSupport.parkNanos(POLL_RETRY_INTERVAL_IN_NANOS);
+            if (System.nanoTime() >= deadline) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
+        }
+    }
+
+    // size is reserved by caller
     private PoolItem<T> createNewItem() {
         var watch = new StopWatch();
-        size.incrementAndGet();
         try {
-            return new PoolItem<>(factory.get());
+            var item = new PoolItem<>(factory.get());
+            item.state.set(PoolItem.STATE_IN_USE);
+            items.add(item);
+            return item;
         } catch (Throwable e) {
             size.getAndDecrement();
             throw e;
@@ -93,14 +186,60 @@ public class Pool<T extends AutoCloseable> {
         }
     }
 
+    private void recordWaitTime(long elapsedInNanos) {
+        long elapsedInMs = elapsedInNanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < WAIT_TIME_BUCKETS_IN_MS.length && elapsedInMs >= WAIT_TIME_BUCKETS_IN_MS[bucket]) {
+            bucket++;
+        }
+        waitTimes[bucket].increment();
+    }
+
     public void refresh() {
         logger.info("refresh resource pool, pool={}", name);
         recycleIdleItems();
+        validateIdleItems();
         replenish();
     }
 
+    // create initial items in parallel without blocking startup, borrower creates item on demand if warm up is not done yet
+    public void warmUp() {
+        if (warmedUp) return;   // only warm up once, not to create thread pool again
+        warmedUp = true;
+        int count = Math.min(Math.max(minSize, spareSize), maxSize) - size.get();
+        if (count <= 0) return;
+        logger.info("warm up resource pool, pool={}, count={}", name, count);
+        var watch = new StopWatch();
+        var remaining = new AtomicInteger(count);
+        ExecutorService executor = ThreadPools.cachedThreadPool(count, "pool-" + name + "-warm-up-");
+        for (int i = 0; i < count; i++) {
+            executor.submit(() -> {
+                try {
+                    createIdleItem();
+                } catch (Throwable e) {
+                    logger.warn("failed to create resource during warm up, pool={}, error={}", name, e.getMessage(), e);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) logger.info("resource pool warmed up, pool={}, size={}, elapsed={}", name, size.get(), watch.elapsed());
+                }
+            });
+        }
+        executor.shutdown();
+    }
+
     int activeCount() {
-        return totalCount() - idleItems.size();
+        int count = 0;
+        for (PoolItem<T> item : items) {
+            if (item.state.get() == PoolItem.STATE_IN_USE) count++;
+        }
+        return count;
+    }
+
+    int idleCount() {
+        int count = 0;
+        for (PoolItem<T> item : items) {
+            if (item.state.get() == PoolItem.STATE_IDLE) count++;
+        }
+        return count;
     }
 
     int totalCount() {
@@ -108,43 +247,111 @@ public class Pool<T extends AutoCloseable> {
     }
 
     private void recycleIdleItems() {
-        Iterator<PoolItem<T>> iterator = idleItems.descendingIterator();
         long maxIdleTimeInMs = maxIdleTime.toMillis();
         long now = System.currentTimeMillis();
+        for (PoolItem<T> item : items) {
+            if (now - item.returnTime >= maxIdleTimeInMs && item.state.compareAndSet(PoolItem.STATE_IDLE, PoolItem.STATE_REMOVED)) {
+                removeItem(item);
+            }
+        }
+    }
 
-        while (iterator.hasNext()) {
-            PoolItem<T> item = iterator.next();
-            if (now - item.returnTime >= maxIdleTimeInMs) {
-                boolean removed = idleItems.remove(item);
-                if (!removed) return;
-                closeResource(item.resource);
-            } else {
-                return;
+    // validate with permit and claimed item, borrower won't wait on it, skip if all permits are taken as busy items are in use anyway
+    private void validateIdleItems() {
+        if (validator == null) return;
+        for (PoolItem<T> item : items) {
+            if (item.state.get() != PoolItem.STATE_IDLE || !tryAcquirePermit()) continue;
+            try {
+                if (item.state.compareAndSet(PoolItem.STATE_IDLE, PoolItem.STATE_IN_USE)) {
+                    if (validate(item)) {
+                        item.state.set(PoolItem.STATE_IDLE);    // keep returnTime, validation doesn't count as usage
+                    } else {
+                        logger.warn("remove invalid resource, pool={}", name);
+                        removeItem(item);
+                    }
+                }
+            } finally {
+                permits.release();
             }
         }
     }
 
-    private void replenish() {
-        while (size.get() < minSize) {
-            returnItem(createNewItem());
+    private boolean validate(PoolItem<T> item) {
+        try {
+            return validator.test(item.resource);
+        } catch (Throwable e) {
+            logger.warn("failed to validate resource, pool={}, error={}", name, e.getMessage(), e);
+            return false;
         }
     }
 
-    private void closeResource(T resource) {
-        size.decrementAndGet();
+    // scheduled frequently in background, only does work if spare size or leak detection is configured, settings are applied on next run
+    public void maintain() {
+        if (spareSize > 0) replenish();
+        if (leakDetectionThresholdInMs > 0) detectLeaks(System.currentTimeMillis());
+    }
+
+    // keep at least minSize items and spareSize idle items
+    public void replenish() {
+        while (!closed && (size.get() < minSize || idleCount() < spareSize)) {
+            if (!createIdleItem()) return;
+        }
+    }
+
+    // create item with permit as well, to keep invariant that every item being created belongs to permit holder
+    private boolean createIdleItem() {
+        if (closed || !tryAcquirePermit()) return false;
+        try {
+            int currentSize;
+            do {
+                currentSize = size.get();
+                if (currentSize >= maxSize) return false;
+            } while (!size.compareAndSet(currentSize, currentSize + 1));
+            PoolItem<T> item = createNewItem();
+            if (closed) {       // closed during creation
+                removeItem(item);
+                return false;
+            }
+            item.returnTime = System.currentTimeMillis();
+            item.state.set(PoolItem.STATE_IDLE);
+            return true;
+        } finally {
+            permits.release();
+        }
+    }
+
+    void detectLeaks(long now) {
+        if (leakDetectionThresholdInMs <= 0) return;
+        for (PoolItem<T> item : items) {
+            Throwable borrowStack = item.borrowStack;
+            if (borrowStack != null && now - item.borrowTime >= leakDetectionThresholdInMs && item.state.get() == PoolItem.STATE_IN_USE) {
+                item.borrowStack = null;    // only report once per borrow
+                leaks.increment();
+                logger.warn("resource may be leaked, it was borrowed longer than threshold, pool={}, elapsed={}ms", name, now - item.borrowTime, borrowStack);
+            }
+        }
+    }
+
+    private void removeItem(PoolItem<T> item) {
+        item.state.set(PoolItem.STATE_REMOVED);
+        if (items.remove(item)) size.decrementAndGet();
+        WeakReference<PoolItem<T>> reference = lastUsedItem.get();
+        if (reference != null && item.equals(reference.get())) lastUsedItem.remove();
         try {
-            resource.close();
+            if (item.attachment != null) item.attachment.close();
+            item.resource.close();
         } catch (Exception e) {
             logger.warn("failed to close resource, pool={}", name, e);
         }
     }
 
     public void close() {
-        size.set(maxSize);   // make sure no more new resource will be created
-        while (true) {
-            PoolItem<T> item = idleItems.poll();
-            if (item == null) return;
-            closeResource(item.resource);
+        closed = true;      // make sure no more new resource will be created, and in use items are closed when returned
+        lastUsedItem.remove();
+        for (PoolItem<T> item : items) {
+            if (item.state.compareAndSet(PoolItem.STATE_IDLE, PoolItem.STATE_REMOVED)) {
+                removeItem(item);
+            }
         }
     }
 }
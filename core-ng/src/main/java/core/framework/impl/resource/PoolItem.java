@@ -1,12 +1,22 @@
 package core.framework.impl.resource;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author neo
  */
 public final class PoolItem<T> {
+    static final int STATE_IDLE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+
     public final T resource;
     public boolean broken;
+    public AutoCloseable attachment;    // state bound to resource, e.g. statement cache of db connection, closed before resource is closed
+    final AtomicInteger state = new AtomicInteger(STATE_IDLE);     // idle item is claimed by CAS, to borrow without lock
     long returnTime;    // according to profiling, use System.currentTimeMillis instead of Instant.now()
+    long borrowTime;
+    volatile Throwable borrowStack;     // only captured with leak detection enabled
 
     public PoolItem(T resource) {
         this.resource = resource;
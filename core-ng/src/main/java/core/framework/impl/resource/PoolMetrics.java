@@ -18,6 +18,28 @@ public class PoolMetrics implements Metrics {
     public void collect(Map<String, Double> stats) {
         stats.put(statName("total_count"), (double) pool.totalCount());
         stats.put(statName("active_count"), (double) pool.activeCount());
+        collectWaitTimes(stats);
+        stats.put(statName("leak_count"), (double) pool.leaks.sumThenReset());
+        collectCacheStats(stats);
+    }
+
+    // only for pool with resource bound cache, e.g. db with statement cache enabled
+    private void collectCacheStats(Map<String, Double> stats) {
+        long hits = pool.cacheHits.sumThenReset();
+        long misses = pool.cacheMisses.sumThenReset();
+        if (hits + misses > 0) {
+            stats.put(statName("cache_hit_count"), (double) hits);
+            stats.put(statName("cache_miss_count"), (double) misses);
+        }
+    }
+
+    // histogram of borrow wait time since last collection, e.g. pool_db_wait_lt_5ms_count is count of borrows waited between 1ms and 5ms
+    private void collectWaitTimes(Map<String, Double> stats) {
+        long[] buckets = Pool.WAIT_TIME_BUCKETS_IN_MS;
+        for (int i = 0; i < buckets.length; i++) {
+            stats.put(statName("wait_lt_" + buckets[i] + "ms_count"), (double) pool.waitTimes[i].sumThenReset());
+        }
+        stats.put(statName("wait_ge_" + buckets[buckets.length - 1] + "ms_count"), (double) pool.waitTimes[buckets.length].sumThenReset());
     }
 
     String statName(String statName) {
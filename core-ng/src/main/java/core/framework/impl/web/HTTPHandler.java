@@ -12,6 +12,7 @@ import core.framework.impl.web.controller.WebContextImpl;
 import core.framework.impl.web.http.IPAccessControl;
 import core.framework.impl.web.request.RequestImpl;
 import core.framework.impl.web.request.RequestParser;
+import core.framework.impl.web.response.AsyncResponse;
 import core.framework.impl.web.response.ResponseHandler;
 import core.framework.impl.web.response.ResponseImpl;
 import core.framework.impl.web.route.Route;
@@ -23,10 +24,21 @@ import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HeaderMap;
 import io.undertow.util.HttpString;
+import io.undertow.util.SameThreadExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import static core.framework.util.Strings.format;
 
 /**
  * @author neo
@@ -37,6 +49,16 @@ public class HTTPHandler implements HttpHandler {
     public static final HttpString HEADER_REF_ID = new HttpString("ref-id");
     public static final HttpString HEADER_TRACE = new HttpString("trace");
 
+    // callback is called once, either with result of stage, or with TimeoutException if stage is not completed within timeout
+    static <T> void whenComplete(CompletionStage<T> stage, Duration timeout, BiConsumer<T, Throwable> callback) {
+        var future = new CompletableFuture<T>();
+        stage.whenComplete((result, error) -> {
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(result);
+        });
+        future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete(callback);
+    }
+
     public final RequestParser requestParser = new RequestParser();
     public final Route route = new Route();
     public final Interceptors interceptors = new Interceptors();
@@ -54,6 +76,7 @@ public class HTTPHandler implements HttpHandler {
 
     public WebSocketHandler webSocketHandler;
     public IPAccessControl accessControl;
+    public Duration maxProcessTime = Duration.ofMinutes(5);     // async response not completed within max process time is rendered as error, not to hold exchange and action log forever
 
     HTTPHandler(LogManager logManager, SessionManager sessionManager, TemplateManager templateManager, ShutdownHandler shutdownHandler) {
         this.logManager = logManager;
@@ -75,6 +98,7 @@ public class HTTPHandler implements HttpHandler {
     private void handle(HttpServerExchange exchange) {
         ActionLog actionLog = logManager.begin("=== http transaction begin ===");
         var request = new RequestImpl(exchange, requestBeanMapper);
+        AsyncResponse asyncResponse = null;
         try {
             webContext.initialize(request);
             requestParser.parse(request, exchange, actionLog);
@@ -96,6 +120,11 @@ public class HTTPHandler implements HttpHandler {
             logger.debug("controllerClass={}", controller.controller.getClass().getCanonicalName());
 
             Response response = new InvocationImpl(controller, interceptors, request, webContext).proceed();
+            if (response instanceof AsyncResponse) {
+                asyncResponse = (AsyncResponse) response;
+                suspend(exchange, request, asyncResponse);
+                return;
+            }
             sessionManager.save(request, response);
             responseHandler.render((ResponseImpl) response, exchange, actionLog);
         } catch (Throwable e) {
@@ -104,11 +133,45 @@ public class HTTPHandler implements HttpHandler {
         } finally {
             // refer to io.undertow.io.AsyncSenderImpl.send(java.nio.ByteBuffer, io.undertow.io.IoCallback),
             // sender.send() will write response until can't write more, then call channel.resumeWrites(), which will resume after this finally block finished, so this can be small delay
+            webContext.cleanup();
+            if (asyncResponse == null) logManager.end("=== http transaction end ===");
+        }
+    }
+
+    // release worker thread, exchange stays open until stage completed, then response is rendered by worker thread with carried over action log and web context
+    private void suspend(HttpServerExchange exchange, RequestImpl request, AsyncResponse asyncResponse) {
+        var suspended = new SuspendedRequest(request, webContext.context(), logManager.suspend(), asyncResponse);
+        // register callback after current call returned, so exchange.dispatch() from completing thread always goes to worker thread
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> whenComplete(asyncResponse.stage, maxProcessTime, (response, error) ->
+                exchange.dispatch((HttpHandler) resumedExchange -> resume(resumedExchange, suspended, response, error))));
+    }
+
+    private void resume(HttpServerExchange exchange, SuspendedRequest suspended, Response response, Throwable error) {
+        RequestImpl request = suspended.request;
+        ActionLog actionLog = suspended.actionLog;
+        logManager.resume(actionLog);
+        try {
+            webContext.initialize(request, suspended.context);
+            Response finalResponse = asyncResponse(suspended.asyncResponse, response, error);
+            sessionManager.save(request, finalResponse);
+            responseHandler.render((ResponseImpl) finalResponse, exchange, actionLog);
+        } catch (Throwable e) {
+            logManager.logError(e);
+            errorHandler.handleError(e, exchange, request, actionLog);
+        } finally {
             webContext.cleanup();
             logManager.end("=== http transaction end ===");
         }
     }
 
+    // apply changes made by interceptors to completed response, or rethrow original exception of stage
+    Response asyncResponse(AsyncResponse asyncResponse, Response response, Throwable error) throws Throwable {
+        if (error instanceof TimeoutException)
+            throw new Error(format("async response is not completed within max process time, maxProcessTime={}", maxProcessTime), error);
+        if (error != null) throw error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return asyncResponse.apply(response);
+    }
+
     void linkContext(ActionLog actionLog, HeaderMap headers) {
         String client = headers.getFirst(HTTPHandler.HEADER_CLIENT);
         if (client != null) actionLog.clients = List.of(client);
@@ -122,4 +185,19 @@ public class HTTPHandler implements HttpHandler {
         if ("true".equals(headers.getFirst(HEADER_TRACE)))
             actionLog.trace = true;
     }
+
+    // state carried over from suspended request to worker thread which renders completed response
+    private static final class SuspendedRequest {
+        final RequestImpl request;
+        final Map<String, Object> context;
+        final ActionLog actionLog;
+        final AsyncResponse asyncResponse;
+
+        SuspendedRequest(RequestImpl request, Map<String, Object> context, ActionLog actionLog, AsyncResponse asyncResponse) {
+            this.request = request;
+            this.context = context;
+            this.actionLog = actionLog;
+            this.asyncResponse = asyncResponse;
+        }
+    }
 }
@@ -19,10 +19,12 @@ public class HTTPIOHandler implements HttpHandler {
     private final FormParserFactory formParserFactory;
     private final HTTPHandler handler;
     private final ShutdownHandler shutdownHandler;
+    private final int bodySpillThreshold;
 
-    HTTPIOHandler(HTTPHandler handler, ShutdownHandler shutdownHandler) {
+    HTTPIOHandler(HTTPHandler handler, ShutdownHandler shutdownHandler, int bodySpillThreshold) {
         this.handler = handler;
         this.shutdownHandler = shutdownHandler;
+        this.bodySpillThreshold = bodySpillThreshold;
         var builder = FormParserFactory.builder();
         builder.setDefaultCharset(UTF_8.name());
         formParserFactory = builder.build();
@@ -45,9 +47,10 @@ public class HTTPIOHandler implements HttpHandler {
                 return;
             }
 
-            var reader = new RequestBodyReader(exchange, handler);
+            var reader = new RequestBodyReader(exchange, handler, bodySpillThreshold);
             StreamSourceChannel channel = exchange.getRequestChannel();
             reader.read(channel);  // channel will be null if getRequestChannel() is already called, but here should not be that case
+            if (reader.dispatched()) return;    // large body is read by worker thread, which handles request once completed
             if (!reader.complete()) {
                 channel.getReadSetter().set(reader);
                 channel.resumeReads();
@@ -27,6 +27,8 @@ public class HTTPServer {
     public Integer httpPort;
     public Integer httpsPort;
     public boolean gzip;
+    public long maxEntitySize = 10L * 1024 * 1024;  // max post body is 10M
+    public int bodySpillThreshold = 1024 * 1024;    // body larger than 1M is written to temp file
     private Undertow server;
 
     public HTTPServer(LogManager logManager) {
@@ -38,6 +40,8 @@ public class HTTPServer {
 
         var watch = new StopWatch();
         try {
+            handler.route.compile();
+
             Undertow.Builder builder = Undertow.builder();
             if (httpPort != null) builder.addHttpListener(httpPort, "0.0.0.0");
             if (httpsPort != null) builder.addHttpsListener(httpsPort, "0.0.0.0", new SSLContextBuilder().build());
@@ -55,7 +59,7 @@ public class HTTPServer {
                    // refer to https://docs.aws.amazon.com/elasticloadbalancing/latest/application/application-load-balancers.html#connection-idle-timeout
                    .setServerOption(UndertowOptions.NO_REQUEST_TIMEOUT, 620 * 1000)     // 620s
                    .setServerOption(UndertowOptions.SHUTDOWN_TIMEOUT, 10 * 1000)        // 10s
-                   .setServerOption(UndertowOptions.MAX_ENTITY_SIZE, 10L * 1024 * 1024);    // max post body is 10M
+                   .setServerOption(UndertowOptions.MAX_ENTITY_SIZE, maxEntitySize);
 
             server = builder.build();
             server.start();
@@ -65,7 +69,7 @@ public class HTTPServer {
     }
 
     private HttpHandler handler() {
-        HttpHandler handler = new HTTPIOHandler(this.handler, shutdownHandler);
+        HttpHandler handler = new HTTPIOHandler(this.handler, shutdownHandler, bodySpillThreshold);
         if (gzip) {
             // only support gzip, deflate is less popular
             handler = new EncodingHandler(handler, new ContentEncodingRepository()
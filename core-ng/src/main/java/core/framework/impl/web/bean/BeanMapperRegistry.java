@@ -5,6 +5,7 @@ import core.framework.impl.reflect.Classes;
 import core.framework.impl.validate.Validator;
 import core.framework.util.Maps;
 
+import java.io.OutputStream;
 import java.util.Map;
 
 import static core.framework.util.Strings.format;
@@ -30,6 +31,12 @@ public class BeanMapperRegistry {
         return mapper.mapper.toJSON(bean);
     }
 
+    <T> void writeJSON(Class<T> beanClass, T bean, OutputStream stream) {
+        BeanMapper<T> mapper = register(beanClass);
+        mapper.validator.validate(bean, false);
+        mapper.mapper.writeJSON(bean, stream);
+    }
+
     void validateBeanClassName(Class<?> beanClass) {
         beanClasses.compute(Classes.className(beanClass), (key, previous) -> {
             if (previous != null && !previous.equals(beanClass))
@@ -4,6 +4,7 @@ import core.framework.api.web.service.QueryParam;
 import core.framework.impl.validate.Validator;
 import core.framework.util.Maps;
 
+import java.io.InputStream;
 import java.util.Map;
 
 /**
@@ -51,6 +52,13 @@ public class RequestBeanMapper {
         return bean;
     }
 
+    public <T> T fromJSON(Class<T> beanClass, InputStream body) {
+        BeanMapper<T> mapper = registry.register(beanClass);
+        T bean = mapper.mapper.fromJSON(body);
+        mapper.validator.validate(bean, false);
+        return bean;
+    }
+
     public void registerRequestBean(Class<?> beanClass) {
         registry.register(beanClass);
     }
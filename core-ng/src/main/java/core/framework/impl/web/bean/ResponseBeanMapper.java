@@ -3,6 +3,9 @@ package core.framework.impl.web.bean;
 import core.framework.impl.reflect.GenericTypes;
 import core.framework.util.Strings;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.util.Optional;
 
@@ -28,6 +31,25 @@ public class ResponseBeanMapper {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public void writeJSON(Object bean, OutputStream stream) {
+        if (bean instanceof Optional) {
+            Optional<?> optional = (Optional) bean;
+            if (!optional.isPresent()) {
+                try {
+                    stream.write(Strings.bytes("null"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            Object value = optional.get();
+            registry.writeJSON((Class<Object>) value.getClass(), value, stream);
+        } else {
+            registry.writeJSON((Class<Object>) bean.getClass(), bean, stream);
+        }
+    }
+
     public Object fromJSON(Type responseType, byte[] body) {
         if (void.class == responseType) return null;
 
@@ -1,5 +1,6 @@
 package core.framework.impl.web.controller;
 
+import core.framework.web.AsyncController;
 import core.framework.web.Controller;
 import core.framework.web.Request;
 
@@ -49,11 +50,20 @@ public class ControllerInspector {
         }
     }
 
+    // async controller has same method name and params as controller, not to overload constructor, as both are functional interfaces, lambda would be ambiguous
+    public static ControllerInspector async(AsyncController controller) {
+        return new ControllerInspector((Object) controller);
+    }
+
     public final Class<?> targetClass;
     public final Method targetMethod;
     public final String controllerInfo;
 
     public ControllerInspector(Controller controller) {
+        this((Object) controller);
+    }
+
+    private ControllerInspector(Object controller) {
         Class<?> controllerClass = controller.getClass();
 
         try {
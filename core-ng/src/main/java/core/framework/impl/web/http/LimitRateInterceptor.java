@@ -1,5 +1,6 @@
 package core.framework.impl.web.http;
 
+import core.framework.redis.Redis;
 import core.framework.web.Interceptor;
 import core.framework.web.Invocation;
 import core.framework.web.Response;
@@ -15,7 +16,7 @@ import java.util.concurrent.TimeUnit;
  */
 public class LimitRateInterceptor implements Interceptor {
     private final Logger logger = LoggerFactory.getLogger(LimitRateInterceptor.class);
-    private final RateLimiter rateLimiter = new RateLimiter(1000);  // save at max 1000 group/ip combination
+    private final RateLimiter rateLimiter = new RateLimiter(1000);  // save at max 1000 ips per group
 
     @Override
     public Response intercept(Invocation invocation) throws Exception {
@@ -39,4 +40,8 @@ public class LimitRateInterceptor implements Interceptor {
     public void config(String group, int maxPermits, int fillRate, TimeUnit unit) {
         rateLimiter.config(group, maxPermits, fillRate, unit);
     }
+
+    public void redis(Redis redis) {
+        rateLimiter.redis = redis;
+    }
 }
@@ -1,29 +1,41 @@
 package core.framework.impl.web.http;
 
+import core.framework.redis.Redis;
+import core.framework.redis.RedisPipeline;
 import core.framework.util.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static core.framework.util.Strings.format;
 
 /**
+ * token bucket is kept as theoretical arrival time (the time bucket will be full again) in single atomic long, refer to GCRA https://en.wikipedia.org/wiki/Generic_cell_rate_algorithm,
+ * rates are stored per group in concurrent map keyed by client ip, entry with full bucket is same as new one, so it's evicted first when exceeding max entries
+ *
  * @author neo
  */
 class RateLimiter {
     private final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
-    private final Map<String, RateConfig> config = Maps.newHashMap();
-    private final LRUMap<String, Rate> rates;
+    private final Map<String, RateGroup> groups = Maps.newHashMap();
+    private final int maxEntries;
+    Redis redis;    // if set, permits are counted in redis, to limit across all instances
 
     RateLimiter(int maxEntries) {
-        rates = new LRUMap<>(maxEntries);
+        this.maxEntries = maxEntries;
     }
 
     public void config(String group, int maxPermits, int fillRate, TimeUnit unit) {
         double fillRatePerNano = ratePerNano(fillRate, unit);
-        RateConfig previous = config.put(group, new RateConfig(maxPermits, fillRatePerNano));
+        RateGroup previous = groups.put(group, new RateGroup(group, maxPermits, fillRatePerNano));
         if (previous != null) throw new Error(format("found duplicate group, group={}", group));
     }
 
@@ -32,54 +44,90 @@ class RateLimiter {
     }
 
     boolean acquire(String group, String clientIP) {
-        RateConfig config = this.config.get(group);
+        RateGroup rateGroup = groups.get(group);
 
-        if (config == null) {
+        if (rateGroup == null) {
             logger.warn("can not find group, group={}", group);
             return true;    // skip if group is not defined
         }
 
-        String key = group + "/" + clientIP;
-        Rate rate;
-        synchronized (rates) {
-            rate = rates.computeIfAbsent(key, k -> new Rate(config.maxPermits));
-        }
+        if (redis != null) return acquireFromRedis(rateGroup, clientIP);
+
         long currentTime = System.nanoTime();
-        return rate.acquire(currentTime, config.maxPermits, config.fillRatePerNano);
+        Rate rate = rateGroup.rates.get(clientIP);
+        if (rate == null) {
+            rate = rateGroup.rates.computeIfAbsent(clientIP, key -> new Rate(currentTime));
+            if (rateGroup.rates.size() > maxEntries) rateGroup.evict(currentTime, maxEntries);
+        }
+        return rate.acquire(currentTime, rateGroup.interval, rateGroup.burst);
     }
 
-    static final class RateConfig {
-        final int maxPermits;
-        final double fillRatePerNano;
+    // approximate token bucket with fixed window counter, window is time to refill all permits, so burst across window boundary can be up to 2 * maxPermits
+    private boolean acquireFromRedis(RateGroup rateGroup, String clientIP) {
+        long window = System.currentTimeMillis() / rateGroup.windowInMs;
+        String key = "rate:" + rateGroup.name + ":" + clientIP + ":" + window;
+        try {
+            RedisPipeline pipeline = redis.pipeline();
+            Supplier<Long> count = pipeline.increaseBy(key, 1);
+            pipeline.expire(key, Duration.ofMillis(rateGroup.windowInMs * 2));
+            pipeline.execute();
+            return count.get() <= rateGroup.maxPermits;
+        } catch (Throwable e) {     // not to fail request if redis is not available
+            logger.warn("failed to acquire permit from redis, key={}", key, e);
+            return true;
+        }
+    }
 
-        RateConfig(int maxPermits, double fillRatePerNano) {
+    static final class RateGroup {
+        final String name;
+        final int maxPermits;
+        final long interval;    // nanos to fill one permit
+        final long burst;       // nanos to fill all permits
+        final long windowInMs;
+        final Map<String, Rate> rates = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+        RateGroup(String name, int maxPermits, double fillRatePerNano) {
+            this.name = name;
             this.maxPermits = maxPermits;
-            this.fillRatePerNano = fillRatePerNano;
+            interval = Math.max(1, Math.round(1 / fillRatePerNano));
+            burst = interval * maxPermits;
+            windowInMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(burst));
+        }
+
+        void evict(long currentTime, int maxEntries) {
+            if (!evicting.compareAndSet(false, true)) return;   // only one thread evicts, others continue
+            try {
+                rates.values().removeIf(rate -> rate.full(currentTime));
+                Iterator<Rate> iterator = rates.values().iterator();
+                while (rates.size() > maxEntries && iterator.hasNext()) {    // still too many active clients, evict in map order
+                    iterator.next();
+                    iterator.remove();
+                }
+            } finally {
+                evicting.set(false);
+            }
         }
     }
 
     static final class Rate {
-        volatile double currentPermits;
-        volatile long lastUpdateTime;
+        final AtomicLong theoreticalArrivalTime;
 
-        Rate(int currentPermits) {
-            this.currentPermits = currentPermits;
-            this.lastUpdateTime = System.nanoTime();
+        Rate(long theoreticalArrivalTime) {    // start with full bucket
+            this.theoreticalArrivalTime = new AtomicLong(theoreticalArrivalTime);
         }
 
-        boolean acquire(long currentTime, int maxPermits, double fillRatePerNano) {
-            synchronized (this) {
-                long timeElapsed = currentTime - lastUpdateTime;
-                currentPermits = Math.min(maxPermits, currentPermits + fillRatePerNano * timeElapsed);
-                lastUpdateTime = currentTime;
-
-                if (currentPermits >= 1) {
-                    currentPermits -= 1;
-                    return true;
-                } else {
-                    return false;
-                }
+        boolean acquire(long currentTime, long interval, long burst) {
+            while (true) {
+                long time = theoreticalArrivalTime.get();
+                long nextTime = Math.max(time, currentTime) + interval;
+                if (nextTime - currentTime > burst) return false;
+                if (theoreticalArrivalTime.compareAndSet(time, nextTime)) return true;
             }
         }
+
+        boolean full(long currentTime) {
+            return theoreticalArrivalTime.get() <= currentTime;
+        }
     }
 }
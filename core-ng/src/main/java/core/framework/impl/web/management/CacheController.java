@@ -3,6 +3,7 @@ package core.framework.impl.web.management;
 import core.framework.http.ContentType;
 import core.framework.impl.cache.CacheImpl;
 import core.framework.impl.cache.CacheManager;
+import core.framework.impl.cache.LocalCacheStore;
 import core.framework.impl.web.http.IPAccessControl;
 import core.framework.util.Strings;
 import core.framework.web.Request;
@@ -17,10 +18,12 @@ import java.util.stream.Collectors;
  */
 public class CacheController {
     private final CacheManager cacheManager;
+    private final LocalCacheStore localCacheStore;
     private final IPAccessControl accessControl = new IPAccessControl();
 
-    public CacheController(CacheManager cacheManager) {
+    public CacheController(CacheManager cacheManager, LocalCacheStore localCacheStore) {
         this.cacheManager = cacheManager;
+        this.localCacheStore = localCacheStore;
     }
 
     public Response get(Request request) {
@@ -47,6 +50,20 @@ public class CacheController {
         return Response.bean(caches);
     }
 
+    public Response stats(Request request) {
+        accessControl.validate(request.clientIP());
+        if (localCacheStore == null) throw new NotFoundException("local cache store is not configured");
+        var view = new LocalCacheStatsView();
+        view.size = localCacheStore.size();
+        view.maxSize = localCacheStore.maxSize();
+        view.weight = localCacheStore.weight();
+        view.maxWeight = localCacheStore.maxWeight();
+        view.hits = localCacheStore.hits();
+        view.misses = localCacheStore.misses();
+        view.evictions = localCacheStore.evictions();
+        return Response.bean(view);
+    }
+
     private CacheImpl<?> cache(String name) {
         return cacheManager.get(name).orElseThrow(() -> new NotFoundException("cache not found, name=" + name));
     }
@@ -0,0 +1,23 @@
+package core.framework.impl.web.management;
+
+import core.framework.api.json.Property;
+
+/**
+ * @author neo
+ */
+public class LocalCacheStatsView {
+    @Property(name = "size")
+    public Integer size;
+    @Property(name = "max_size")
+    public Integer maxSize;
+    @Property(name = "weight")
+    public Long weight;
+    @Property(name = "max_weight")
+    public Long maxWeight;
+    @Property(name = "hits")
+    public Long hits;
+    @Property(name = "misses")
+    public Long misses;
+    @Property(name = "evictions")
+    public Long evictions;
+}
@@ -0,0 +1,41 @@
+package core.framework.impl.web.management;
+
+import core.framework.impl.module.StartupHook;
+import core.framework.impl.web.http.IPAccessControl;
+import core.framework.web.Controller;
+import core.framework.web.Request;
+import core.framework.web.Response;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @author neo
+ */
+public class StartupController implements Controller {
+    private final IPAccessControl accessControl = new IPAccessControl();
+    private final StartupHook startupHook;
+
+    public StartupController(StartupHook startupHook) {
+        this.startupHook = startupHook;
+    }
+
+    @Override
+    public Response execute(Request request) {
+        accessControl.validate(request.clientIP());
+        return Response.text(phases());
+    }
+
+    String phases() {
+        var builder = new StringBuilder(1024);
+        builder.append("# startup phases\n");
+        List<StartupHook.Phase> phases;
+        synchronized (startupHook.phases) {
+            phases = List.copyOf(startupHook.phases);
+        }
+        for (StartupHook.Phase phase : phases) {
+            builder.append(phase.name).append('=').append(Duration.ofNanos(phase.elapsed).toMillis()).append("ms\n");
+        }
+        return builder.toString();
+    }
+}
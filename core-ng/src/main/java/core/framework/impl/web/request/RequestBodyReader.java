@@ -2,34 +2,61 @@ package core.framework.impl.web.request;
 
 import core.framework.impl.web.HTTPHandler;
 import io.undertow.connector.PooledByteBuffer;
+import io.undertow.server.ExchangeCompletionListener;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.AttachmentKey;
+import io.undertow.util.SameThreadExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xnio.ChannelListener;
 import org.xnio.IoUtils;
+import org.xnio.channels.Channels;
 import org.xnio.channels.StreamSourceChannel;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import static core.framework.util.Strings.format;
 
 /**
+ * body within spill threshold is read into byte[] on io thread, larger body (e.g. bulk import) is written to temp file chunk by chunk,
+ * so heap usage per request is bounded by threshold, temp file is deleted once exchange completed
+ *
+ * file io must not block io thread, so once body exceeds threshold, reads are suspended and rest of body is read by worker thread with blocking io
+ *
  * @author neo
  */
 public final class RequestBodyReader implements ChannelListener<StreamSourceChannel> {
     static final AttachmentKey<RequestBody> REQUEST_BODY = AttachmentKey.create(RequestBody.class);
+    private static final int SPILL_BUFFER_SIZE = 16 * 1024;
 
+    final ExchangeCompletionListener deleteFileListener = (exchange, next) -> {
+        deleteFile();
+        next.proceed();
+    };
+    private final Logger logger = LoggerFactory.getLogger(RequestBodyReader.class);
     private final HttpServerExchange exchange;
     private final HTTPHandler handler;
-    private final int contentLength;
+    private final long contentLength;
+    private final int spillThreshold;
     private boolean complete;
+    private boolean dispatched;
     private byte[] body;
-    private int position = 0;
+    private byte[] pending;     // chunk read on io thread which exceeds threshold, written to file by worker thread
+    private long position = 0;
+    private Path file;
+    private FileChannel fileChannel;
 
-    public RequestBodyReader(HttpServerExchange exchange, HTTPHandler handler) {
+    public RequestBodyReader(HttpServerExchange exchange, HTTPHandler handler, int spillThreshold) {
         this.exchange = exchange;
         this.handler = handler;
-        contentLength = (int) exchange.getRequestContentLength();
-        if (contentLength >= 0) body = new byte[contentLength];
+        this.spillThreshold = spillThreshold;
+        contentLength = exchange.getRequestContentLength();
+        if (contentLength >= 0 && contentLength <= spillThreshold) body = new byte[(int) contentLength];
     }
 
     @Override
@@ -42,45 +69,130 @@ public final class RequestBodyReader implements ChannelListener<StreamSourceChan
 
     public void read(StreamSourceChannel channel) {
         try (PooledByteBuffer poolItem = exchange.getConnection().getByteBufferPool().allocate()) {
-            ByteBuffer buffer = poolItem.getBuffer();
+            read(channel, poolItem.getBuffer());
+        }
+    }
+
+    void read(StreamSourceChannel channel, ByteBuffer buffer) {
+        try {
+            if (contentLength > spillThreshold) {   // known large body, not to read on io thread at all
+                dispatchSpill(channel);
+                return;
+            }
             int bytesRead;
             while (true) {
                 buffer.clear();
                 bytesRead = channel.read(buffer);
                 if (bytesRead <= 0) break;
                 buffer.flip();
-                ensureCapacity(bytesRead);
-                buffer.get(body, position, bytesRead);
-                position += bytesRead;
-            }
-            if (bytesRead == -1) {
-                if (contentLength >= 0 && position < body.length) {
-                    throw new Error(format("body ends prematurely, expected={}, actual={}", contentLength, position));
-                } else if (body == null) {
-                    body = new byte[0]; // without content length and has no body
+                if (!append(buffer, bytesRead)) {
+                    dispatchSpill(channel);
+                    return;
                 }
-                complete = true;
-                exchange.putAttachment(REQUEST_BODY, new RequestBody(body, null));
             }
+            if (bytesRead == -1) finish();
         } catch (Throwable e) { // catch all errors during IO, to pass error to action log
-            IoUtils.safeClose(channel);
-            complete = true;
-            exchange.putAttachment(REQUEST_BODY, new RequestBody(null, e));
+            fail(channel, e);
+        }
+    }
+
+    // returns false if body exceeds threshold, then the chunk is kept as pending
+    boolean append(ByteBuffer buffer, int bytesRead) {
+        if (contentLength >= 0 && bytesRead + position > contentLength) throw new Error("body exceeds expected content length, expected=" + contentLength);
+        if (bytesRead + position > spillThreshold) {
+            pending = new byte[bytesRead];
+            buffer.get(pending);
+            return false;
+        }
+        ensureCapacity(bytesRead);
+        buffer.get(body, (int) position, bytesRead);
+        position += bytesRead;
+        return true;
+    }
+
+    private void dispatchSpill(StreamSourceChannel channel) {
+        dispatched = true;
+        channel.suspendReads();
+        channel.getReadSetter().set(null);
+        exchange.dispatch(() -> {
+            spill(channel, ByteBuffer.allocate(SPILL_BUFFER_SIZE));
+            exchange.dispatch(SameThreadExecutor.INSTANCE, handler);    // continue to handle request on current worker thread
+        });
+    }
+
+    // run by worker thread
+    void spill(StreamSourceChannel channel, ByteBuffer buffer) {
+        try {
+            file = Files.createTempFile("request-body-", null);
+            exchange.addExchangeCompleteListener(deleteFileListener);
+            fileChannel = FileChannel.open(file, StandardOpenOption.WRITE);
+            if (position > 0) writeFile(ByteBuffer.wrap(body, 0, (int) position));
+            body = null;
+            if (pending != null) {
+                position += pending.length;
+                writeFile(ByteBuffer.wrap(pending));
+                pending = null;
+            }
+            while (true) {
+                buffer.clear();
+                int bytesRead = Channels.readBlocking(channel, buffer);
+                if (bytesRead == -1) break;
+                if (contentLength >= 0 && bytesRead + position > contentLength) throw new Error("body exceeds expected content length, expected=" + contentLength);
+                buffer.flip();
+                writeFile(buffer);
+                position += bytesRead;
+            }
+            finish();
+        } catch (Throwable e) {
+            fail(channel, e);
+        }
+    }
+
+    private void writeFile(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+    }
+
+    private void finish() throws IOException {
+        if (contentLength >= 0 && position < contentLength) {
+            throw new Error(format("body ends prematurely, expected={}, actual={}", contentLength, position));
+        }
+        complete = true;
+        if (file != null) {
+            fileChannel.close();
+            exchange.putAttachment(REQUEST_BODY, new RequestBody(file, position));
+        } else {
+            if (body == null) body = new byte[0]; // without content length and has no body
+            exchange.putAttachment(REQUEST_BODY, new RequestBody(body, null));
+        }
+    }
+
+    private void fail(StreamSourceChannel channel, Throwable e) {
+        IoUtils.safeClose(channel);
+        IoUtils.safeClose(fileChannel);
+        complete = true;
+        exchange.putAttachment(REQUEST_BODY, new RequestBody(null, e));
+    }
+
+    private void deleteFile() {
+        try {
+            IoUtils.safeClose(fileChannel);
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("failed to delete request body file, file={}", file, e);
         }
     }
 
     private void ensureCapacity(int bytesRead) {
-        if (contentLength >= 0) {
-            if (bytesRead + position > contentLength) throw new Error("body exceeds expected content length, expected=" + contentLength);
+        if (contentLength >= 0) return;     // body is allocated with exact content length
+        if (body == null) { // undertow buffer is 16k, if there is no content length, in most of cases, it's best just to create exact buffer as first read thru
+            body = new byte[bytesRead];
         } else {
-            if (body == null) { // undertow buffer is 16k, if there is no content length, in most of cases, it's best just to create exact buffer as first read thru
-                body = new byte[bytesRead];
-            } else {
-                int newLength = position + bytesRead;   // without content length, position will always be current length,
-                byte[] bytes = new byte[newLength];     // just expend to exact read size, which is simplest way for best scenario
-                System.arraycopy(body, 0, bytes, 0, position);
-                body = bytes;
-            }
+            int newLength = (int) position + bytesRead;   // without content length, position will always be current length,
+            byte[] bytes = new byte[newLength];     // just expend to exact read size, which is simplest way for best scenario
+            System.arraycopy(body, 0, bytes, 0, (int) position);
+            body = bytes;
         }
     }
 
@@ -88,13 +200,29 @@ public final class RequestBodyReader implements ChannelListener<StreamSourceChan
         return complete;
     }
 
+    // body is being read by worker thread, which handles request once completed
+    public boolean dispatched() {
+        return dispatched;
+    }
+
     public static class RequestBody {
+        final Path file;    // not null if body is spilled to temp file
+        final long size;
         private final byte[] body;
         private final Throwable exception;
 
         RequestBody(byte[] body, Throwable exception) {
             this.body = body;
             this.exception = exception;
+            file = null;
+            size = body == null ? 0 : body.length;
+        }
+
+        RequestBody(Path file, long size) {
+            this.file = file;
+            this.size = size;
+            body = null;
+            exception = null;
         }
 
         public byte[] body() throws Throwable {
@@ -103,4 +231,3 @@ public final class RequestBodyReader implements ChannelListener<StreamSourceChan
         }
     }
 }
-
@@ -12,7 +12,12 @@ import core.framework.web.Session;
 import core.framework.web.exception.BadRequestException;
 import io.undertow.server.HttpServerExchange;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
 
@@ -39,6 +44,7 @@ public final class RequestImpl implements Request {
     String requestURL;
     ContentType contentType;
     byte[] body;
+    Path bodyFile;      // large body is spilled to temp file, which is deleted after exchange completed
     Map<String, String> cookies;
 
     public RequestImpl(HttpServerExchange exchange, RequestBeanMapper mapper) {
@@ -116,9 +122,24 @@ public final class RequestImpl implements Request {
 
     @Override
     public Optional<byte[]> body() {
+        if (bodyFile != null)     // not to load large body into heap
+            throw new Error("request body is larger than spill threshold, please use request.bodyStream() or increase threshold by http().maxBodySize()");
         return Optional.ofNullable(body);
     }
 
+    @Override
+    public Optional<InputStream> bodyStream() {
+        if (bodyFile != null) {
+            try {
+                return Optional.of(Files.newInputStream(bodyFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (body != null) return Optional.of(new ByteArrayInputStream(body));
+        return Optional.empty();
+    }
+
     @Override
     public <T> T bean(Class<T> beanClass) {
         try {
@@ -127,8 +148,10 @@ public final class RequestImpl implements Request {
             } else if (method == HTTPMethod.POST || method == HTTPMethod.PUT || method == HTTPMethod.PATCH) {
                 if (!formParams.isEmpty()) {
                     return mapper.fromParams(beanClass, formParams);
-                } else if (body != null && contentType != null && ContentType.APPLICATION_JSON.mediaType.equals(contentType.mediaType)) {
+                } else if (body != null && jsonContentType()) {
                     return mapper.fromJSON(beanClass, body);
+                } else if (bodyFile != null && jsonContentType()) {
+                    return beanFromFile(beanClass);
                 }
                 throw new BadRequestException(format("body is missing or unsupported content type, method={}, contentType={}", method, contentType), "INVALID_HTTP_REQUEST");
             } else {
@@ -140,4 +163,16 @@ public final class RequestImpl implements Request {
             throw new BadRequestException(e.getMessage(), "INVALID_HTTP_REQUEST", e);
         }
     }
+
+    private boolean jsonContentType() {
+        return contentType != null && ContentType.APPLICATION_JSON.mediaType.equals(contentType.mediaType);
+    }
+
+    private <T> T beanFromFile(Class<T> beanClass) {
+        try (InputStream stream = Files.newInputStream(bodyFile)) {
+            return mapper.fromJSON(beanClass, stream);     // parse incrementally, not to load whole body into heap
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -141,7 +141,12 @@ public final class RequestParser {
         var body = exchange.getAttachment(RequestBodyReader.REQUEST_BODY);
         if (body != null) {
             request.body = body.body();
-            logger.debug("[request] body={}", BodyLogParam.param(request.body, request.contentType));
+            if (body.file != null) {
+                request.bodyFile = body.file;
+                logger.debug("[request] bodyFile={}, size={}", body.file, body.size);
+            } else {
+                logger.debug("[request] body={}", BodyLogParam.param(request.body, request.contentType));
+            }
         } else {
             parseForm(request, exchange);
         }
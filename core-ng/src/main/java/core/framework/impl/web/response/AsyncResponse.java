@@ -0,0 +1,69 @@
+package core.framework.impl.web.response;
+
+import core.framework.api.http.HTTPStatus;
+import core.framework.http.ContentType;
+import core.framework.web.CookieSpec;
+import core.framework.web.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * placeholder returned to interceptors by async controller, changes made by interceptors are applied to actual response once stage completed
+ *
+ * @author neo
+ */
+public final class AsyncResponse implements Response {
+    public final CompletionStage<Response> stage;
+    private final List<Consumer<Response>> changes = new ArrayList<>();
+
+    public AsyncResponse(CompletionStage<Response> stage) {
+        if (stage == null) throw new Error("async controller must not return null stage");
+        this.stage = stage;
+    }
+
+    public Response apply(Response response) {
+        if (response == null) throw new Error("async controller must not complete with null response");
+        for (Consumer<Response> change : changes) {
+            change.accept(response);
+        }
+        return response;
+    }
+
+    @Override
+    public HTTPStatus status() {
+        throw new Error("status of async response is not available until completed");
+    }
+
+    @Override
+    public Response status(HTTPStatus status) {
+        changes.add(response -> response.status(status));
+        return this;
+    }
+
+    @Override
+    public Response header(String name, Object value) {
+        changes.add(response -> response.header(name, value));
+        return this;
+    }
+
+    @Override
+    public Optional<ContentType> contentType() {
+        throw new Error("content type of async response is not available until completed");
+    }
+
+    @Override
+    public Response contentType(ContentType contentType) {
+        changes.add(response -> response.contentType(contentType));
+        return this;
+    }
+
+    @Override
+    public Response cookie(CookieSpec spec, String value) {
+        changes.add(response -> response.cookie(spec, value));
+        return this;
+    }
+}
@@ -2,9 +2,12 @@ package core.framework.impl.web.response;
 
 import core.framework.impl.log.filter.JSONLogParam;
 import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -14,6 +17,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 public final class BeanBody implements Body {
     private static final Logger LOGGER = LoggerFactory.getLogger(BeanBody.class);
+    private static final int MAX_LOG_BODY_LENGTH = 10001;   // log param is truncated to 10k, one more byte to mark truncated
     public final Object bean;
 
     public BeanBody(Object bean) {
@@ -26,4 +30,25 @@ public final class BeanBody implements Body {
         LOGGER.debug("[response] body={}", new JSONLogParam(body, UTF_8));
         sender.send(ByteBuffer.wrap(body));
     }
+
+    // encode json into pooled buffers directly, large body is sent in chunks
+    @Override
+    public void send(HttpServerExchange exchange, ResponseHandlerContext context) {
+        var stream = new ResponseBodyStream(exchange, ResponseBodyStream.MAX_STAGED_SIZE);
+        try {
+            context.responseBeanMapper.writeJSON(bean, stream);
+            if (stream.chunked()) {
+                LOGGER.debug("[response] body=chunked, size={}", stream.size());
+            } else {
+                LOGGER.debug("[response] body={}", new JSONLogParam(stream.head(MAX_LOG_BODY_LENGTH), UTF_8));
+            }
+            stream.send(exchange.getResponseSender());
+        } catch (IOException e) {
+            stream.abort();
+            throw new UncheckedIOException(e);
+        } catch (Throwable e) {
+            stream.abort();
+            throw e;
+        }
+    }
 }
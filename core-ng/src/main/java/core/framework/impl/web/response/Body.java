@@ -1,10 +1,15 @@
 package core.framework.impl.web.response;
 
 import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
 
 /**
  * @author neo
  */
 interface Body {
     void send(Sender sender, ResponseHandlerContext context);
+
+    default void send(HttpServerExchange exchange, ResponseHandlerContext context) {
+        send(exchange.getResponseSender(), context);
+    }
 }
@@ -0,0 +1,178 @@
+package core.framework.impl.web.response;
+
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import org.xnio.IoUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * body is written into pooled buffers of connection, and sent by gathering write once completed,
+ * if body exceeds max staged size, it switches to blocking output stream of exchange, which sends in chunks, so memory per response is bounded
+ *
+ * once switched, headers are committed and error response can not be rendered anymore, so failure in middle of body must abort connection
+ *
+ * @author neo
+ */
+final class ResponseBodyStream extends OutputStream {
+    static final int MAX_STAGED_SIZE = 256 * 1024;
+
+    private final HttpServerExchange exchange;
+    private final ByteBufferPool pool;
+    private final int maxStagedSize;
+    private final List<PooledByteBuffer> buffers = new ArrayList<>();
+    private ByteBuffer current;
+    private OutputStream output;    // not null if switched to chunked streaming
+    private long size;
+    private long stagedCapacity;
+
+    ResponseBodyStream(HttpServerExchange exchange, int maxStagedSize) {
+        this.exchange = exchange;
+        this.maxStagedSize = maxStagedSize;
+        pool = exchange.getConnection().getByteBufferPool();
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (output != null) {
+            output.write(value);
+        } else {
+            if (current == null || !current.hasRemaining()) nextBuffer();
+            if (output != null) output.write(value);
+            else current.put((byte) value);
+        }
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0 && output == null) {
+            if (current == null || !current.hasRemaining()) {
+                nextBuffer();
+                continue;
+            }
+            int count = Math.min(remaining, current.remaining());
+            current.put(bytes, position, count);
+            position += count;
+            remaining -= count;
+        }
+        if (remaining > 0) output.write(bytes, position, remaining);
+        size += length;
+    }
+
+    @Override
+    public void close() {
+        // json writer closes target stream after written, body is only sent by send()
+    }
+
+    void send(Sender sender) throws IOException {
+        if (output != null) {
+            output.close();     // flush last chunk and end exchange
+            return;
+        }
+        ByteBuffer[] body = new ByteBuffer[buffers.size()];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = buffers.get(i).getBuffer().flip();
+        }
+        sender.send(body, new ReleaseBuffersCallback(buffers));
+    }
+
+    void release() {
+        for (PooledByteBuffer buffer : buffers) {
+            buffer.close();
+        }
+        buffers.clear();
+    }
+
+    // called on failure during writing body, if partial body was sent in chunks, close connection to let client detect incomplete response
+    void abort() {
+        release();
+        if (output != null) {
+            IoUtils.safeClose(exchange.getConnection());
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean chunked() {
+        return output != null;
+    }
+
+    byte[] head(int maxLength) {     // for logging, only copy beginning of staged body
+        byte[] head = new byte[(int) Math.min(size, maxLength)];
+        int position = 0;
+        for (PooledByteBuffer buffer : buffers) {
+            if (position == head.length) break;
+            ByteBuffer bytes = buffer.getBuffer().duplicate().flip();
+            int count = Math.min(bytes.remaining(), head.length - position);
+            bytes.get(head, position, count);
+            position += count;
+        }
+        return position == head.length ? head : Arrays.copyOf(head, position);
+    }
+
+    private void nextBuffer() throws IOException {
+        if (stagedCapacity >= maxStagedSize) {
+            switchToChunked();
+            return;
+        }
+        PooledByteBuffer buffer = pool.allocate();
+        buffers.add(buffer);
+        current = buffer.getBuffer();
+        current.clear();
+        stagedCapacity += current.capacity();
+    }
+
+    private void switchToChunked() throws IOException {
+        if (!exchange.isBlocking()) exchange.startBlocking();
+        output = exchange.getOutputStream();
+        byte[] bytes = new byte[current.capacity()];
+        for (PooledByteBuffer buffer : buffers) {
+            ByteBuffer staged = buffer.getBuffer().flip();
+            int length = staged.remaining();
+            staged.get(bytes, 0, length);
+            output.write(bytes, 0, length);
+        }
+        output.flush();     // commit headers explicitly, so error handler won't render second response to started exchange
+        release();
+        current = null;
+    }
+
+    private static final class ReleaseBuffersCallback implements IoCallback {
+        private final List<PooledByteBuffer> buffers;
+
+        ReleaseBuffersCallback(List<PooledByteBuffer> buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public void onComplete(HttpServerExchange exchange, Sender sender) {
+            release();
+            END_EXCHANGE.onComplete(exchange, sender);
+        }
+
+        @Override
+        public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+            release();
+            END_EXCHANGE.onException(exchange, sender, exception);
+        }
+
+        private void release() {
+            for (PooledByteBuffer buffer : buffers) {
+                buffer.close();
+            }
+        }
+    }
+}
@@ -40,7 +40,7 @@ public class ResponseHandler {
 
         closeConnectionIfShutdown(exchange);
 
-        response.body.send(exchange.getResponseSender(), context);
+        response.body.send(exchange, context);
 
         actionLog.context("responseCode", status.code);  // set response code context at last, to avoid error handler to log duplicate action_log_context key on exception
     }
@@ -11,12 +11,12 @@ import static core.framework.util.Strings.format;
 /**
  * @author neo
  */
-class PathNode {
-    private final String param;
-    private URLHandler handler;
-    private Map<String, PathNode> staticNodes;
-    private PathNode dynamicNode;
-    private PathNode wildcardNode;
+class PathNode {     // registration tree, compiled into PathTrie for matching
+    final String param;
+    URLHandler handler;
+    Map<String, PathNode> staticNodes;
+    PathNode dynamicNode;
+    PathNode wildcardNode;
 
     PathNode(String param) {
         this.param = param;
@@ -68,6 +68,7 @@ class PathNode {
         return dynamicNode.register(pathPattern, currentPath.next);
     }
 
+    // match by walking registration tree segment by segment, it's reference implementation of PathTrie
     URLHandler find(String path, PathParams pathParams) {
         return find(Path.parse(path), pathParams);
     }
@@ -0,0 +1,155 @@
+package core.framework.impl.web.route;
+
+import core.framework.impl.web.request.PathParams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * immutable trie compiled from PathNode, chain of static segments is compressed into one key, e.g. "_sys/cache",
+ * match scans raw path with offsets, static key is located by hash of first segment computed during scan,
+ * only path param values are allocated
+ *
+ * @author neo
+ */
+final class PathTrie {
+    static PathTrie compile(PathNode root) {
+        return new PathTrie(compileNode(root));
+    }
+
+    private static Node compileNode(PathNode node) {
+        List<StaticEntry> entries = new ArrayList<>();
+        if (node.staticNodes != null) {
+            for (Map.Entry<String, PathNode> entry : node.staticNodes.entrySet()) {
+                var key = new StringBuilder("/".equals(entry.getKey()) ? "" : entry.getKey());   // trailing slash is empty key after last '/'
+                PathNode child = entry.getValue();
+                while (child.handler == null && child.dynamicNode == null && child.wildcardNode == null
+                        && child.staticNodes != null && child.staticNodes.size() == 1) {
+                    Map.Entry<String, PathNode> next = child.staticNodes.entrySet().iterator().next();
+                    key.append('/');
+                    if (!"/".equals(next.getKey())) key.append(next.getKey());
+                    child = next.getValue();
+                }
+                entries.add(new StaticEntry(key.toString(), compileNode(child)));
+            }
+            entries.sort(Comparator.comparingInt(entry -> entry.hash));
+        }
+        Node dynamicNode = node.dynamicNode == null ? null : compileNode(node.dynamicNode);
+        String dynamicParam = node.dynamicNode == null ? null : node.dynamicNode.param;
+        URLHandler wildcardHandler = node.wildcardNode == null ? null : node.wildcardNode.handler;
+        String wildcardParam = node.wildcardNode == null ? null : node.wildcardNode.param;
+        return new Node(node.handler, entries, dynamicParam, dynamicNode, wildcardParam, wildcardHandler);
+    }
+
+    private final Node root;
+
+    private PathTrie(Node root) {
+        this.root = root;
+    }
+
+    URLHandler find(String path, PathParams pathParams) {
+        if (path.length() <= 1) return root.handler;
+        return root.find(path, 0, pathParams);
+    }
+
+    private static final class StaticEntry {
+        final String key;
+        final int hash;
+        final Node node;
+
+        StaticEntry(String key, Node node) {
+            this.key = key;
+            int index = key.indexOf('/');
+            hash = (index < 0 ? key : key.substring(0, index)).hashCode();  // same as hash computed while scanning segment
+            this.node = node;
+        }
+    }
+
+    private static final class Node {
+        final URLHandler handler;
+        final int[] staticHashes;
+        final String[] staticKeys;
+        final Node[] staticNodes;
+        final String dynamicParam;
+        final Node dynamicNode;
+        final String wildcardParam;
+        final URLHandler wildcardHandler;
+
+        Node(URLHandler handler, List<StaticEntry> entries, String dynamicParam, Node dynamicNode, String wildcardParam, URLHandler wildcardHandler) {
+            this.handler = handler;
+            int size = entries.size();
+            staticHashes = new int[size];
+            staticKeys = new String[size];
+            staticNodes = new Node[size];
+            for (int i = 0; i < size; i++) {
+                StaticEntry entry = entries.get(i);
+                staticHashes[i] = entry.hash;
+                staticKeys[i] = entry.key;
+                staticNodes[i] = entry.node;
+            }
+            this.dynamicParam = dynamicParam;
+            this.dynamicNode = dynamicNode;
+            this.wildcardParam = wildcardParam;
+            this.wildcardHandler = wildcardHandler;
+        }
+
+        // offset is index of '/' before next segment, or path length if no more segment
+        URLHandler find(String path, int offset, PathParams pathParams) {
+            int length = path.length();
+            if (offset == length) return handler;
+
+            int start = offset + 1;
+            int end = start;
+            int hash = 0;
+            while (end < length) {
+                char ch = path.charAt(end);
+                if (ch == '/') break;
+                hash = 31 * hash + ch;
+                end++;
+            }
+
+            URLHandler handler = findStatic(path, start, hash, pathParams);
+            if (handler != null) return handler;
+
+            if (dynamicNode != null && start < length) {    // dynamic node should not match trailing slash
+                handler = dynamicNode.find(path, end, pathParams);
+                if (handler != null) {
+                    pathParams.put(dynamicParam, path.substring(start, end));
+                    return handler;
+                }
+            }
+
+            if (wildcardHandler != null) {
+                pathParams.put(wildcardParam, start == length ? "/" : path.substring(start));
+                return wildcardHandler;
+            }
+            return null;
+        }
+
+        private URLHandler findStatic(String path, int start, int hash, PathParams pathParams) {
+            int index = Arrays.binarySearch(staticHashes, hash);
+            if (index < 0) return null;
+            while (index > 0 && staticHashes[index - 1] == hash) index--;
+            for (int i = index; i < staticHashes.length && staticHashes[i] == hash; i++) {
+                String key = staticKeys[i];
+                if (matches(path, start, key)) {
+                    return staticNodes[i].find(path, start + key.length(), pathParams);     // first segments of keys are unique, no need to try others
+                }
+            }
+            return null;
+        }
+
+        private boolean matches(String path, int start, String key) {
+            int length = path.length();
+            int keyLength = key.length();
+            if (keyLength == 0) return start == length;
+            int next = start + keyLength;
+            return next <= length
+                    && path.regionMatches(start, key, 0, keyLength)
+                    && (next == length || path.charAt(next) == '/');
+        }
+    }
+}
@@ -17,8 +17,10 @@ import java.util.Map;
 public final class Route {
     private final Logger logger = LoggerFactory.getLogger(Route.class);
 
+    private final Object compileLock = new Object();
     private final Map<String, URLHandler> staticHandlers = Maps.newHashMap();
     private final PathNode dynamicRoot = new PathNode(null);
+    private volatile PathTrie dynamicTrie;     // routes are registered during startup, and compiled once before serving
 
     public void add(HTTPMethod method, String path, ControllerHolder controller) {
         logger.info("route, method={}, path={}, controller={}", method, path, controller.controllerInfo);
@@ -30,11 +32,25 @@ public final class Route {
             handler = staticHandlers.computeIfAbsent(path, URLHandler::new);
         }
         handler.put(method, controller);
+        dynamicTrie = null;
+    }
+
+    public void compile() {
+        synchronized (compileLock) {
+            if (dynamicTrie == null) dynamicTrie = PathTrie.compile(dynamicRoot);
+        }
     }
 
     public ControllerHolder get(String path, HTTPMethod method, PathParams pathParams, ActionLog actionLog) {
         URLHandler handler = staticHandlers.get(path);
-        if (handler == null) handler = dynamicRoot.find(path, pathParams);
+        if (handler == null) {
+            PathTrie trie = dynamicTrie;
+            if (trie == null) {
+                compile();
+                trie = dynamicTrie;
+            }
+            handler = trie.find(path, pathParams);
+        }
         if (handler == null) {
             throw new NotFoundException("not found, path=" + path, "PATH_NOT_FOUND");
         }
@@ -4,9 +4,6 @@ import core.framework.http.HTTPMethod;
 import core.framework.impl.web.controller.ControllerHolder;
 import core.framework.web.exception.MethodNotAllowedException;
 
-import java.util.EnumMap;
-import java.util.Map;
-
 import static core.framework.util.Strings.format;
 
 /**
@@ -14,21 +11,21 @@ import static core.framework.util.Strings.format;
  */
 class URLHandler {
     final String pathPattern;
-    private final Map<HTTPMethod, ControllerHolder> controllers = new EnumMap<>(HTTPMethod.class);
+    private final ControllerHolder[] controllers = new ControllerHolder[HTTPMethod.values().length];   // indexed by method ordinal
 
     URLHandler(String pathPattern) {
         this.pathPattern = pathPattern;
     }
 
     void put(HTTPMethod method, ControllerHolder controller) {
-        ControllerHolder previous = controllers.putIfAbsent(method, controller);
-        if (previous != null) {
+        if (controllers[method.ordinal()] != null) {
             throw new Error(format("found duplicate controller, path={}, method={}", pathPattern, method));
         }
+        controllers[method.ordinal()] = controller;
     }
 
     ControllerHolder get(HTTPMethod method) {
-        ControllerHolder controller = controllers.get(method);
+        ControllerHolder controller = controllers[method.ordinal()];
         if (controller == null) {
             throw new MethodNotAllowedException("method not allowed, method=" + method);
         }
@@ -12,6 +12,8 @@ import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import core.framework.util.Strings;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 
@@ -51,6 +53,15 @@ public class JSONMapper<T> {
         }
     }
 
+    // parse incrementally from stream, e.g. large request body spilled to file
+    public T fromJSON(InputStream json) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     // with jdk 11, write to String then covert to byte[] is faster than write to byte[]
     public byte[] toJSON(T instance) {
         try {
@@ -59,4 +70,13 @@ public class JSONMapper<T> {
             throw new UncheckedIOException(e);
         }
     }
+
+    // encode utf-8 bytes to stream directly, e.g. pooled buffers of response, without intermediate String/byte[]
+    public void writeJSON(T instance, OutputStream stream) {
+        try {
+            writer.writeValue(stream, instance);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
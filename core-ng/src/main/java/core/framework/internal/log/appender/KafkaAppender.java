@@ -1,8 +1,10 @@
 package core.framework.internal.log.appender;
 
+import core.framework.impl.kafka.MessageHeaders;
 import core.framework.impl.kafka.ProducerMetrics;
 import core.framework.internal.json.JSONMapper;
 import core.framework.internal.log.message.ActionLogMessage;
+import core.framework.internal.log.message.LogMessageCodec;
 import core.framework.internal.log.message.LogTopics;
 import core.framework.internal.log.message.StatMessage;
 import core.framework.util.StopWatch;
@@ -19,29 +21,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
+ * records are buffered in bounded ring buffer, request threads never block or grow heap when kafka is slow or not available,
+ * oldest record is dropped when buffer is full, forwarder thread drains records in batch, all drops are counted in producer metrics
+ *
  * @author neo
  */
 public final class KafkaAppender implements LogAppender {
+    private static final int MAX_QUEUE_SIZE = 8192;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long IDLE_WAIT_TIME_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
     public final ProducerMetrics producerMetrics = new ProducerMetrics("log-forwarder");
+    final RingBuffer<ProducerRecord<byte[], byte[]>> records = new RingBuffer<>(MAX_QUEUE_SIZE);
     private final Logger logger = LoggerFactory.getLogger(KafkaAppender.class);
-    private final BlockingQueue<ProducerRecord<byte[], byte[]>> records = new LinkedBlockingQueue<>();
     private final Producer<byte[], byte[]> producer;
 
     private final AtomicBoolean stop = new AtomicBoolean(false);
     private final Thread logForwarderThread;
     private final JSONMapper<ActionLogMessage> actionLogMapper;
     private final JSONMapper<StatMessage> statMapper;
+    private final LogMessageCodec codec = new LogMessageCodec();
+    public boolean binaryEncoding;  // encode by LogMessageCodec with content type header, otherwise json
     private final Callback callback = (metadata, exception) -> {
         if (exception != null) {
             logger.warn("failed to send log message", exception);
-            records.clear();
+            producerMetrics.dropped(1);
+        } else {
+            producerMetrics.sent(1);
         }
     };
 
@@ -59,35 +73,70 @@ public final class KafkaAppender implements LogAppender {
             var serializer = new ByteArraySerializer();
             producer = new KafkaProducer<>(config, serializer, serializer);
             producerMetrics.set(producer.metrics());
+            producerMetrics.queueSize(records::size);
         } finally {
             logger.info("create log forwarder, uri={}, elapsed={}", uri, watch.elapsed());
         }
 
         logForwarderThread = new Thread(() -> {
             logger.info("log forwarder thread started, uri={}", uri);
+            List<ProducerRecord<byte[], byte[]>> batch = new ArrayList<>(MAX_BATCH_SIZE);
             while (!stop.get()) {
-                try {
-                    ProducerRecord<byte[], byte[]> record = records.take();
-                    producer.send(record, callback);
-                } catch (Throwable e) {
-                    if (!stop.get()) {
-                        logger.warn("failed to send log message, retry in 30 seconds", e);
-                        records.clear();
-                        Threads.sleepRoughly(Duration.ofSeconds(30));
-                    }
+                if (records.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                    LockSupport.parkNanos(IDLE_WAIT_TIME_IN_NANOS);   // poll without signaling, to keep append free of contention
+                    continue;
                 }
+                send(batch);
             }
         }, "log-forwarder");
     }
 
+    private void send(List<ProducerRecord<byte[], byte[]>> batch) {
+        int sent = 0;
+        try {
+            for (ProducerRecord<byte[], byte[]> record : batch) {
+                producer.send(record, callback);
+                sent++;
+            }
+        } catch (Throwable e) {
+            producerMetrics.dropped(batch.size() - sent);
+            if (!stop.get()) {
+                logger.warn("failed to send log message, retry in 30 seconds", e);
+                Threads.sleepRoughly(Duration.ofSeconds(30));   // records keep buffering and oldest are dropped while waiting
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
     @Override
     public void append(ActionLogMessage message) {
-        records.add(new ProducerRecord<>(LogTopics.TOPIC_ACTION_LOG, Strings.bytes(message.id), actionLogMapper.toJSON(message)));
+        if (binaryEncoding) {
+            append(binaryRecord(LogTopics.TOPIC_ACTION_LOG, message.id, codec.encode(message)));
+        } else {
+            append(new ProducerRecord<>(LogTopics.TOPIC_ACTION_LOG, Strings.bytes(message.id), actionLogMapper.toJSON(message)));
+        }
     }
 
     @Override
     public void append(StatMessage message) {
-        records.add(new ProducerRecord<>(LogTopics.TOPIC_STAT, Strings.bytes(message.id), statMapper.toJSON(message)));
+        if (binaryEncoding) {
+            append(binaryRecord(LogTopics.TOPIC_STAT, message.id, codec.encode(message)));
+        } else {
+            append(new ProducerRecord<>(LogTopics.TOPIC_STAT, Strings.bytes(message.id), statMapper.toJSON(message)));
+        }
+    }
+
+    void append(ProducerRecord<byte[], byte[]> record) {
+        while (!records.offer(record)) {
+            if (records.poll() != null) producerMetrics.dropped(1);  // drop oldest, which is least valuable for troubleshooting
+        }
+    }
+
+    private ProducerRecord<byte[], byte[]> binaryRecord(String topic, String id, byte[] value) {
+        var record = new ProducerRecord<>(topic, Strings.bytes(id), value);
+        record.headers().add(MessageHeaders.HEADER_CONTENT_TYPE, Strings.bytes(LogMessageCodec.CONTENT_TYPE));
+        return record;
     }
 
     public void start() {
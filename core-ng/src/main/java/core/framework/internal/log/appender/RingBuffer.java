@@ -0,0 +1,94 @@
+package core.framework.internal.log.appender;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * bounded lock free queue, refer to http://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue
+ *
+ * each slot has sequence to tell whether it's ready to write (sequence == tail) or ready to read (sequence == head + 1),
+ * producers and consumer only contend on CAS of tail/head, poll is also used by producer to drop oldest record when full
+ *
+ * @author neo
+ */
+public final class RingBuffer<T> {
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) throw new Error("capacity must be power of 2, capacity=" + capacity);
+        items = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    public boolean offer(T item) {
+        long tail = this.tail.get();
+        while (true) {
+            int index = (int) tail & mask;
+            long diff = sequences.get(index) - tail;
+            if (diff == 0) {
+                if (this.tail.compareAndSet(tail, tail + 1)) {
+                    items[index] = item;
+                    sequences.lazySet(index, tail + 1);     // publish item to consumer
+                    return true;
+                }
+                tail = this.tail.get();
+            } else if (diff < 0) {
+                return false;   // slot is not consumed yet, buffer is full
+            } else {
+                tail = this.tail.get();    // other producer took the slot
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long head = this.head.get();
+        while (true) {
+            int index = (int) head & mask;
+            long diff = sequences.get(index) - (head + 1);
+            if (diff == 0) {
+                if (this.head.compareAndSet(head, head + 1)) {
+                    var item = (T) items[index];
+                    items[index] = null;
+                    sequences.lazySet(index, head + items.length);  // release slot to producer of next round
+                    return item;
+                }
+                head = this.head.get();
+            } else if (diff < 0) {
+                return null;    // slot is not published yet, buffer is empty
+            } else {
+                head = this.head.get();
+            }
+        }
+    }
+
+    public int drainTo(List<T> results, int maxItems) {
+        int count = 0;
+        while (count < maxItems) {
+            T item = poll();
+            if (item == null) break;
+            results.add(item);
+            count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        if (size < 0) return 0;
+        return (int) Math.min(size, items.length);
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
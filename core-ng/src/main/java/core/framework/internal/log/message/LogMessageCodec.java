@@ -0,0 +1,344 @@
+package core.framework.internal.log.message;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static core.framework.util.Strings.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * compact binary encoding of action log and stat message, to reduce size and cost of json on log topics,
+ * message = version, type, varint dictionary size, varint bitmap of non null fields, then fields in declaration order,
+ * numbers are zigzag varint (double is 8 bytes), string is varint header (0 = null, odd = index of dictionary, even = (utf8 length + 1) * 2) and utf8 bytes
+ *
+ * dictionary is append only, message carries dictionary size of sender, so older log-processor rejects message with newer dictionary up front,
+ * log-processor must be upgraded before apps send new entries
+ *
+ * @author neo
+ */
+public final class LogMessageCodec {
+    public static final String CONTENT_TYPE = "binary";     // value of content type header, without the header message is json
+
+    static final byte VERSION = 2;
+    static final byte TYPE_ACTION_LOG = 1;
+    static final byte TYPE_STAT = 2;
+
+    private static final String[] DICTIONARY = {
+        "OK", "WARN", "ERROR", "TRACE",
+        "db", "redis", "http", "kafka", "ws", "elasticsearch", "mongo", "cache",
+        "controller", "method", "requestURL", "userAgent", "clientIP", "topic", "handler", "key", "channel", "listener", "job", "jobClass", "trigger",
+        "GET", "POST", "PUT", "DELETE", "PATCH",
+        "sys_load_avg", "cpu_usage", "thread_count", "jvm_heap_used", "jvm_heap_max",
+        "action_log_queued", "action_log_encoded_count", "action_log_inline_count",
+        "action_log_wait_total_elapsed", "action_log_encode_total_elapsed", "action_log_append_total_elapsed",
+        "kafka_producer_log-forwarder_request_rate", "kafka_producer_log-forwarder_request_size_avg", "kafka_producer_log-forwarder_outgoing_byte_rate",
+        "kafka_producer_log-forwarder_queued_records", "kafka_producer_log-forwarder_sent_records", "kafka_producer_log-forwarder_dropped_records"
+    };
+    private static final Map<String, Integer> DICTIONARY_INDEXES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            DICTIONARY_INDEXES.put(DICTIONARY[i], i);
+        }
+    }
+
+    public byte[] encode(ActionLogMessage message) {
+        var output = new Output(message.traceLog == null ? 512 : message.traceLog.length() + 512);
+        output.writeHeader(TYPE_ACTION_LOG);
+        Object[] fields = {message.id, message.date, message.app, message.serverIP, message.result, message.action,
+            message.correlationIds, message.clients, message.refIds, message.errorCode, message.errorMessage,
+            message.elapsed, message.cpuTime, message.context, message.stats, message.performanceStats, message.traceLog};
+        output.writeVarLong(bitmap(fields));
+        if (message.id != null) output.writeString(message.id);
+        if (message.date != null) output.writeInstant(message.date);
+        if (message.app != null) output.writeString(message.app);
+        if (message.serverIP != null) output.writeString(message.serverIP);
+        if (message.result != null) output.writeString(message.result);
+        if (message.action != null) output.writeString(message.action);
+        if (message.correlationIds != null) output.writeStrings(message.correlationIds);
+        if (message.clients != null) output.writeStrings(message.clients);
+        if (message.refIds != null) output.writeStrings(message.refIds);
+        if (message.errorCode != null) output.writeString(message.errorCode);
+        if (message.errorMessage != null) output.writeString(message.errorMessage);
+        if (message.elapsed != null) output.writeZigZag(message.elapsed);
+        if (message.cpuTime != null) output.writeZigZag(message.cpuTime);
+        if (message.context != null) {
+            output.writeVarLong(message.context.size());
+            for (Map.Entry<String, String> entry : message.context.entrySet()) {
+                output.writeString(entry.getKey());
+                output.writeString(entry.getValue());
+            }
+        }
+        if (message.stats != null) output.writeStats(message.stats);
+        if (message.performanceStats != null) {
+            output.writeVarLong(message.performanceStats.size());
+            for (Map.Entry<String, PerformanceStat> entry : message.performanceStats.entrySet()) {
+                output.writeString(entry.getKey());
+                PerformanceStat stat = entry.getValue();
+                output.writeVarLong(bitmap(stat.totalElapsed, stat.count, stat.readEntries, stat.writeEntries));
+                if (stat.totalElapsed != null) output.writeZigZag(stat.totalElapsed);
+                if (stat.count != null) output.writeZigZag(stat.count);
+                if (stat.readEntries != null) output.writeZigZag(stat.readEntries);
+                if (stat.writeEntries != null) output.writeZigZag(stat.writeEntries);
+            }
+        }
+        if (message.traceLog != null) output.writeString(message.traceLog);
+        return output.toByteArray();
+    }
+
+    public byte[] encode(StatMessage message) {
+        var output = new Output(1024);
+        output.writeHeader(TYPE_STAT);
+        output.writeVarLong(bitmap(message.id, message.date, message.app, message.serverIP, message.stats));
+        if (message.id != null) output.writeString(message.id);
+        if (message.date != null) output.writeInstant(message.date);
+        if (message.app != null) output.writeString(message.app);
+        if (message.serverIP != null) output.writeString(message.serverIP);
+        if (message.stats != null) output.writeStats(message.stats);
+        return output.toByteArray();
+    }
+
+    public ActionLogMessage decodeActionLog(byte[] bytes) {
+        var input = new Input(bytes, TYPE_ACTION_LOG);
+        long bitmap = input.readVarLong();
+        var message = new ActionLogMessage();
+        if (present(bitmap, 0)) message.id = input.readString();
+        if (present(bitmap, 1)) message.date = input.readInstant();
+        if (present(bitmap, 2)) message.app = input.readString();
+        if (present(bitmap, 3)) message.serverIP = input.readString();
+        if (present(bitmap, 4)) message.result = input.readString();
+        if (present(bitmap, 5)) message.action = input.readString();
+        if (present(bitmap, 6)) message.correlationIds = input.readStrings();
+        if (present(bitmap, 7)) message.clients = input.readStrings();
+        if (present(bitmap, 8)) message.refIds = input.readStrings();
+        if (present(bitmap, 9)) message.errorCode = input.readString();
+        if (present(bitmap, 10)) message.errorMessage = input.readString();
+        if (present(bitmap, 11)) message.elapsed = input.readZigZag();
+        if (present(bitmap, 12)) message.cpuTime = input.readZigZag();
+        if (present(bitmap, 13)) {
+            int size = input.readSize();
+            message.context = new LinkedHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                message.context.put(input.readString(), input.readString());
+            }
+        }
+        if (present(bitmap, 14)) message.stats = input.readStats();
+        if (present(bitmap, 15)) {
+            int size = input.readSize();
+            message.performanceStats = new LinkedHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                String key = input.readString();
+                long statBitmap = input.readVarLong();
+                var stat = new PerformanceStat();
+                if (present(statBitmap, 0)) stat.totalElapsed = input.readZigZag();
+                if (present(statBitmap, 1)) stat.count = (int) input.readZigZag();
+                if (present(statBitmap, 2)) stat.readEntries = (int) input.readZigZag();
+                if (present(statBitmap, 3)) stat.writeEntries = (int) input.readZigZag();
+                message.performanceStats.put(key, stat);
+            }
+        }
+        if (present(bitmap, 16)) message.traceLog = input.readString();
+        return message;
+    }
+
+    public StatMessage decodeStat(byte[] bytes) {
+        var input = new Input(bytes, TYPE_STAT);
+        long bitmap = input.readVarLong();
+        var message = new StatMessage();
+        if (present(bitmap, 0)) message.id = input.readString();
+        if (present(bitmap, 1)) message.date = input.readInstant();
+        if (present(bitmap, 2)) message.app = input.readString();
+        if (present(bitmap, 3)) message.serverIP = input.readString();
+        if (present(bitmap, 4)) message.stats = input.readStats();
+        return message;
+    }
+
+    private long bitmap(Object... fields) {
+        long bitmap = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) bitmap |= 1L << i;
+        }
+        return bitmap;
+    }
+
+    private boolean present(long bitmap, int index) {
+        return (bitmap & (1L << index)) != 0;
+    }
+
+    static final class Output {
+        private byte[] bytes;
+        private int position;
+
+        Output(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[position++] = (byte) value;
+        }
+
+        void writeHeader(byte type) {
+            writeByte(VERSION);
+            writeByte(type);
+            writeVarLong(DICTIONARY.length);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            bytes[position++] = (byte) remaining;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            ensureCapacity(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeInstant(Instant instant) {
+            writeZigZag(instant.getEpochSecond());
+            writeVarLong(instant.getNano());
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            Integer index = DICTIONARY_INDEXES.get(value);
+            if (index != null) {
+                writeVarLong(((long) index << 1) | 1);
+                return;
+            }
+            byte[] utf8 = value.getBytes(UTF_8);
+            writeVarLong((utf8.length + 1L) << 1);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, position, utf8.length);
+            position += utf8.length;
+        }
+
+        void writeStrings(List<String> values) {
+            writeVarLong(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        void writeStats(Map<String, Double> stats) {
+            writeVarLong(stats.size());
+            for (Map.Entry<String, Double> entry : stats.entrySet()) {
+                writeString(entry.getKey());
+                Double value = entry.getValue();
+                writeDouble(value == null ? Double.NaN : value);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, position);
+        }
+
+        private void ensureCapacity(int size) {
+            if (position + size > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, position + size));
+            }
+        }
+    }
+
+    static final class Input {
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes, byte type) {
+            this.bytes = bytes;
+            if (bytes.length < 2 || bytes[0] != VERSION || bytes[1] != type)
+                throw new Error(format("invalid binary log message, version={}, type={}", bytes.length > 0 ? bytes[0] : null, bytes.length > 1 ? bytes[1] : null));
+            position = 2;
+            long dictionarySize = readVarLong();
+            if (dictionarySize > DICTIONARY.length)
+                throw new Error(format("binary log message uses newer dictionary, please upgrade log-processor, dictionarySize={}, supportedSize={}", dictionarySize, DICTIONARY.length));
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte value = bytes[position++];
+                result |= (long) (value & 0x7F) << shift;
+                if ((value & 0x80) == 0) return result;
+            }
+            throw new Error("malformed varint");
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        int readSize() {
+            long size = readVarLong();
+            if (size < 0 || size > bytes.length - position) throw new Error("invalid size, size=" + size);  // each element takes at least one byte
+            return (int) size;
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (bytes[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        Instant readInstant() {
+            long seconds = readZigZag();
+            return Instant.ofEpochSecond(seconds, readVarLong());
+        }
+
+        String readString() {
+            long header = readVarLong();
+            if (header == 0) return null;
+            if ((header & 1) == 1) {
+                long index = header >>> 1;
+                if (index >= DICTIONARY.length) throw new Error("unknown dictionary index, index=" + index);
+                return DICTIONARY[(int) index];
+            }
+            long length = (header >>> 1) - 1;
+            if (length < 0 || length > bytes.length - position) throw new Error("invalid string length, length=" + length);
+            var value = new String(bytes, position, (int) length, UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        List<String> readStrings() {
+            int size = readSize();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        Map<String, Double> readStats() {
+            int size = readSize();
+            Map<String, Double> stats = new LinkedHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                stats.put(readString(), readDouble());
+            }
+            return stats;
+        }
+    }
+}
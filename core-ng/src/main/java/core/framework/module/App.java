@@ -1,7 +1,7 @@
 package core.framework.module;
 
-import core.framework.async.Task;
 import core.framework.impl.module.ModuleContext;
+import core.framework.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,9 +15,7 @@ public abstract class App extends Module {
         try {
             configure();
             logger.info("execute startup methods");
-            for (Task task : context.startupHook) {
-                task.execute();
-            }
+            context.startupHook.execute();
         } catch (Throwable e) {
             logger.error("application failed to start, error={}", e.getMessage(), e);
             System.exit(1);
@@ -28,9 +26,13 @@ public abstract class App extends Module {
         logger.info("initialize framework");
         Runtime runtime = Runtime.getRuntime();
         logger.info("availableProcessors={}, maxMemory={}", runtime.availableProcessors(), runtime.maxMemory());
+        var watch = new StopWatch();
         context = new ModuleContext();
         logger.info("initialize application");
         initialize();
+        context.startupHook.record("initialize", watch.elapsed());
+        watch.reset();
         context.validate();
+        context.startupHook.record("validate", watch.elapsed());
     }
 }
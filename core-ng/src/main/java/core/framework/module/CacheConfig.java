@@ -2,14 +2,20 @@ package core.framework.module;
 
 import core.framework.cache.Cache;
 import core.framework.http.HTTPMethod;
+import core.framework.impl.async.ThreadPools;
+import core.framework.impl.cache.CacheImpl;
 import core.framework.impl.cache.CacheManager;
+import core.framework.impl.cache.CacheMetrics;
 import core.framework.impl.cache.CacheStore;
 import core.framework.impl.cache.LocalCacheStore;
+import core.framework.impl.cache.NearCacheInvalidator;
 import core.framework.impl.cache.RedisCacheStore;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.impl.redis.RedisImpl;
+import core.framework.impl.redis.RedisSubscriber;
 import core.framework.impl.resource.PoolMetrics;
 import core.framework.impl.web.management.CacheController;
 import core.framework.util.ASCII;
@@ -20,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author neo
@@ -28,6 +35,10 @@ public class CacheConfig extends Config {
     private final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
     private ModuleContext context;
     private CacheManager cacheManager;
+    private LocalCacheStore localCacheStore;
+    private RedisImpl redis;
+    private NearCacheInvalidator invalidator;
+    private ExecutorService refreshExecutor;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
@@ -63,10 +74,16 @@ public class CacheConfig extends Config {
             throw new Error("cache is already configured, please configure cache store only once");
 
         logger.info("create local cache store");
-        LocalCacheStore cacheStore = new LocalCacheStore();
-        context.backgroundTask().scheduleWithFixedDelay(cacheStore::cleanup, Duration.ofMinutes(30));
+        localCacheStore = new LocalCacheStore();
+        context.backgroundTask().scheduleWithFixedDelay(localCacheStore::cleanup, Duration.ofMinutes(30));
 
-        configureCacheManager(cacheStore);
+        configureCacheManager(localCacheStore);
+    }
+
+    // maxWeight is total bytes of cached values, by default, local cache store is unbounded
+    public void maxLocalSize(int maxSize, long maxWeight) {
+        if (localCacheStore == null) throw new Error("local cache store is not configured, please configure local cache store first");
+        localCacheStore.maxSize(maxSize, maxWeight);
     }
 
     public void redis(String host) {
@@ -79,10 +96,11 @@ public class CacheConfig extends Config {
     void configureRedis(String host) {
         logger.info("create redis cache manager, host={}", host);
 
-        RedisImpl redis = new RedisImpl("redis-cache");
+        redis = new RedisImpl("redis-cache");
         redis.host = host;
         redis.timeout(Duration.ofSeconds(1));   // for cache, use shorter timeout than default redis config
         context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> redis.close());
+        context.startupHook.add(StartupHook.STAGE_0, "redis-cache", redis.pool::warmUp);
         context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
         context.stat.metrics.add(new PoolMetrics(redis.pool));
         configureCacheManager(new RedisCacheStore(redis));
@@ -90,23 +108,59 @@ public class CacheConfig extends Config {
 
     private void configureCacheManager(CacheStore cacheStore) {
         cacheManager = new CacheManager(cacheStore);
+        context.stat.metrics.add(new CacheMetrics(cacheManager));
 
-        CacheController controller = new CacheController(cacheManager);
+        CacheController controller = new CacheController(cacheManager, localCacheStore);
         context.route(HTTPMethod.GET, "/_sys/cache", controller::list, true);
+        if (localCacheStore != null) context.route(HTTPMethod.GET, "/_sys/cache/stats", controller::stats, true);
         context.route(HTTPMethod.GET, "/_sys/cache/:name/:key", controller::get, true);
         context.route(HTTPMethod.DELETE, "/_sys/cache/:name/:key", controller::delete, true);
     }
 
-    public void add(String name, Type valueType, Duration duration) {
+    public CacheStoreConfig add(String name, Type valueType, Duration duration) {
         if (cacheManager == null) throw new Error("cache is not configured, please configure cache store first");
 
         String cacheName = cacheName(name, valueType);
         logger.info("add cache, cacheName={}, valueType={}, name={}", cacheName, valueType.getTypeName(), name);
-        Cache<?> cache = cacheManager.add(cacheName, valueType, duration);
+        CacheImpl<?> cache = cacheManager.add(cacheName, valueType, duration);
         context.beanFactory.bind(Types.generic(Cache.class, valueType), name, cache);
+        return new CacheStoreConfig(this, cache);
+    }
+
+    public CacheStoreConfig add(Type valueType, Duration duration) {
+        return add(null, valueType, duration);
+    }
+
+    void immutable(CacheImpl<?> cache) {
+        if (cacheManager.keepObject(cache)) {
+            logger.info("keep cache value as object, cache={}", cache.name);
+        }
+    }
+
+    void nearCache(CacheImpl<?> cache, int maxSize) {
+        if (redis == null) {    // with local cache store, or in test env redis is replaced by local
+            logger.info("near cache is only for redis cache store, skip, cache={}", cache.name);
+            return;
+        }
+        logger.info("enable near cache, cache={}, maxSize={}", cache.name, maxSize);
+        if (invalidator == null) {
+            invalidator = new NearCacheInvalidator(redis, cacheManager);
+            var subscriber = new RedisSubscriber(redis, NearCacheInvalidator.CHANNEL, invalidator);
+            context.startupHook.add(StartupHook.STAGE_1, "redis-cache-subscriber", subscriber::start);
+            context.backgroundTask().scheduleWithFixedDelay(subscriber::ping, RedisSubscriber.PING_INTERVAL);
+            context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> subscriber.close());
+        }
+        var nearCache = new LocalCacheStore();
+        nearCache.maxSize(maxSize, Runtime.getRuntime().maxMemory() / 10);    // near cache holds decoded objects, limit total weight to 10% of max heap
+        context.backgroundTask().scheduleWithFixedDelay(nearCache::cleanup, Duration.ofMinutes(30));
+        cache.nearCache(nearCache, invalidator);
     }
 
-    public void add(Type valueType, Duration duration) {
-        add(null, valueType, duration);
+    void earlyRefresh(CacheImpl<?> cache) {
+        if (refreshExecutor == null) {
+            refreshExecutor = ThreadPools.cachedThreadPool(Runtime.getRuntime().availableProcessors(), "cache-refresh-");
+            context.shutdownHook.add(ShutdownHook.STAGE_2, timeoutInMs -> refreshExecutor.shutdown());
+        }
+        cache.earlyRefresh(1.0, refreshExecutor);
     }
 }
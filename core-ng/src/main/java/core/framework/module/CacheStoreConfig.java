@@ -0,0 +1,35 @@
+package core.framework.module;
+
+import core.framework.impl.cache.CacheImpl;
+
+/**
+ * @author neo
+ */
+public final class CacheStoreConfig {     // returned from CacheConfig, must be public to be called
+    private final CacheConfig config;
+    private final CacheImpl<?> cache;
+
+    CacheStoreConfig(CacheConfig config, CacheImpl<?> cache) {
+        this.config = config;
+        this.cache = cache;
+    }
+
+    // keep decoded values in local memory in front of redis, changes are broadcast to other instances via redis pub/sub,
+    // only use for read heavy data, and cached value must not be modified
+    public void nearCache(int maxSize) {
+        config.nearCache(cache, maxSize);
+    }
+
+    // declare cached value is never modified after put or get, with local cache store, value is kept as object to skip json serialization,
+    // value type like String or Integer is always kept as object
+    public void immutable() {
+        config.immutable(cache);
+    }
+
+    // reload value by one caller before expiration with probability grows as expiration approaches, so hot key never fully misses,
+    // only applies when value is kept in local memory (local cache store or near cache), as expiration time is not fetched from redis,
+    // refresh runs in background thread, hit returns current value without waiting
+    public void earlyRefresh() {
+        config.earlyRefresh(cache);
+    }
+}
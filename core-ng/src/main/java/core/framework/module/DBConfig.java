@@ -9,6 +9,7 @@ import core.framework.impl.db.Vendor;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.impl.resource.PoolMetrics;
 import core.framework.util.Lists;
 import core.framework.util.Types;
@@ -46,7 +47,10 @@ public class DBConfig extends Config {
     private DatabaseImpl createDatabase() {
         var database = new DatabaseImpl("db" + (name == null ? "" : "-" + name));
         context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> database.close());
+        context.startupHook.add(StartupHook.STAGE_0, "db" + (name == null ? "" : "-" + name), database.pool::warmUp);
+        context.startupHook.add(StartupHook.STAGE_0, "db-row-mapper" + (name == null ? "" : "-" + name), database::buildRowMappers);
         context.backgroundTask().scheduleWithFixedDelay(database.pool::refresh, Duration.ofMinutes(10));
+        context.backgroundTask().scheduleWithFixedDelay(database.pool::maintain, Duration.ofSeconds(10));
         context.stat.metrics.add(new PoolMetrics(database.pool));
         context.beanFactory.bind(Database.class, name, database);
         return database;
@@ -90,6 +94,16 @@ public class DBConfig extends Config {
         database.pool.size(minSize, maxSize);
     }
 
+    // keep given number of idle connections ahead of demand, so traffic ramp up doesn't wait for new connection
+    public void poolSpareSize(int spareSize) {
+        database.pool.spareSize(spareSize);
+    }
+
+    // warn with stack trace of borrower if connection is not returned within threshold, e.g. transaction not closed, only enable to troubleshoot
+    public void leakDetectionThreshold(Duration threshold) {
+        database.pool.leakDetectionThreshold(threshold);
+    }
+
     public void isolationLevel(IsolationLevel level) {
         database.isolationLevel = level;
     }
@@ -106,6 +120,12 @@ public class DBConfig extends Config {
         database.operation.transactionManager.longTransactionThresholdInNanos = threshold.toNanos();
     }
 
+    // rows per round trip for db().forEach() and query.forEach(), mysql always streams row by row
+    public void fetchSize(int fetchSize) {
+        if (fetchSize <= 0) throw new Error("fetchSize must be greater than 0, fetchSize=" + fetchSize);
+        database.fetchSize = fetchSize;
+    }
+
     public void timeout(Duration timeout) {
         database.timeout(timeout);
     }
@@ -114,6 +134,25 @@ public class DBConfig extends Config {
         database.operation.batchSize = size;
     }
 
+    // flush batch once estimated size of params exceeds, to keep rewritten multi-row statement under server limit, e.g. mysql max_allowed_packet
+    public void batchMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) throw new Error(format("batch max bytes must be greater than 0, value={}", maxBytes));
+        database.operation.batchMaxBytes = maxBytes;
+    }
+
+    // cache prepared statements per connection, to skip parsing sql for repeated queries, size should be under db server limit of open statements per connection, e.g. oracle open_cursors
+    public void statementCacheSize(int size) {
+        if (size < 0) throw new Error(format("statement cache size must not be negative, value={}", size));
+        database.operation.statementCacheSize = size;
+    }
+
+    // split batchInsert/batchExecute larger than batch size into chunks executed by multiple connections, only applies outside transaction,
+    // each chunk is committed separately, so a failed chunk does not roll back others, wrap with transaction if batch must be atomic
+    public void batchParallelism(int parallelism) {
+        if (parallelism <= 0) throw new Error(format("batch parallelism must be greater than 0, value={}", parallelism));
+        database.batchParallelism(parallelism);
+    }
+
     public void view(Class<?> viewClass) {
         if (url == null) throw new Error(format("db url must be configured first, name={}", name));
         database.view(viewClass);
@@ -0,0 +1,33 @@
+package core.framework.module;
+
+import core.framework.impl.asm.DynamicInstanceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * build time entry to generate dynamic classes, app is only configured but not started, so no resource is initialized or shutdown,
+ * usage: "gradlew -Pcodegen=${appClass}", refer to gradle/app.gradle
+ *
+ * @author neo
+ */
+public final class DynamicClassGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynamicClassGenerator.class);
+
+    /**
+     * @param args app class name, generated classes are written to dir of system property core.framework.codegen.output
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        if (args.length != 1) throw new Error("app class must be specified, usage: DynamicClassGenerator ${appClass}");
+        String output = System.getProperty(DynamicInstanceBuilder.CODEGEN_OUTPUT_PROPERTY);
+        if (output == null) throw new Error("codegen output must be specified, property=" + DynamicInstanceBuilder.CODEGEN_OUTPUT_PROPERTY);
+
+        App app = (App) Class.forName(args[0]).getDeclaredConstructor().newInstance();
+        try {
+            app.configure();
+        } finally {
+            if (app.context != null) app.context.shutdownHook.cancel();
+        }
+        LOGGER.info("dynamic classes are generated, app={}, output={}", args[0], output);
+        System.exit(0);     // configured components may hold non daemon threads, and there is no shutdown hook to run
+    }
+}
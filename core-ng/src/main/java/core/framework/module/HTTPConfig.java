@@ -5,12 +5,14 @@ import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.web.HTTPIOHandler;
 import core.framework.impl.web.http.IPAccessControl;
+import core.framework.web.AsyncController;
 import core.framework.web.Controller;
 import core.framework.web.ErrorHandler;
 import core.framework.web.Interceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 import static core.framework.util.Strings.format;
@@ -32,6 +34,11 @@ public final class HTTPConfig extends Config {
         context.route(method, path, controller, false);
     }
 
+    public void routeAsync(HTTPMethod method, String path, AsyncController controller) {
+        if (HTTPIOHandler.HEALTH_CHECK_PATH.equals(path)) throw new Error("/health-check is reserved path");
+        context.route(method, path, controller);
+    }
+
     public void intercept(Interceptor interceptor) {
         context.httpServer.handler.interceptors.add(interceptor);
     }
@@ -77,6 +84,24 @@ public final class HTTPConfig extends Config {
         context.httpServer.handler.accessControl = new IPAccessControl(cidrs);
     }
 
+    /**
+     * Set max request body size and threshold to write body to temp file instead of heap, e.g. for bulk import,
+     * default is 10M max body and 1M threshold, use request.bodyStream() to read large body without loading whole body into heap
+     *
+     * @param maxSize        the max body size in bytes
+     * @param spillThreshold the body size in bytes to spill to temp file
+     */
+    public void maxBodySize(long maxSize, int spillThreshold) {
+        if (spillThreshold <= 0 || spillThreshold > maxSize) throw new Error(format("spillThreshold must be between 1 and maxSize, maxSize={}, spillThreshold={}", maxSize, spillThreshold));
+        context.httpServer.maxEntitySize = maxSize;
+        context.httpServer.bodySpillThreshold = spillThreshold;
+    }
+
+    // max time to wait for CompletionStage of async controller, response is rendered as error once exceeded, default is 5 minutes
+    public void maxProcessTime(Duration maxProcessTime) {
+        context.httpServer.handler.maxProcessTime = maxProcessTime;
+    }
+
     public void gzip() {
         context.httpServer.gzip = true;
     }
@@ -8,6 +8,7 @@ import core.framework.impl.kafka.MessagePublisherImpl;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.impl.web.management.KafkaController;
 import core.framework.kafka.BulkMessageHandler;
 import core.framework.kafka.MessageHandler;
@@ -17,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.function.Function;
 
 import static core.framework.util.Strings.format;
 
@@ -98,11 +100,19 @@ public class KafkaConfig extends Config {
         handlerAdded = true;
     }
 
+    // decode message with content type header, e.g. binary encoded log messages, message without content type header is json
+    public <T> void decoder(String topic, Class<T> messageClass, String contentType, Function<byte[], T> decoder) {
+        logger.info("add message decoder, topic={}, messageClass={}, contentType={}, name={}", topic, messageClass.getTypeName(), contentType, name);
+        listener().decoder(topic, messageClass, contentType, decoder);
+    }
+
     private MessageListener listener() {
         if (listener == null) {
             if (uri == null) throw new Error("kafka uri must be configured first, name=" + name);
             listener = new MessageListener(uri, name, context.logManager);
-            context.startupHook.add(listener::start);
+            String listenerName = "kafka-listener" + (name == null ? "" : "-" + name);
+            context.startupHook.add(StartupHook.STAGE_0, listenerName, listener::initialize);
+            context.startupHook.add(StartupHook.STAGE_2, listenerName, listener::start);
             context.shutdownHook.add(ShutdownHook.STAGE_0, timeout -> listener.shutdown());
             context.shutdownHook.add(ShutdownHook.STAGE_1, listener::awaitTermination);
             context.stat.metrics.add(listener.consumerMetrics);
@@ -114,6 +124,12 @@ public class KafkaConfig extends Config {
         listener().poolSize = poolSize;
     }
 
+    // process records by shared worker pool in parallel, records with same key are still processed in order
+    public void workerSize(int workerSize) {
+        if (workerSize <= 0) throw new Error(format("worker size must be greater than 0, value={}", workerSize));
+        listener().workerSize = workerSize;
+    }
+
     public void maxProcessTime(Duration maxProcessTime) {
         listener().maxProcessTime = maxProcessTime;
     }
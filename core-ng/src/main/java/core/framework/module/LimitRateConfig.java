@@ -3,6 +3,7 @@ package core.framework.module;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.web.http.LimitRateInterceptor;
+import core.framework.redis.Redis;
 
 import java.util.concurrent.TimeUnit;
 
@@ -30,4 +31,14 @@ public final class LimitRateConfig extends Config {
         interceptor.config(group, maxPermits, fillRate, unit);
         limitRateGroupAdded = true;
     }
+
+    /**
+     * Count permits in redis to limit rate across all instances, with fixed window of time to refill all permits.
+     * Request is allowed if redis is not available
+     *
+     * @param redis the redis to store counters
+     */
+    public void redis(Redis redis) {
+        interceptor.redis(redis);
+    }
 }
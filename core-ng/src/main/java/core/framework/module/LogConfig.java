@@ -1,8 +1,11 @@
 package core.framework.module;
 
 import core.framework.impl.module.Config;
+import core.framework.impl.log.ActionLogEncoder;
+import core.framework.impl.log.ActionLogEncoderMetrics;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.internal.log.CollectStatTask;
 import core.framework.internal.log.appender.ConsoleAppender;
 import core.framework.internal.log.appender.KafkaAppender;
@@ -30,9 +33,21 @@ public class LogConfig extends Config {
     public void appendToKafka(String kafkaURI) {
         var appender = new KafkaAppender(kafkaURI);
         appender(appender);
-        context.startupHook.add(appender::start);
+        context.startupHook.add(StartupHook.STAGE_1, "log-forwarder", appender::start);
         context.shutdownHook.add(ShutdownHook.STAGE_8, appender::stop);
         context.stat.metrics.add(appender.producerMetrics);
+
+        var encoder = new ActionLogEncoder(appender);
+        context.logManager.encoder = encoder;
+        context.startupHook.add(StartupHook.STAGE_1, "action-log-encoder", encoder::start);
+        context.shutdownHook.add(ShutdownHook.STAGE_7, encoder::stop);     // flush remaining action logs before stopping log forwarder
+        context.stat.metrics.add(new ActionLogEncoderMetrics(encoder));
+    }
+
+    // encode action log and stat messages in compact binary format, log-processor must support binary encoding
+    public void binaryEncoding() {
+        if (!(context.logManager.appender instanceof KafkaAppender)) throw new Error("binary encoding requires kafka appender, please call appendToKafka() first");
+        ((KafkaAppender) context.logManager.appender).binaryEncoding = true;
     }
 
     public void appender(LogAppender appender) {
@@ -4,6 +4,7 @@ import core.framework.async.Task;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,7 +30,7 @@ public abstract class Module {
     }
 
     public void onStartup(Task task) {
-        context.startupHook.add(task);
+        context.startupHook.add(StartupHook.STAGE_1, "onStartup", task);
     }
 
     public <T> T bind(Class<T> instanceClass) {
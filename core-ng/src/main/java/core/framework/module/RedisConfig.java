@@ -3,6 +3,7 @@ package core.framework.module;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.impl.redis.RedisImpl;
 import core.framework.impl.resource.PoolMetrics;
 import core.framework.redis.Redis;
@@ -32,7 +33,9 @@ public class RedisConfig extends Config {
     Redis createRedis() {
         var redis = new RedisImpl("redis");
         context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> redis.close());
+        context.startupHook.add(StartupHook.STAGE_0, "redis", redis.pool::warmUp);
         context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
+        context.backgroundTask().scheduleWithFixedDelay(redis.pool::maintain, Duration.ofSeconds(10));
         context.stat.metrics.add(new PoolMetrics(redis.pool));
         return redis;
     }
@@ -51,6 +54,11 @@ public class RedisConfig extends Config {
         ((RedisImpl) redis).pool.size(minSize, maxSize);
     }
 
+    // keep given number of idle connections ahead of demand, so traffic ramp up doesn't wait for new connection
+    public void poolSpareSize(int spareSize) {
+        ((RedisImpl) redis).pool.spareSize(spareSize);
+    }
+
     public void slowOperationThreshold(Duration threshold) {
         ((RedisImpl) redis).slowOperationThreshold(threshold);
     }
@@ -58,4 +66,10 @@ public class RedisConfig extends Config {
     public void timeout(Duration timeout) {
         ((RedisImpl) redis).timeout(timeout);
     }
+
+    // share given number of sockets among all callers, commands of different threads are interleaved and replies are matched in order,
+    // pool size then limits concurrent callers only, not sockets
+    public void multiplex(int connections) {
+        ((RedisImpl) redis).multiplex(connections);
+    }
 }
@@ -4,6 +4,7 @@ import core.framework.http.HTTPMethod;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.impl.scheduler.DailyTrigger;
 import core.framework.impl.scheduler.MonthlyTrigger;
 import core.framework.impl.scheduler.Scheduler;
@@ -28,7 +29,7 @@ public final class SchedulerConfig extends Config {
     @Override
     protected void initialize(ModuleContext context, String name) {
         scheduler = new Scheduler(context.logManager);
-        context.startupHook.add(scheduler::start);
+        context.startupHook.add(StartupHook.STAGE_2, "scheduler", scheduler::start);
         context.shutdownHook.add(ShutdownHook.STAGE_0, timeout -> scheduler.shutdown());
         context.shutdownHook.add(ShutdownHook.STAGE_1, scheduler::awaitTermination);
 
@@ -3,6 +3,7 @@ package core.framework.module;
 import core.framework.impl.module.Config;
 import core.framework.impl.module.ModuleContext;
 import core.framework.impl.module.ShutdownHook;
+import core.framework.impl.module.StartupHook;
 import core.framework.impl.redis.RedisImpl;
 import core.framework.impl.resource.PoolMetrics;
 import core.framework.impl.web.session.LocalSessionStore;
@@ -46,6 +47,7 @@ public class SessionConfig extends Config {
 
         var redis = new RedisImpl("redis-session");
         redis.host = host;
+        context.startupHook.add(StartupHook.STAGE_0, "redis-session", redis.pool::warmUp);
         context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
         context.stat.metrics.add(new PoolMetrics(redis.pool));
 
@@ -0,0 +1,31 @@
+package core.framework.redis;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * commands are sent together in one round trip on execute, values of returned suppliers are only available after execute
+ *
+ * @author neo
+ */
+public interface RedisPipeline {
+    Supplier<String> get(String key);
+
+    default void set(String key, String value) {
+        set(key, value, null);
+    }
+
+    void set(String key, String value, Duration expiration);
+
+    void expire(String key, Duration expiration);
+
+    void del(String... keys);
+
+    Supplier<Long> increaseBy(String key, long increment);
+
+    Supplier<String> hget(String key, String field);
+
+    void hset(String key, String field, String value);
+
+    void execute();
+}
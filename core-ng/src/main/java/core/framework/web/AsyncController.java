@@ -0,0 +1,14 @@
+package core.framework.web;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * controller returns without holding worker thread, request is resumed and response is rendered when stage completes,
+ * action log and web context are carried over to the thread which completes the stage
+ *
+ * @author neo
+ */
+@FunctionalInterface
+public interface AsyncController {
+    CompletionStage<Response> execute(Request request) throws Exception;
+}
@@ -2,6 +2,7 @@ package core.framework.web;
 
 import core.framework.http.HTTPMethod;
 
+import java.io.InputStream;
 import java.util.Map;
 import java.util.Optional;
 
@@ -29,7 +30,9 @@ public interface Request {
 
     Map<String, MultipartFile> files();
 
-    Optional<byte[]> body();
+    Optional<byte[]> body();    // throws error if body is larger than spill threshold, use bodyStream() instead
+
+    Optional<InputStream> bodyStream();     // read large body without loading into heap
 
     <T> T bean(Class<T> beanClass);
 
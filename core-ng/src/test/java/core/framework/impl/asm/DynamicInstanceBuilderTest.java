@@ -0,0 +1,67 @@
+package core.framework.impl.asm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class DynamicInstanceBuilderTest {
+    @Test
+    void build() {
+        Supplier<Object> supplier1 = builder("value").build();
+        Supplier<Object> supplier2 = builder("value").build();
+        Supplier<Object> supplier3 = builder("another").build();
+
+        assertThat(supplier1.get()).isEqualTo("value");
+        assertThat(supplier2.getClass()).isSameAs(supplier1.getClass());
+        assertThat(supplier3.get()).isEqualTo("another");
+        assertThat(supplier3.getClass()).isNotSameAs(supplier1.getClass());
+    }
+
+    @Test
+    void buildInParallel() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Class<?>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                String value = i % 2 == 0 ? "parallel1" : "parallel2";
+                futures.add(executor.submit(() -> builder(value).build().getClass()));
+            }
+            Set<Class<?>> classes = new HashSet<>();
+            for (Future<Class<?>> future : futures) {
+                classes.add(future.get());
+            }
+            assertThat(classes).hasSize(2);     // each source is only compiled once
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void className() {
+        var builder = builder("value");
+
+        assertThat(builder.className("prefix", "source"))
+                .isEqualTo(builder.className("prefix", "source"))
+                .startsWith("prefix$")
+                .isNotEqualTo(builder.className("prefix", "changed"));
+    }
+
+    private DynamicInstanceBuilder<Supplier<Object>> builder(String value) {
+        var builder = new DynamicInstanceBuilder<Supplier<Object>>(Supplier.class, DynamicInstanceBuilderTest.class.getCanonicalName() + "$Supplier");
+        builder.addMethod("public Object get() {\n    return \"" + value + "\";\n}");
+        return builder;
+    }
+}
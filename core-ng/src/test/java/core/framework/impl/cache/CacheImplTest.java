@@ -5,17 +5,27 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -98,4 +108,159 @@ class CacheImplTest {
 
         verify(cacheStore).delete("name:key1", "name:key2");
     }
+
+    @Test
+    void testGetWithNearCache() {
+        NearCacheInvalidator invalidator = mock(NearCacheInvalidator.class);
+        cache.nearCache(new LocalCacheStore(), invalidator);
+        when(cacheStore.get("name:key")).thenReturn(Strings.bytes("1"));
+
+        assertThat(cache.get("key", key -> null)).isEqualTo(1);
+        assertThat(cache.get("key", key -> null)).isEqualTo(1);
+
+        verify(cacheStore, times(1)).get("name:key");
+    }
+
+    @Test
+    void testGetAllWithNearCache() {
+        NearCacheInvalidator invalidator = mock(NearCacheInvalidator.class);
+        cache.nearCache(new LocalCacheStore(), invalidator);
+        cache.put("key1", 1);
+        when(cacheStore.getAll("name:key2")).thenReturn(Map.of("name:key2", Strings.bytes("2")));
+
+        Map<String, Integer> results = cache.getAll(Arrays.asList("key1", "key2"), key -> null);
+        assertThat(results).containsOnly(entry("key1", 1), entry("key2", 2));
+    }
+
+    @Test
+    void testGetWithNearCacheInvalidatedDuringRead() {
+        NearCacheInvalidator invalidator = mock(NearCacheInvalidator.class);
+        cache.nearCache(new LocalCacheStore(), invalidator);
+        when(cacheStore.get("name:key")).thenAnswer(invocation -> {
+            cache.invalidateNearCache(List.of("key"));      // other instance updated value after it was read
+            return Strings.bytes("1");
+        });
+
+        assertThat(cache.get("key", key -> null)).isEqualTo(1);
+        assertThat(cache.nearCache.size()).isZero();
+    }
+
+    @Test
+    void putWithNearCache() {
+        NearCacheInvalidator invalidator = mock(NearCacheInvalidator.class);
+        cache.nearCache(new LocalCacheStore(), invalidator);
+        cache.put("key", 1);
+
+        assertThat(cache.get("key", key -> null)).isEqualTo(1);
+        verify(invalidator).publish("name", List.of("key"));
+    }
+
+    @Test
+    void evictWithNearCache() {
+        NearCacheInvalidator invalidator = mock(NearCacheInvalidator.class);
+        cache.nearCache(new LocalCacheStore(), invalidator);
+        cache.put("key", 1);
+        cache.evict("key");
+
+        assertThat(cache.get("key", key -> 2)).isEqualTo(2);
+        verify(invalidator, times(2)).publish("name", List.of("key"));
+    }
+
+    @Test
+    void testGetWithObjectStore() {
+        var objectStore = new LocalCacheStore();
+        cache.objectStore(objectStore);
+
+        assertThat(cache.get("key", key -> 1)).isEqualTo(1);
+        assertThat(cache.get("key", key -> null)).isEqualTo(1);
+        assertThat(cache.get("key")).get().isEqualTo("1");
+        assertThat(objectStore.weight()).isEqualTo(1);
+
+        verifyZeroInteractions(cacheStore);
+    }
+
+    @Test
+    void putAndEvictWithObjectStore() {
+        cache.objectStore(new LocalCacheStore());
+        cache.putAll(Map.of("key1", 1, "key2", 2));
+
+        Map<String, Integer> results = cache.getAll(Arrays.asList("key1", "key2", "key3"), key -> 3);
+        assertThat(results).containsOnly(entry("key1", 1), entry("key2", 2), entry("key3", 3));
+
+        cache.evictAll(List.of("key1", "key2"));
+        assertThat(cache.get("key1")).isEmpty();
+
+        verifyZeroInteractions(cacheStore);
+    }
+
+    @Test
+    void coalesceLoad() throws Exception {
+        when(cacheStore.get("name:key")).thenReturn(null);
+        var loaderStarted = new CountDownLatch(1);
+        var loaderReleased = new CountDownLatch(1);
+        var loads = new AtomicInteger();
+        Function<String, Integer> loader = key -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            try {
+                loaderReleased.await();
+            } catch (InterruptedException e) {
+                throw new Error(e);
+            }
+            return 1;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> result1 = executor.submit(() -> cache.get("key", loader));
+            loaderStarted.await();
+            Future<Integer> result2 = executor.submit(() -> cache.get("key", loader));
+            while (cache.coalescedWaits.sum() == 0) {
+                Thread.sleep(10);
+            }
+            loaderReleased.countDown();
+
+            assertThat(result1.get()).isEqualTo(1);
+            assertThat(result2.get()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        verify(cacheStore, times(1)).put("name:key", Strings.bytes("1"), Duration.ofHours(1));
+    }
+
+    @Test
+    void loadWithError() {
+        when(cacheStore.get("name:key")).thenReturn(null);
+
+        assertThatThrownBy(() -> cache.get("key", key -> {
+            throw new IllegalStateException("failed to load");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("key", key -> 1)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefresh() {
+        assertThat(cache.shouldRefresh(1000, 999, 0.5)).isFalse();     // load time is 0 before any load
+
+        cache.earlyRefresh(1.0, Runnable::run);
+        assertThat(cache.shouldRefresh(1000, 1000, 0.5)).isTrue();
+        assertThat(cache.shouldRefresh(1000, 0, 0.5)).isFalse();
+    }
+
+    @Test
+    void earlyRefresh() {
+        cache.objectStore(new LocalCacheStore());
+        List<Runnable> refreshes = new ArrayList<>();
+        cache.earlyRefresh(Double.MAX_VALUE, refreshes::add);   // always refresh once load time is measured
+        cache.get("key", key -> 1);
+
+        assertThat(cache.get("key", key -> 2)).isEqualTo(1);    // return current value, and refresh in background
+        assertThat(cache.get("key", key -> 3)).isEqualTo(1);    // refresh is in flight, not to submit again
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.get(0).run();
+        assertThat(cache.get("key", key -> 3)).isEqualTo(2);
+    }
 }
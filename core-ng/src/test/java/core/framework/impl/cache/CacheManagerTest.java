@@ -0,0 +1,46 @@
+package core.framework.impl.cache;
+
+import core.framework.util.Types;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author neo
+ */
+class CacheManagerTest {
+    @Test
+    void addWithLocalCacheStore() {
+        var cacheManager = new CacheManager(new LocalCacheStore());
+
+        assertThat(cacheManager.add("string", String.class, Duration.ofHours(1)).objectStore).isNotNull();
+        CacheImpl<?> cache = cacheManager.add("list", Types.list(String.class), Duration.ofHours(1));
+        assertThat(cache.objectStore).isNull();
+
+        assertThat(cacheManager.keepObject(cache)).isTrue();
+        assertThat(cache.objectStore).isNotNull();
+    }
+
+    @Test
+    void addWithRedisCacheStore() {
+        var cacheManager = new CacheManager(mock(CacheStore.class));
+
+        CacheImpl<?> cache = cacheManager.add("string", String.class, Duration.ofHours(1));
+        assertThat(cache.objectStore).isNull();
+        assertThat(cacheManager.keepObject(cache)).isFalse();
+    }
+
+    @Test
+    void addDuplicateCache() {
+        var cacheManager = new CacheManager(new LocalCacheStore());
+        cacheManager.add("string", String.class, Duration.ofHours(1));
+
+        assertThatThrownBy(() -> cacheManager.add("string", String.class, Duration.ofHours(1)))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("duplicate cache name");
+    }
+}
@@ -0,0 +1,40 @@
+package core.framework.impl.cache;
+
+import core.framework.util.Maps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class CacheMetricsTest {
+    private CacheManager cacheManager;
+    private CacheMetrics metrics;
+
+    @BeforeEach
+    void createCacheMetrics() {
+        cacheManager = new CacheManager(new LocalCacheStore());
+        metrics = new CacheMetrics(cacheManager);
+    }
+
+    @Test
+    void collect() {
+        CacheImpl<String> cache = cacheManager.add("test", String.class, Duration.ofHours(1));
+        cache.get("key", key -> "value");
+        cache.coalescedWaits.increment();
+
+        Map<String, Double> stats = Maps.newHashMap();
+        metrics.collect(stats);
+        assertThat(stats).containsEntry("cache_test_load_count", 1d)
+                .containsEntry("cache_test_coalesced_wait_count", 1d)
+                .doesNotContainKey("cache_test_early_refresh_count");
+
+        metrics.collect(stats);
+        assertThat(stats).containsEntry("cache_test_load_count", 0d);
+    }
+}
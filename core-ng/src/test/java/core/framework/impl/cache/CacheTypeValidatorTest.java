@@ -8,6 +8,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * @author neo
  */
@@ -27,6 +29,13 @@ class CacheTypeValidatorTest {
         new CacheTypeValidator(String.class).validate();
     }
 
+    @Test
+    void immutable() {
+        assertThat(new CacheTypeValidator(String.class).immutable()).isTrue();
+        assertThat(new CacheTypeValidator(CacheItem.class).immutable()).isFalse();
+        assertThat(new CacheTypeValidator(Types.list(String.class)).immutable()).isFalse();
+    }
+
     public static class CacheItem {
         public LocalDateTime dateTimeField;
 
@@ -0,0 +1,47 @@
+package core.framework.impl.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class FrequencySketchTest {
+    private FrequencySketch sketch;
+
+    @BeforeEach
+    void createFrequencySketch() {
+        sketch = new FrequencySketch(512);
+    }
+
+    @Test
+    void increment() {
+        int hash = "key".hashCode();
+        assertThat(sketch.frequency(hash)).isEqualTo(0);
+
+        sketch.increment(hash);
+        sketch.increment(hash);
+        assertThat(sketch.frequency(hash)).isEqualTo(2);
+    }
+
+    @Test
+    void incrementToMax() {
+        int hash = "key".hashCode();
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(hash);
+        }
+        assertThat(sketch.frequency(hash)).isEqualTo(15);
+    }
+
+    @Test
+    void reset() {
+        int hash = "key".hashCode();
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(hash);
+        }
+        sketch.reset();
+        assertThat(sketch.frequency(hash)).isEqualTo(5);
+    }
+}
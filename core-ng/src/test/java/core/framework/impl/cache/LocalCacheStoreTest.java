@@ -38,6 +38,13 @@ class LocalCacheStoreTest {
         assertArrayEquals(value, retrievedValue);
     }
 
+    @Test
+    void readObjectValueAsBytes() {
+        cacheStore.putObject("key1", "value", 5, Duration.ofMinutes(1));
+
+        assertNull(cacheStore.get("key1"));
+    }
+
     @Test
     void testGetWithExpiredKey() {
         byte[] value = Strings.bytes("value");
@@ -56,6 +63,16 @@ class LocalCacheStoreTest {
         assertEquals(1, cacheStore.caches.size());
     }
 
+    @Test
+    void unboundedByDefault() {
+        for (int i = 0; i < 20000; i++) {
+            cacheStore.put("key" + i, Strings.bytes("value"), Duration.ofMinutes(1));
+        }
+
+        assertEquals(20000, cacheStore.size());
+        assertEquals(0, cacheStore.evictions());
+    }
+
     @Test
     void putAll() {
         var values = Map.of("key1", Strings.bytes("1"),
@@ -65,6 +82,63 @@ class LocalCacheStoreTest {
         assertEquals(2, cacheStore.caches.size());
     }
 
+    @Test
+    void evictBySize() {
+        cacheStore.maxSize(10, Long.MAX_VALUE);
+        for (int i = 0; i < 20; i++) {
+            cacheStore.put("key" + i, Strings.bytes("value"), Duration.ofMinutes(1));
+        }
+
+        assertEquals(10, cacheStore.size());
+        assertEquals(10, cacheStore.caches.size());
+        assertEquals(10, cacheStore.evictions());
+    }
+
+    @Test
+    void evictByWeight() {
+        cacheStore.maxSize(10, 10);
+        cacheStore.put("key1", new byte[6], Duration.ofMinutes(1));
+        cacheStore.put("key2", new byte[6], Duration.ofMinutes(1));
+
+        assertEquals(1, cacheStore.size());
+        assertEquals(6, cacheStore.weight());
+    }
+
+    @Test
+    void putValueExceedsMaxWeight() {
+        cacheStore.maxSize(10, 10);
+        cacheStore.put("key1", new byte[5], Duration.ofMinutes(1));
+        cacheStore.put("key1", new byte[11], Duration.ofMinutes(1));
+
+        assertNull(cacheStore.get("key1"));
+        assertEquals(0, cacheStore.weight());
+    }
+
+    @Test
+    void keepFrequentlyAccessedKey() {
+        cacheStore.maxSize(10, Long.MAX_VALUE);
+        cacheStore.put("hot", Strings.bytes("value"), Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            cacheStore.get("hot");
+        }
+        for (int i = 0; i < 100; i++) {
+            cacheStore.put("key" + i, Strings.bytes("value"), Duration.ofMinutes(1));
+        }
+
+        assertArrayEquals(Strings.bytes("value"), cacheStore.get("hot"));
+    }
+
+    @Test
+    void stats() {
+        cacheStore.put("key1", Strings.bytes("value"), Duration.ofMinutes(1));
+        cacheStore.get("key1");
+        cacheStore.get("key2");
+
+        assertEquals(1, cacheStore.hits());
+        assertEquals(1, cacheStore.misses());
+        assertEquals(5, cacheStore.weight());
+    }
+
     @Test
     void delete() {
         cacheStore.put("key1", Strings.bytes("value"), Duration.ofMinutes(1));
@@ -0,0 +1,59 @@
+package core.framework.impl.cache;
+
+import core.framework.internal.json.JSONMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author neo
+ */
+class NearCacheInvalidatorTest {
+    private NearCacheInvalidator invalidator;
+    private CacheImpl<Integer> cache;
+    private JSONMapper<InvalidateNearCacheMessage> mapper;
+
+    @BeforeEach
+    void createNearCacheInvalidator() {
+        var cacheManager = new CacheManager(mock(CacheStore.class));
+        invalidator = new NearCacheInvalidator(null, cacheManager);
+        cache = cacheManager.add("name", Integer.class, Duration.ofHours(1));
+        cache.nearCache(new LocalCacheStore(), invalidator);
+        cache.nearCache.putObject("name:key", 1, 1, Duration.ofHours(1));
+        mapper = new JSONMapper<>(InvalidateNearCacheMessage.class);
+    }
+
+    @Test
+    void onMessage() {
+        invalidator.onMessage(mapper.toJSON(message("other", "key")));
+
+        assertThat(cache.nearCache.getObject("name:key")).isNull();
+    }
+
+    @Test
+    void onMessageFromSelf() {
+        invalidator.onMessage(mapper.toJSON(message(invalidator.sender, "key")));
+
+        assertThat(cache.nearCache.getObject("name:key")).isEqualTo(1);
+    }
+
+    @Test
+    void onSubscribe() {
+        invalidator.onSubscribe();
+
+        assertThat(cache.nearCache.getObject("name:key")).isNull();
+    }
+
+    private InvalidateNearCacheMessage message(String sender, String key) {
+        var message = new InvalidateNearCacheMessage();
+        message.sender = sender;
+        message.cache = "name";
+        message.keys = List.of(key);
+        return message;
+    }
+}
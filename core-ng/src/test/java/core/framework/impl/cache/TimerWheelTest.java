@@ -0,0 +1,72 @@
+package core.framework.impl.cache;
+
+import core.framework.util.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class TimerWheelTest {
+    private TimerWheel timerWheel;
+    private List<String> expiredKeys;
+
+    @BeforeEach
+    void createTimerWheel() {
+        timerWheel = new TimerWheel(0);
+        expiredKeys = Lists.newArrayList();
+    }
+
+    @Test
+    void advance() {
+        timerWheel.schedule(item("key1", 500));
+        timerWheel.schedule(item("key2", 30_000));
+        timerWheel.schedule(item("key3", 3_600_000));
+        timerWheel.schedule(item("key4", 86_400_000 * 10L));
+
+        advanceTo(2000);
+        assertThat(expiredKeys).containsExactly("key1");
+
+        advanceTo(60_000);
+        assertThat(expiredKeys).containsExactly("key1", "key2");
+
+        advanceTo(3_700_000);
+        assertThat(expiredKeys).containsExactly("key1", "key2", "key3");
+
+        advanceTo(86_400_000 * 11L);
+        assertThat(expiredKeys).containsExactly("key1", "key2", "key3", "key4");
+    }
+
+    @Test
+    void cascade() {
+        timerWheel.schedule(item("key1", 3_600_000));
+
+        advanceTo(3_590_000);
+        assertThat(expiredKeys).isEmpty();
+
+        advanceTo(3_602_000);
+        assertThat(expiredKeys).containsExactly("key1");
+    }
+
+    @Test
+    void deschedule() {
+        LocalCacheStore.CacheItem item = item("key1", 500);
+        timerWheel.schedule(item);
+        timerWheel.deschedule(item);
+
+        advanceTo(2000);
+        assertThat(expiredKeys).isEmpty();
+    }
+
+    private void advanceTo(long now) {
+        timerWheel.advance(now, item -> expiredKeys.add(item.key));
+    }
+
+    private LocalCacheStore.CacheItem item(String key, long expirationTime) {
+        return new LocalCacheStore.CacheItem(key, new byte[0], 0, expirationTime);
+    }
+}
@@ -0,0 +1,67 @@
+package core.framework.impl.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+class ColumnIndexCacheTest {
+    private ColumnIndexCache cache;
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void createColumnIndexCache() throws SQLException {
+        cache = new ColumnIndexCache();
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(meta.getColumnCount()).thenReturn(2);
+        when(meta.getColumnLabel(1)).thenReturn("STRING_FIELD");
+        when(meta.getColumnLabel(2)).thenReturn("id");
+        resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(meta);
+    }
+
+    @Test
+    void columnIndexes() throws SQLException {
+        RowMapper<Object> mapper = new TestRowMapper();
+
+        int[] indexes = cache.columnIndexes("sql", mapper, resultSet);
+        assertThat(indexes).containsExactly(2, 1, 0);
+
+        assertThat(cache.columnIndexes("sql", mapper, resultSet)).isSameAs(indexes);
+        verify(resultSet, times(1)).getMetaData();
+    }
+
+    @Test
+    void columnIndexesWithDifferentMapper() throws SQLException {
+        RowMapper<Object> mapper = new TestRowMapper();
+        int[] indexes = cache.columnIndexes("sql", mapper, resultSet);
+
+        assertThat(cache.columnIndexes("sql", new RowMapper.StringRowMapper(), resultSet)).isNull();
+        assertThat(cache.columnIndexes("sql", new TestRowMapper(), resultSet)).isNotSameAs(indexes).containsExactly(2, 1, 0);
+        assertThat(cache.columnIndexes("sql", mapper, resultSet)).isSameAs(indexes);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    static class TestRowMapper implements RowMapper<Object> {
+        @Override
+        public Object map(ResultSetWrapper resultSet) {
+            return null;
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[]{"id", "string_field", "not_existed_field"};
+        }
+    }
+}
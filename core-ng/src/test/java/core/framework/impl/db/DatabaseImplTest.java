@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -66,6 +67,57 @@ class DatabaseImplTest {
         assertThat(views.get(1).enumField).isEqualTo(TestEnum.V2);
     }
 
+    @Test
+    void selectWithPrebuiltRowMapper() {
+        database.buildRowMappers();
+        insertRow(1, "string1", TestEnum.V1);
+
+        List<EntityView> views = database.select("SELECT string_field as string_label, enum_field as enum_label FROM database_test", EntityView.class);
+
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).enumField).isEqualTo(TestEnum.V1);
+    }
+
+    @Test
+    void registerView() {
+        assertThatThrownBy(() -> database.view(EntityView.class))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("found duplicate view class");
+
+        assertThatThrownBy(() -> database.select("SELECT 1", DatabaseImplTest.class))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("view class is not registered");
+    }
+
+    @Test
+    void forEachWithView() {
+        insertRow(1, "string1", TestEnum.V1);
+        insertRow(2, "string2", TestEnum.V2);
+
+        List<String> values = new ArrayList<>();
+        database.forEach("SELECT string_field as string_label, enum_field as enum_label FROM database_test ORDER BY id", EntityView.class, view -> values.add(view.stringField));
+
+        assertThat(values).containsExactly("string1", "string2");
+    }
+
+    @Test
+    void streamingFetchSize() {
+        assertThat(database.streamingFetchSize()).isEqualTo(database.fetchSize);
+
+        database.vendor = Vendor.MYSQL;
+        try {
+            assertThat(database.streamingFetchSize()).isEqualTo(database.fetchSize);    // mysql dialect on hsqldb
+            database.vendorDriver = true;
+            assertThat(database.streamingFetchSize()).isEqualTo(Integer.MIN_VALUE);
+        } finally {
+            database.vendor = null;
+            database.vendorDriver = false;
+        }
+
+        assertThat(Vendor.MYSQL.streamingFetchSize(100)).isEqualTo(Integer.MIN_VALUE);
+        assertThat(Vendor.ORACLE.streamingFetchSize(100)).isEqualTo(100);
+    }
+
     @Test
     void selectEmptyWithView() {
         List<EntityView> views = database.select("SELECT string_field as string_label, enum_field as enum_label FROM database_test where id = -1", EntityView.class);
@@ -131,6 +183,59 @@ class DatabaseImplTest {
         assertThat(results).containsExactly(1, 1);
     }
 
+    @Test
+    void batchExecuteWithMaxBytes() {
+        database.operation.batchMaxBytes = 20;  // flush every 2 rows
+        try {
+            List<Object[]> params = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                params.add(new Object[]{i, "string"});
+            }
+            int[] results = database.batchExecute("INSERT INTO database_test (id, string_field) VALUES (?, ?)", params);
+
+            assertThat(results).containsExactly(1, 1, 1, 1, 1);
+        } finally {
+            database.operation.batchMaxBytes = 2 * 1024 * 1024;
+        }
+    }
+
+    @Test
+    void batchExecuteInParallel() {
+        database.operation.batchSize = 2;
+        database.batchParallelism(3);
+        try {
+            List<Object[]> params = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                params.add(new Object[]{i, "string" + i});
+            }
+            int[] results = database.batchExecute("INSERT INTO database_test (id, string_field) VALUES (?, ?)", params);
+
+            assertThat(results).containsExactly(1, 1, 1, 1, 1, 1, 1);
+            assertThat(database.selectOne("SELECT count(id) FROM database_test", Integer.class)).get().isEqualTo(7);
+        } finally {
+            database.operation.batchSize = 1000;
+            database.batchParallelism(1);
+        }
+    }
+
+    @Test
+    void selectWithStatementCache() {
+        database.operation.statementCacheSize = 10;
+        try {
+            insertRow(1, "string1", TestEnum.V1);
+            long hits = database.pool.cacheHits.sum();
+
+            for (int i = 0; i < 2; i++) {
+                Optional<EntityView> view = database.selectOne("SELECT string_field as string_label, enum_field as enum_label FROM database_test where id = ?", EntityView.class, 1);
+                assertThat(view).get().satisfies(result -> assertThat(result.stringField).isEqualTo("string1"));
+            }
+
+            assertThat(database.pool.cacheHits.sum() - hits).isGreaterThanOrEqualTo(1);
+        } finally {
+            database.operation.statementCacheSize = 0;
+        }
+    }
+
     @Test
     void rollbackTransaction() {
         try (Transaction transaction = database.beginTransaction()) {
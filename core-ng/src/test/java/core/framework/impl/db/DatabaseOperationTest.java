@@ -0,0 +1,25 @@
+package core.framework.impl.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class DatabaseOperationTest {
+    private DatabaseOperation operation;
+
+    @BeforeEach
+    void createDatabaseOperation() {
+        operation = new DatabaseOperation(null);
+    }
+
+    @Test
+    void estimatedBytes() {
+        assertThat(operation.estimatedBytes("value", 1)).isEqualTo(7 + 8);
+        assertThat(operation.estimatedBytes("é中")).isEqualTo(2 + 3 + 2);    // utf-8 encoded length
+        assertThat(operation.estimatedBytes(new Object[]{new byte[100]})).isEqualTo(102);
+    }
+}
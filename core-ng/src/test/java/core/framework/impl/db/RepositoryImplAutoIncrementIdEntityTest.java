@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalLong;
 
@@ -118,4 +119,21 @@ class RepositoryImplAutoIncrementIdEntityTest {
         int count = repository.count("enum_field = ?", TestEnum.V1);
         assertThat(count).isEqualTo(1);
     }
+
+    @Test
+    void forEach() {
+        var entity = new AutoIncrementIdEntity();
+        entity.stringField = "string1";
+        repository.insert(entity);
+
+        Query<AutoIncrementIdEntity> query = repository.select();
+        query.where("string_field = ?", "string1");
+        List<AutoIncrementIdEntity> entities = new ArrayList<>();
+        query.forEach(entities::add);
+        assertThat(entities).hasSize(1);
+
+        query.limit(0);
+        query.forEach(entities::add);
+        assertThat(entities).hasSize(1);
+    }
 }
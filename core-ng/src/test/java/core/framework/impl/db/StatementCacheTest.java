@@ -0,0 +1,62 @@
+package core.framework.impl.db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author neo
+ */
+class StatementCacheTest {
+    private StatementCache cache;
+
+    @BeforeEach
+    void createStatementCache() {
+        cache = new StatementCache(2);
+    }
+
+    @Test
+    void get() {
+        var statement1 = mock(PreparedStatement.class);
+        var statement2 = mock(PreparedStatement.class);
+        cache.put("sql", null, statement1);
+        cache.put("sql", "id", statement2);
+
+        assertThat(cache.get("sql", null)).isSameAs(statement1);
+        assertThat(cache.get("sql", "id")).isSameAs(statement2);
+        assertThat(cache.get("sql", "other")).isNull();
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() throws SQLException {
+        var statement1 = mock(PreparedStatement.class);
+        var statement2 = mock(PreparedStatement.class);
+        var statement3 = mock(PreparedStatement.class);
+        cache.put("sql1", null, statement1);
+        cache.put("sql2", null, statement2);
+        cache.get("sql1", null);
+        cache.put("sql3", null, statement3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("sql2", null)).isNull();
+        verify(statement2).close();
+        verify(statement1, never()).close();
+    }
+
+    @Test
+    void close() throws SQLException {
+        var statement = mock(PreparedStatement.class);
+        cache.put("sql", null, statement);
+        cache.close();
+
+        assertThat(cache.size()).isZero();
+        verify(statement).close();
+    }
+}
@@ -1,18 +1,37 @@
 package core.framework.impl.kafka;
 
+import core.framework.impl.async.ThreadPools;
 import core.framework.impl.log.ActionLog;
-import core.framework.internal.json.JSONMapper;
+import core.framework.impl.log.LogManager;
+import core.framework.internal.log.message.LogMessageCodec;
+import core.framework.internal.log.message.StatMessage;
 import core.framework.kafka.Message;
+import core.framework.kafka.MessageHandler;
 import core.framework.util.Strings;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author neo
@@ -31,6 +50,12 @@ class MessageListenerThreadTest {
         assertThat(thread.longProcessThreshold(Duration.ofNanos(500).toNanos(), 1, 1)).isEqualTo(500);
     }
 
+    @Test
+    void lane() {
+        assertThat(thread.lane(Strings.bytes("key"), 4)).isEqualTo(thread.lane(Strings.bytes("key"), 4)).isBetween(0, 3);
+        assertThat(thread.lane(null, 4)).isZero();
+    }
+
     @Test
     void header() {
         var headers = new RecordHeaders();
@@ -46,7 +71,7 @@ class MessageListenerThreadTest {
         record.headers().add(MessageHeaders.HEADER_REF_ID, Strings.bytes("refId"));
         record.headers().add(MessageHeaders.HEADER_CORRELATION_ID, Strings.bytes("correlationId"));
         var actionLog = new ActionLog(null);
-        List<Message<TestMessage>> messages = thread.messages(List.of(record), actionLog, new JSONMapper<>(TestMessage.class));
+        List<Message<TestMessage>> messages = thread.messages(List.of(record), actionLog, new MessageProcess<>(null, null, TestMessage.class));
 
         assertThat(messages).hasSize(1);
         assertThat(messages.get(0).key).isEqualTo("key");
@@ -54,4 +79,88 @@ class MessageListenerThreadTest {
         assertThat(actionLog.refIds).containsExactly("refId");
         assertThat(actionLog.correlationIds).containsExactly("correlationId");
     }
+
+    @Test
+    void messagesWithBinaryEncoding() {
+        var message = new StatMessage();
+        message.id = "id";
+        message.stats = Map.of("cpu_usage", 0.5);
+        ConsumerRecord<byte[], byte[]> record = new ConsumerRecord<>("topic", 0, 1, Strings.bytes("key"), new LogMessageCodec().encode(message));
+        record.headers().add(MessageHeaders.HEADER_CONTENT_TYPE, Strings.bytes(LogMessageCodec.CONTENT_TYPE));
+        var process = new MessageProcess<>(null, null, StatMessage.class);
+        assertThatThrownBy(() -> thread.messages(List.of(record), new ActionLog(null), process))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("unsupported content type");
+
+        process.decoders.put(LogMessageCodec.CONTENT_TYPE, new LogMessageCodec()::decodeStat);
+        List<Message<StatMessage>> messages = thread.messages(List.of(record), new ActionLog(null), process);
+
+        assertThat(messages.get(0).value.stats).containsEntry("cpu_usage", 0.5);
+    }
+
+    @Test
+    void processRecordsInLanes() {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        MessageListener listener = laneListener((key, message) -> handled.add(key + ":" + message.stringField));
+        Consumer<byte[], byte[]> consumer = consumer();
+        var thread = new MessageListenerThread("listener-thread-1", consumer, listener);
+        var partition = new TopicPartition("topic", 0);
+        try {
+            thread.processRecords(new ConsumerRecords<>(Map.of(partition, List.of(record(0, "key1", "v1"), record(1, "key2", "v2"), record(2, "key1", "v3")))));
+        } finally {
+            listener.workers.shutdown();
+        }
+
+        assertThat(handled).containsExactlyInAnyOrder("key1:v1", "key2:v2", "key1:v3");
+        assertThat(handled.indexOf("key1:v1")).isLessThan(handled.indexOf("key1:v3"));    // same key is handled in order
+        verify(consumer).commitAsync(Map.of(partition, new OffsetAndMetadata(3)), null);
+        verify(consumer, never()).seek(any(TopicPartition.class), anyLong());
+    }
+
+    @Test
+    void processRecordsInLanesWithInterruption() {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        MessageListener listener = laneListener((key, message) -> {
+            Thread.sleep(100);
+            handled.add(message.stringField);
+        });
+        Consumer<byte[], byte[]> consumer = consumer();
+        var thread = new MessageListenerThread("listener-thread-1", consumer, listener);
+        var partition = new TopicPartition("topic", 0);
+        try {
+            Thread.currentThread().interrupt();     // interrupted while waiting for lanes
+            thread.processRecords(new ConsumerRecords<>(Map.of(partition, List.of(record(0, "key", "v1"), record(1, "key", "v2"), record(2, "key", "v3")))));
+            assertThat(Thread.interrupted()).isTrue();  // interrupt status is restored, and cleared here
+        } finally {
+            listener.workers.shutdown();
+        }
+
+        // commit happens after lane stopped, so committed offset must match handled records, rest will be redelivered
+        int processed = handled.size();
+        assertThat(processed).isLessThan(3);
+        if (processed > 0) {
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Map<TopicPartition, OffsetAndMetadata>> offsets = ArgumentCaptor.forClass(Map.class);
+            verify(consumer).commitAsync(offsets.capture(), isNull());
+            assertThat(offsets.getValue().get(partition).offset()).isEqualTo(processed);
+        }
+        verify(consumer).seek(partition, processed);
+    }
+
+    private MessageListener laneListener(MessageHandler<TestMessage> handler) {
+        var listener = new MessageListener(null, null, new LogManager());
+        listener.subscribe("topic", TestMessage.class, handler, null);
+        listener.workerSize = 2;
+        listener.workers = ThreadPools.cachedThreadPool(listener.workerSize, "kafka-worker-");
+        return listener;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<byte[], byte[]> consumer() {
+        return mock(Consumer.class);
+    }
+
+    private ConsumerRecord<byte[], byte[]> record(long offset, String key, String value) {
+        return new ConsumerRecord<>("topic", 0, offset, Strings.bytes(key), Strings.bytes("{\"string_field\":\"" + value + "\"}"));
+    }
 }
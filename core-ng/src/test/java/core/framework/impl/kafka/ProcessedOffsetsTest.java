@@ -0,0 +1,55 @@
+package core.framework.impl.kafka;
+
+import core.framework.util.Strings;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class ProcessedOffsetsTest {
+    private final TopicPartition partition0 = new TopicPartition("topic", 0);
+    private final TopicPartition partition1 = new TopicPartition("topic", 1);
+    private ProcessedOffsets offsets;
+    private List<ConsumerRecord<byte[], byte[]>> records0;
+    private List<ConsumerRecord<byte[], byte[]>> records1;
+
+    @BeforeEach
+    void createProcessedOffsets() {
+        records0 = List.of(record(0, 10), record(0, 11), record(0, 13));
+        records1 = List.of(record(1, 20), record(1, 21));
+        offsets = new ProcessedOffsets(new ConsumerRecords<>(Map.of(partition0, records0, partition1, records1)));
+    }
+
+    @Test
+    void allProcessed() {
+        records0.forEach(offsets::processed);
+        records1.forEach(offsets::processed);
+
+        assertThat(offsets.commitOffsets()).containsOnly(Map.entry(partition0, new OffsetAndMetadata(14)), Map.entry(partition1, new OffsetAndMetadata(22)));
+        assertThat(offsets.unprocessedOffsets()).isEmpty();
+    }
+
+    @Test
+    void partiallyProcessed() {
+        offsets.processed(records0.get(0));
+        offsets.processed(records0.get(2));
+        offsets.processed(records1.get(1));
+
+        assertThat(offsets.commitOffsets()).containsOnly(Map.entry(partition0, new OffsetAndMetadata(11)));
+        assertThat(offsets.unprocessedOffsets()).containsOnly(Map.entry(partition0, 11L), Map.entry(partition1, 20L));
+    }
+
+    private ConsumerRecord<byte[], byte[]> record(int partition, long offset) {
+        return new ConsumerRecord<>("topic", partition, offset, Strings.bytes("key"), Strings.bytes("{}"));
+    }
+}
@@ -0,0 +1,88 @@
+package core.framework.impl.log;
+
+import core.framework.internal.log.appender.LogAppender;
+import core.framework.internal.log.message.ActionLogMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * @author neo
+ */
+class ActionLogEncoderTest {
+    private ActionLogEncoder encoder;
+    private LogAppender appender;
+
+    @BeforeEach
+    void createActionLogEncoder() {
+        appender = mock(LogAppender.class);
+        encoder = new ActionLogEncoder(appender);
+    }
+
+    @Test
+    void submit() throws InterruptedException {
+        ActionLog log = actionLog();
+        encoder.submit(log);
+        assertThat(encoder.queueSize()).isEqualTo(1);
+        verifyZeroInteractions(appender);
+
+        encoder.start();
+        encoder.stop(-1);      // stop flushes remaining logs
+
+        verify(appender).append(argThat((ActionLogMessage message) -> log.id.equals(message.id)));
+        assertThat(encoder.queueSize()).isZero();
+        assertThat(encoder.encodedCount.sum()).isEqualTo(1);
+        assertThat(encoder.inlineCount.sum()).isZero();
+    }
+
+    @Test
+    void submitToParkedEncoder() throws InterruptedException {
+        encoder.start();
+        ActionLog log = actionLog();
+        encoder.submit(log);
+
+        verify(appender, timeout(1000)).append(argThat((ActionLogMessage message) -> log.id.equals(message.id)));
+        encoder.stop(-1);
+    }
+
+    @Test
+    void renderTraceLogOnSubmit() throws InterruptedException {
+        var log = new ActionLog("begin");
+        log.trace = true;
+        var argument = new StringBuilder("value1");
+        log.process("logger", null, LogLevel.DEBUG, "argument={}", new Object[]{argument}, null);
+        log.end("end");
+        encoder.submit(log);
+        argument.setLength(0);
+        argument.append("value2");      // request thread reuses argument after action ended
+
+        encoder.start();
+        encoder.stop(-1);
+
+        verify(appender).append(argThat((ActionLogMessage message) -> message.traceLog.contains("argument=value1")));
+    }
+
+    @Test
+    void submitAfterStop() throws InterruptedException {
+        encoder.start();
+        encoder.stop(-1);
+
+        ActionLog log = actionLog();
+        encoder.submit(log);
+
+        verify(appender).append(argThat((ActionLogMessage message) -> log.id.equals(message.id)));
+        assertThat(encoder.inlineCount.sum()).isEqualTo(1);
+    }
+
+    private ActionLog actionLog() {
+        var log = new ActionLog("begin");
+        log.end("end");
+        return log;
+    }
+}
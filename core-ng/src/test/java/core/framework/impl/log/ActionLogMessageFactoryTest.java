@@ -23,7 +23,7 @@ class ActionLogMessageFactoryTest {
     void actionLog() {
         var log = new ActionLog("begin");
         log.action("action");
-        log.process(new LogEvent("logger", Markers.errorCode("ERROR_CODE"), LogLevel.WARN, "message", null, null));
+        log.process("logger", Markers.errorCode("ERROR_CODE"), LogLevel.WARN, "message", null, null);
         log.track("db", 1000, 1, 2);
 
         ActionLogMessage message = factory.create(log);
@@ -4,6 +4,8 @@ import core.framework.internal.log.message.PerformanceStat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -45,7 +47,7 @@ class ActionLogTest {
 
     @Test
     void flushTraceLogWithWarning() {
-        log.process(new LogEvent("logger", null, LogLevel.WARN, null, null, null));
+        log.process("logger", null, LogLevel.WARN, null, null, null);
 
         assertTrue(log.flushTraceLog());
     }
@@ -54,7 +56,7 @@ class ActionLogTest {
     void result() {
         assertEquals("OK", log.result());
 
-        log.process(new LogEvent("logger", null, LogLevel.WARN, null, null, null));
+        log.process("logger", null, LogLevel.WARN, null, null, null);
         assertEquals("WARN", log.result());
     }
 
@@ -62,17 +64,50 @@ class ActionLogTest {
     void errorCode() {
         assertNull(log.errorCode());
 
-        log.process(new LogEvent("logger", null, LogLevel.WARN, null, null, null));
+        log.process("logger", null, LogLevel.WARN, null, null, null);
         assertEquals("UNASSIGNED", log.errorCode());
     }
 
     @Test
     void truncateErrorMessage() {
-        log.process(new LogEvent("logger", null, LogLevel.WARN, longString(300), null, null));
+        log.process("logger", null, LogLevel.WARN, longString(300), null, null);
 
         assertEquals(200, log.errorMessage.length());
     }
 
+    @Test
+    void traceEvents() {
+        log.process("logger", null, LogLevel.DEBUG, "message-{}", new Object[]{1}, null);
+        log.process("logger", null, LogLevel.WARN, "warning", null, null);
+        log.end("end");
+
+        List<LogEvent> events = log.traceEvents();
+        assertThat(events).hasSize(8);
+        assertThat(events.get(0).message()).isEqualTo("begin");
+        assertThat(events.get(3).message()).startsWith("thread=");
+        assertThat(events.get(4).message()).isEqualTo("message-1");
+        assertThat(events.get(7).message()).isEqualTo("end");
+    }
+
+    @Test
+    void suspendAndResume() {
+        log.process("logger", null, LogLevel.DEBUG, "message", null, null);
+        log.suspend();
+        log.resume();
+        log.end("end");
+
+        assertThat(log.cpuTime).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void releaseEventsWithoutTrace() {
+        log.process("logger", null, LogLevel.DEBUG, "message", null, null);
+        log.end("end");
+
+        assertThat(log.events.size()).isZero();
+        assertThat(log.context("key")).isEmpty();
+    }
+
     @Test
     void stat() {
         log.stat("stat", 1);
@@ -0,0 +1,51 @@
+package core.framework.impl.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class LogEventArenaTest {
+    @Test
+    void add() {
+        var arena = new LogEventArena();
+        for (int i = 0; i < 100; i++) {
+            arena.add(i).update("logger", null, LogLevel.DEBUG, "message-{}", new Object[]{i}, null);
+        }
+        assertThat(arena.size()).isEqualTo(100);
+        assertThat(arena.get(99).message()).isEqualTo("message-99");
+
+        LogEvent event = arena.get(0);
+        arena.release();
+        assertThat(arena.size()).isZero();
+        assertThat(event.message()).isNull();
+
+        assertThat(arena.add(0)).isSameAs(event);
+    }
+
+    @Test
+    void acquire() throws InterruptedException {
+        var arenas = new AtomicReference<LogEventArena[]>();
+        var thread = new Thread(() -> {     // use new thread to start with fresh thread local arena
+            LogEventArena arena1 = LogEventArena.acquire();
+            LogEventArena arena2 = LogEventArena.acquire();
+            arena1.release();
+            LogEventArena arena3 = LogEventArena.acquire();
+            arena3.detach();
+            arena3.release();
+            LogEventArena arena4 = LogEventArena.acquire();
+            arenas.set(new LogEventArena[]{arena1, arena2, arena3, arena4});
+        });
+        thread.start();
+        thread.join();
+
+        LogEventArena[] results = arenas.get();
+        assertThat(results[1]).isNotSameAs(results[0]);
+        assertThat(results[2]).isSameAs(results[0]);
+        assertThat(results[3]).isNotSameAs(results[0]);
+    }
+}
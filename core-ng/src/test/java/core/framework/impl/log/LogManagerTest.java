@@ -1,10 +1,15 @@
 package core.framework.impl.log;
 
+import core.framework.log.ActionLogContext;
 import core.framework.log.ErrorCode;
 import core.framework.log.Severity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -24,6 +29,26 @@ class LogManagerTest {
         assertEquals("java.lang.Exception", logManager.errorCode(new Exception()));
     }
 
+    @Test
+    void suspendAndResumeOnOtherThread() throws Exception {
+        ActionLog actionLog = logManager.begin("begin");
+        actionLog.context("key", "value");
+        ActionLog suspended = logManager.suspend();
+        assertThat(suspended).isSameAs(actionLog);
+        assertThat(ActionLogContext.id()).isNull();
+
+        CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> {
+            logManager.resume(suspended);
+            String id = ActionLogContext.id();
+            String context = ActionLogContext.get("key").orElse(null);
+            logManager.end("end");
+            return id + ":" + context;
+        });
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(actionLog.id + ":value");
+        assertThat(actionLog.elapsed).isGreaterThan(0);
+    }
+
     private static class TestException extends Exception implements ErrorCode {
         private static final long serialVersionUID = 4243205974337190882L;
 
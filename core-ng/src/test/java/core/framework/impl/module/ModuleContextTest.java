@@ -0,0 +1,32 @@
+package core.framework.impl.module;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class ModuleContextTest {
+    private ModuleContext context;
+
+    @BeforeEach
+    void createModuleContext() {
+        context = new ModuleContext();
+    }
+
+    @AfterEach
+    void cancelShutdownHook() {
+        context.shutdownHook.cancel();
+    }
+
+    @Test
+    void startHTTPServerAfterAllResourcesAreReady() {
+        context.backgroundTask();
+
+        assertThat(context.startupHook.tasks(StartupHook.STAGE_1)).containsExactly("background-task");
+        assertThat(context.startupHook.tasks(StartupHook.STAGE_2)).containsExactly("http-server");    // http server starts last, so health check only passes after app is ready
+    }
+}
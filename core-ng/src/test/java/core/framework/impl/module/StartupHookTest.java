@@ -0,0 +1,74 @@
+package core.framework.impl.module;
+
+import core.framework.async.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author neo
+ */
+class StartupHookTest {
+    private StartupHook startupHook;
+
+    @BeforeEach
+    void createStartupHook() {
+        startupHook = new StartupHook();
+    }
+
+    @Test
+    void execute() throws Exception {
+        var task1 = mock(Task.class);
+        var task2 = mock(Task.class);
+        var task3 = mock(Task.class);
+        startupHook.add(StartupHook.STAGE_0, "task1", task1);
+        startupHook.add(StartupHook.STAGE_0, "task2", task2);
+        startupHook.add(StartupHook.STAGE_2, "task3", task3);
+
+        startupHook.execute();
+        verify(task1).execute();
+        verify(task2).execute();
+        verify(task3).execute();
+        assertThat(startupHook.phases).extracting(phase -> phase.name).containsExactlyInAnyOrder("task1", "task2", "task3");
+    }
+
+    @Test
+    void executeInOrderOfStages() throws Exception {
+        var task1 = mock(Task.class);
+        var task2 = mock(Task.class);
+        var task3 = mock(Task.class);
+        startupHook.add(StartupHook.STAGE_2, "task3", task3);
+        startupHook.add(StartupHook.STAGE_1, "task2", task2);
+        startupHook.add(StartupHook.STAGE_0, "task1", task1);
+
+        startupHook.execute();
+        var inOrder = inOrder(task1, task2, task3);
+        inOrder.verify(task1).execute();
+        inOrder.verify(task2).execute();
+        inOrder.verify(task3).execute();
+    }
+
+    @Test
+    void executeWithFailedParallelTask() throws Exception {
+        var task1 = mock(Task.class);
+        doThrow(new Error("failed to initialize")).when(task1).execute();
+        var task2 = mock(Task.class);
+        var task3 = mock(Task.class);
+        startupHook.add(StartupHook.STAGE_0, "task1", task1);
+        startupHook.add(StartupHook.STAGE_0, "task2", task2);
+        startupHook.add(StartupHook.STAGE_1, "task3", task3);
+
+        assertThatThrownBy(() -> startupHook.execute())
+                .isInstanceOf(Error.class)
+                .hasMessage("failed to execute startup task, error=failed to initialize")
+                .hasCauseInstanceOf(Error.class);
+        verify(task3, never()).execute();
+    }
+}
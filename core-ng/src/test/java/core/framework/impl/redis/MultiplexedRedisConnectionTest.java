@@ -0,0 +1,77 @@
+package core.framework.impl.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import static core.framework.impl.redis.Protocol.Command.GET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+class MultiplexedRedisConnectionTest {
+    private MultiplexedRedisConnection connection;
+    private RedisMultiplexer multiplexer;
+
+    @BeforeEach
+    void createMultiplexedRedisConnection() {
+        multiplexer = mock(RedisMultiplexer.class);
+        connection = new MultiplexedRedisConnection(multiplexer, 10);
+    }
+
+    @Test
+    void sendCommands() throws IOException {
+        connection.writeArray(2);
+        connection.writeBulkString(GET);
+        connection.writeBulkString(RedisEncodings.encode("key1"));
+        connection.writeKeyCommand(GET, "key2");     // flush sends both commands
+
+        verify(multiplexer).send(any(), eq(2), eq(connection.replies));
+    }
+
+    @Test
+    void read() throws IOException {
+        connection.replies.add(RedisEncodings.encode("value"));
+        connection.replies.add(RedisMultiplexer.NULL_REPLY);
+        connection.replies.add(new RedisException("ERR"));
+        connection.replies.add(new IOException("connection reset"));
+
+        assertThat(connection.readBulkString()).isEqualTo(RedisEncodings.encode("value"));
+        assertThat(connection.readBulkString()).isNull();
+        assertThatThrownBy(() -> connection.read()).isInstanceOf(RedisException.class).hasMessage("ERR");
+        assertThatThrownBy(() -> connection.read()).isInstanceOf(IOException.class).hasMessage("connection reset");
+        assertThatThrownBy(() -> connection.read()).isInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    void closeSessionIfReadTimedOut() throws IOException {
+        RedisMultiplexer.Session session = mock(RedisMultiplexer.Session.class);
+        when(multiplexer.send(any(), eq(1), eq(connection.replies))).thenReturn(session);
+        connection.writeKeyCommand(GET, "key");
+
+        assertThatThrownBy(() -> connection.read()).isInstanceOf(SocketTimeoutException.class);
+        verify(session).close(any(SocketTimeoutException.class));
+    }
+
+    @Test
+    void readArray() throws IOException {
+        connection.replies.add(new Object[]{RedisEncodings.encode("cursor"), new Object[]{RedisEncodings.encode("key1"), null}});
+        connection.replies.add(10L);
+
+        assertThat(connection.readArrayLength()).isEqualTo(2);
+        assertThat(connection.readString()).isEqualTo("cursor");
+        assertThat(connection.readArrayLength()).isEqualTo(2);
+        assertThat(connection.readString()).isEqualTo("key1");
+        assertThat(connection.readBulkString()).isNull();
+        assertThat(connection.readLong()).isEqualTo(10);
+    }
+}
@@ -76,4 +76,47 @@ class ProtocolTest {
         byte[] response = (byte[]) Protocol.read(new RedisInputStream(stream));
         assertThat(decode(response)).isEmpty();
     }
+
+    @Test
+    void writeBulkStringWithString() throws IOException {
+        var stream = new ByteArrayOutputStream();
+        var outputStream = new RedisOutputStream(stream, 8192);
+        Protocol.writeBulkString(outputStream, "value");
+        Protocol.writeBulkString(outputStream, "值");
+        Protocol.writeBulkString(outputStream, "x".repeat(2000));
+        outputStream.flush();
+        assertThat(decode(stream.toByteArray())).isEqualTo("$5\r\nvalue\r\n$3\r\n值\r\n$2000\r\n" + "x".repeat(2000) + "\r\n");
+    }
+
+    @Test
+    void readExpectedLong() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes(":10\r\n"));
+        assertThat(Protocol.readLong(new RedisInputStream(stream))).isEqualTo(10);
+    }
+
+    @Test
+    void readExpectedString() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("$3\r\n值\r\n$-1\r\n")));
+        assertThat(Protocol.readString(stream)).isEqualTo("值");
+        assertThat(Protocol.readString(stream)).isNull();
+    }
+
+    @Test
+    void readArrayElements() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("*2\r\n$1\r\n1\r\n$-1\r\n")));
+        assertThat(Protocol.readArrayLength(stream)).isEqualTo(2);
+        assertThat(Protocol.readBulkString(stream)).isEqualTo(encode("1"));
+        assertThat(Protocol.readBulkString(stream)).isNull();
+    }
+
+    @Test
+    void readUnexpectedReply() {
+        assertThatThrownBy(() -> Protocol.readArrayLength(new RedisInputStream(new ByteArrayInputStream(Strings.bytes("-ERR wrong type\r\n")))))
+                .isInstanceOf(RedisException.class)
+                .hasMessage("ERR wrong type");
+
+        assertThatThrownBy(() -> Protocol.readLong(new RedisInputStream(new ByteArrayInputStream(Strings.bytes("+OK\r\n")))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("unexpected redis response");
+    }
 }
@@ -1,10 +1,14 @@
 package core.framework.impl.redis;
 
+import core.framework.util.Strings;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.Duration;
 
+import static core.framework.impl.redis.RedisEncodings.decode;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -38,4 +42,17 @@ class RedisImplTest {
 
         assertThat(redis.slowOperationThresholdInNanos).isEqualTo(threshold.toNanos());
     }
+
+    @Test
+    void ping() {
+        var request = new ByteArrayOutputStream();
+        var connection = new RedisConnection();
+        connection.outputStream = new RedisOutputStream(request, 512);
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("+PONG\r\n")));
+
+        assertThat(redis.ping(connection)).isTrue();
+        assertThat(decode(request.toByteArray())).isEqualTo("*1\r\n$4\r\nPING\r\n");
+
+        assertThat(redis.ping(connection)).isFalse();   // connection closed by server
+    }
 }
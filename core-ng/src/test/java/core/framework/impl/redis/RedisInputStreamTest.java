@@ -19,4 +19,13 @@ class RedisInputStreamTest {
 
         assertEquals("line1\rline2", message);
     }
+
+    @Test
+    void readString() throws IOException {
+        String value = "值".repeat(4000);    // larger than buffer
+        RedisInputStream stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("value\r\n" + value + "\r\n")));
+
+        assertEquals("value", stream.readString(5));
+        assertEquals(value, stream.readString(Strings.bytes(value).length));
+    }
 }
@@ -62,4 +62,38 @@ class RedisOutputStreamTest {
         stream.flush();
         assertEquals("12345", decode(output.toByteArray()));
     }
+
+    @Test
+    void writeBytes() throws IOException {
+        stream.write((byte) '1');
+        stream.write(Strings.bytes("2345"), 1, 3);
+        stream.write(Strings.bytes("678910"), 0, 6);
+        stream.flush();
+        assertEquals("1345678910", decode(output.toByteArray()));
+    }
+
+    @Test
+    void writeIntCRLF() throws IOException {
+        stream.writeIntCRLF(12);
+        stream.writeIntCRLF(1500);
+        stream.writeIntCRLF(-1);
+        stream.flush();
+        assertEquals("12\r\n1500\r\n-1\r\n", decode(output.toByteArray()));
+
+        output.reset();
+        var largeBufferStream = new RedisOutputStream(output, 16);
+        largeBufferStream.write((byte) '$');
+        largeBufferStream.writeIntCRLF(123456789);
+        largeBufferStream.writeIntCRLF(2048);
+        largeBufferStream.flush();
+        assertEquals("$123456789\r\n2048\r\n", decode(output.toByteArray()));
+    }
+
+    @Test
+    void writeASCIICRLF() throws IOException {
+        stream.write((byte) '1');
+        stream.writeASCIICRLF("23456");
+        stream.flush();
+        assertEquals("123456\r\n", decode(output.toByteArray()));
+    }
 }
@@ -0,0 +1,45 @@
+package core.framework.impl.redis;
+
+import core.framework.redis.RedisPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RedisPipelineOperationTest extends AbstractRedisOperationTest {
+    @Test
+    void execute() {
+        response("$6\r\nfoobar\r\n+OK\r\n:1\r\n:2\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("key1");
+        pipeline.set("key2", "value", Duration.ofMinutes(1));
+        pipeline.expire("key1", Duration.ofMinutes(1));
+        Supplier<Long> increased = pipeline.increaseBy("counter", 2);
+        pipeline.execute();
+
+        assertThat(value.get()).isEqualTo("foobar");
+        assertThat(increased.get()).isEqualTo(2);
+        assertRequestEquals("*2\r\n$3\r\nGET\r\n$4\r\nkey1\r\n"
+                + "*5\r\n$3\r\nSET\r\n$4\r\nkey2\r\n$5\r\nvalue\r\n$2\r\nex\r\n$2\r\n60\r\n"
+                + "*3\r\n$6\r\nEXPIRE\r\n$4\r\nkey1\r\n$2\r\n60\r\n"
+                + "*3\r\n$6\r\nINCRBY\r\n$7\r\ncounter\r\n$1\r\n2\r\n");
+    }
+
+    @Test
+    void executeWithError() {
+        response("-WRONGTYPE Operation against a key holding the wrong kind of value\r\n$5\r\nvalue\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value1 = pipeline.hget("key1", "field");
+        Supplier<String> value2 = pipeline.get("key2");
+
+        assertThatThrownBy(pipeline::execute).isInstanceOf(RedisException.class);
+        assertThatThrownBy(value1::get).isInstanceOf(RedisException.class);
+        assertThat(value2.get()).isEqualTo("value");
+    }
+}
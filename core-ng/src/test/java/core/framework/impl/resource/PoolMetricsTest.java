@@ -36,5 +36,20 @@ class PoolMetricsTest {
 
         assertEquals(1, stats.get("pool_test_active_count").intValue());
         assertEquals(2, stats.get("pool_test_total_count").intValue());
+        assertEquals(2, stats.get("pool_test_wait_lt_1ms_count") + stats.get("pool_test_wait_lt_5ms_count") + stats.get("pool_test_wait_lt_10ms_count"), 0.0001);
+        assertEquals(0, stats.get("pool_test_leak_count").intValue());
+    }
+
+    @Test
+    void collectCacheStats() {
+        Map<String, Double> stats = Maps.newHashMap();
+        metrics.collect(stats);
+        assertEquals(null, stats.get("pool_test_cache_hit_count"));
+
+        pool.cacheHits.increment();
+        pool.cacheMisses.increment();
+        metrics.collect(stats);
+        assertEquals(1, stats.get("pool_test_cache_hit_count").intValue());
+        assertEquals(1, stats.get("pool_test_cache_miss_count").intValue());
     }
 }
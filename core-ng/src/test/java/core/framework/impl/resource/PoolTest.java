@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
@@ -29,9 +33,32 @@ class PoolTest {
         assertThat(item.resource).isNotNull();
         pool.returnItem(item);
 
-        assertThat(pool.idleItems.size()).isEqualTo(1);
+        assertThat(pool.idleCount()).isEqualTo(1);
+        assertThat(pool.size.get()).isEqualTo(1);
+        assertThat(pool.items.get(0).returnTime).isGreaterThan(0);
+    }
+
+    @Test
+    void borrowLastUsedItem() {
+        pool.size(1, 5);
+        PoolItem<TestPoolResource> item1 = pool.borrowItem();
+        PoolItem<TestPoolResource> item2 = pool.borrowItem();
+        pool.returnItem(item1);
+        pool.returnItem(item2);
+
+        assertThat(pool.borrowItem()).isSameAs(item2);
+        assertThat(pool.activeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void borrowAfterLastUsedItemRemoved() {
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+        item.broken = true;
+        pool.returnItem(item);
+
+        PoolItem<TestPoolResource> newItem = pool.borrowItem();
+        assertThat(newItem).isNotSameAs(item);
         assertThat(pool.size.get()).isEqualTo(1);
-        assertThat(pool.idleItems.getFirst().returnTime).isGreaterThan(0);
     }
 
     @Test
@@ -43,7 +70,7 @@ class PoolTest {
         item.broken = true;
         pool.returnItem(item);
 
-        assertThat(pool.idleItems.size()).isZero();
+        assertThat(pool.idleCount()).isZero();
         assertThat(pool.size.get()).isZero();
         assertThat(item.resource.closed).isTrue();
     }
@@ -54,7 +81,7 @@ class PoolTest {
 
         pool.refresh();
         assertThat(pool.size.get()).isEqualTo(2);
-        assertThat(pool.idleItems.size()).isEqualTo(2);
+        assertThat(pool.idleCount()).isEqualTo(2);
     }
 
     @Test
@@ -69,7 +96,49 @@ class PoolTest {
 
         pool.refresh();
         assertThat(pool.size.get()).isEqualTo(1);
-        assertThat(pool.idleItems.size()).isEqualTo(1);
+        assertThat(pool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshWithValidation() {
+        pool.size(2, 5);
+        pool.maxIdleTime = Duration.ofHours(1);
+        pool.replenish();
+        PoolItem<TestPoolResource> invalidItem = pool.items.get(0);
+        pool.validator(resource -> resource != invalidItem.resource);
+
+        pool.refresh();
+        assertThat(invalidItem.resource.closed).isTrue();
+        assertThat(pool.items).doesNotContain(invalidItem);
+        assertThat(pool.size.get()).isEqualTo(2);
+        assertThat(pool.idleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void replenishWithSpareSize() {
+        pool.size(1, 3);
+        pool.spareSize(2);
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+
+        pool.replenish();
+        assertThat(pool.idleCount()).isEqualTo(2);
+        assertThat(pool.size.get()).isEqualTo(3);
+
+        pool.borrowItem();
+        pool.replenish();   // not exceed max size
+        assertThat(pool.size.get()).isEqualTo(3);
+        pool.returnItem(item);
+    }
+
+    @Test
+    void warmUp() throws InterruptedException {
+        pool.size(3, 5);
+        pool.warmUp();
+
+        for (int i = 0; i < 100 && pool.idleCount() < 3; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.idleCount()).isEqualTo(3);
     }
 
     @Test
@@ -79,12 +148,76 @@ class PoolTest {
         assertThat(exception.errorCode()).isEqualTo("POOL_TIME_OUT");
     }
 
+    @Test
+    void recordWaitTimeWithoutCreation() {
+        pool = new Pool<>(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new Error(e);
+            }
+            return new TestPoolResource();
+        }, "pool");
+        pool.returnItem(pool.borrowItem());
+
+        assertThat(pool.waitTimes[0].sum()).isEqualTo(1);
+    }
+
+    @Test
+    void borrowConcurrently() throws Exception {
+        pool.size(1, 3);
+        pool.checkoutTimeout(Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<?>> futures = Lists.newArrayList();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        PoolItem<TestPoolResource> item = pool.borrowItem();
+                        assertThat(pool.activeCount()).isLessThanOrEqualTo(3);
+                        pool.returnItem(item);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(pool.size.get()).isLessThanOrEqualTo(3);
+        assertThat(pool.activeCount()).isZero();
+    }
+
+    @Test
+    void detectLeaks() {
+        pool.leakDetectionThreshold(Duration.ofSeconds(1));
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+        assertThat(item.borrowStack).isNotNull();
+
+        pool.detectLeaks(item.borrowTime);
+        assertThat(pool.leaks.sum()).isZero();
+
+        pool.detectLeaks(item.borrowTime + 1000);
+        pool.detectLeaks(item.borrowTime + 2000);
+        assertThat(pool.leaks.sum()).isEqualTo(1);
+
+        pool.returnItem(item);
+        assertThat(item.borrowStack).isNull();
+    }
+
     @Test
     void close() {
         PoolItem<TestPoolResource> item = pool.borrowItem();
+        PoolItem<TestPoolResource> activeItem = pool.borrowItem();
         pool.returnItem(item);
 
         pool.close();
         assertThat(item.resource.closed).isTrue();
+        assertThat(activeItem.resource.closed).isFalse();
+
+        pool.returnItem(activeItem);
+        assertThat(activeItem.resource.closed).isTrue();
+        assertThat(catchThrowableOfType(() -> pool.borrowItem(), PoolException.class).errorCode()).isEqualTo("POOL_CLOSED");
     }
 }
@@ -1,11 +1,21 @@
 package core.framework.impl.web;
 
+import core.framework.api.http.HTTPStatus;
 import core.framework.impl.log.ActionLog;
+import core.framework.impl.web.response.AsyncResponse;
+import core.framework.web.Response;
 import io.undertow.util.HeaderMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author neo
@@ -29,4 +39,44 @@ class HTTPHandlerTest {
         assertThat(actionLog.trace).isTrue();
         assertThat(actionLog.clients).containsExactly("client");
     }
+
+    @Test
+    void whenComplete() throws Exception {
+        var stage = new CompletableFuture<String>();
+        var result = new CompletableFuture<String>();
+        HTTPHandler.whenComplete(stage, Duration.ofMinutes(1), (value, error) -> result.complete(value));
+        stage.complete("value");
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+
+    @Test
+    void whenCompleteWithTimeout() throws Exception {
+        var stage = new CompletableFuture<String>();     // never completes
+        var result = new CompletableFuture<Throwable>();
+        HTTPHandler.whenComplete(stage, Duration.ofMillis(10), (value, error) -> result.complete(error));
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isInstanceOf(TimeoutException.class);
+        assertThat(stage).isNotDone();
+    }
+
+    @Test
+    void asyncResponse() throws Throwable {
+        var asyncResponse = new AsyncResponse(new CompletableFuture<>());
+        asyncResponse.status(HTTPStatus.CREATED);      // changed by interceptor before stage completed
+
+        Response response = handler.asyncResponse(asyncResponse, Response.text("value"), null);
+        assertThat(response.status()).isEqualTo(HTTPStatus.CREATED);
+    }
+
+    @Test
+    void asyncResponseWithError() {
+        var asyncResponse = new AsyncResponse(new CompletableFuture<>());
+        var error = new IllegalStateException("error");
+
+        assertThatThrownBy(() -> handler.asyncResponse(asyncResponse, null, new CompletionException(error))).isSameAs(error);
+        assertThatThrownBy(() -> handler.asyncResponse(asyncResponse, null, new TimeoutException()))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("not completed within max process time");
+    }
 }
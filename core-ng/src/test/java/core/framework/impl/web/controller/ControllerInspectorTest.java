@@ -5,6 +5,8 @@ import core.framework.web.Request;
 import core.framework.web.Response;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletionStage;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -37,6 +39,14 @@ class ControllerInspectorTest {
         assertEquals(TestController.class.getCanonicalName() + ".execute", inspector.controllerInfo);
     }
 
+    @Test
+    void asyncController() throws NoSuchMethodException {
+        var inspector = ControllerInspector.async(new TestControllers()::getAsync);
+        assertEquals(TestControllers.class, inspector.targetClass);
+        assertEquals(TestControllers.class.getDeclaredMethod("getAsync", Request.class), inspector.targetMethod);
+        assertEquals(TestControllers.class.getCanonicalName() + ".getAsync", inspector.controllerInfo);
+    }
+
     public static class TestController implements Controller {
         @Override
         public Response execute(Request request) {
@@ -48,5 +58,9 @@ class ControllerInspectorTest {
         public Response get(Request request) {
             return null;
         }
+
+        public CompletionStage<Response> getAsync(Request request) {
+            return null;
+        }
     }
 }
@@ -1,12 +1,19 @@
 package core.framework.impl.web.http;
 
+import core.framework.redis.Redis;
+import core.framework.redis.RedisPipeline;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * @author neo
@@ -14,22 +21,60 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 class RateLimiterTest {
     @Test
     void acquire() {
-        RateLimiter.Rate rate = new RateLimiter.Rate(1);
-        rate.lastUpdateTime = 100;
-        boolean result = rate.acquire(101, 2, 1);
+        RateLimiter.Rate rate = new RateLimiter.Rate(101);  // 1 permit left of 2 at 100, fill 1 permit per nano
+        boolean result = rate.acquire(101, 1, 2);
         assertTrue(result);
-        assertEquals(1, rate.currentPermits, 0.000001);
 
-        result = rate.acquire(101, 2, 1);
+        result = rate.acquire(101, 1, 2);
         assertTrue(result);
-        assertEquals(0, rate.currentPermits, 0.000001);
+        assertFalse(rate.full(102));
 
-        result = rate.acquire(101, 2, 1);
+        result = rate.acquire(101, 1, 2);
         assertFalse(result);
 
-        result = rate.acquire(102, 2, 1);
+        result = rate.acquire(102, 1, 2);
         assertTrue(result);
-        assertEquals(0, rate.currentPermits, 0.000001);
+        assertTrue(rate.full(104));
+    }
+
+    @Test
+    void acquireWithGroup() {
+        var limiter = new RateLimiter(2);
+        limiter.config("group", 1, 1, TimeUnit.DAYS);
+
+        assertTrue(limiter.acquire("group", "10.0.0.1"));
+        assertFalse(limiter.acquire("group", "10.0.0.1"));
+        assertTrue(limiter.acquire("group", "10.0.0.2"));
+        assertTrue(limiter.acquire("group", "10.0.0.3"));
+        assertThat(limiter.acquire("notDefinedGroup", "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void evict() {
+        var group = new RateLimiter.RateGroup("group", 1, 1);
+        group.rates.put("10.0.0.1", new RateLimiter.Rate(100));
+        group.rates.put("10.0.0.2", new RateLimiter.Rate(200));
+        group.rates.put("10.0.0.3", new RateLimiter.Rate(300));
+
+        group.evict(150, 2);
+        assertThat(group.rates).doesNotContainKey("10.0.0.1").hasSize(2);
+
+        group.evict(150, 1);
+        assertThat(group.rates).hasSize(1);
+    }
+
+    @Test
+    void acquireFromRedis() {
+        var limiter = new RateLimiter(1);
+        limiter.config("group", 2, 2, TimeUnit.MINUTES);
+        var redis = mock(Redis.class);
+        var pipeline = mock(RedisPipeline.class);
+        when(redis.pipeline()).thenReturn(pipeline);
+        when(pipeline.increaseBy(anyString(), anyLong())).thenReturn(() -> 2L).thenReturn(() -> 3L);
+        limiter.redis = redis;
+
+        assertTrue(limiter.acquire("group", "10.0.0.1"));
+        assertFalse(limiter.acquire("group", "10.0.0.1"));
     }
 
     @Test
@@ -0,0 +1,131 @@
+package core.framework.impl.web.request;
+
+import core.framework.util.Strings;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.util.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xnio.ChannelListener;
+import org.xnio.XnioWorker;
+import org.xnio.channels.StreamSourceChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+class RequestBodyReaderTest {
+    private HttpServerExchange exchange;
+    private XnioWorker worker;
+    private StreamSourceChannel channel;
+
+    @BeforeEach
+    void createExchange() {
+        var connection = mock(ServerConnection.class);
+        worker = mock(XnioWorker.class);
+        when(connection.getWorker()).thenReturn(worker);
+        exchange = new HttpServerExchange(connection, -1);
+        channel = mock(StreamSourceChannel.class);
+        @SuppressWarnings("unchecked")
+        ChannelListener.Setter<StreamSourceChannel> readSetter = mock(ChannelListener.Setter.class);
+        doReturn(readSetter).when(channel).getReadSetter();
+    }
+
+    @Test
+    void readWithinThreshold() throws Throwable {
+        exchange.getRequestHeaders().put(Headers.CONTENT_LENGTH, 8);
+        var reader = new RequestBodyReader(exchange, null, 10);
+        chunks(channel, "1234", "5678");
+
+        reader.read(channel, ByteBuffer.allocate(4));
+
+        assertThat(reader.complete()).isTrue();
+        assertThat(reader.dispatched()).isFalse();
+        RequestBodyReader.RequestBody body = exchange.getAttachment(RequestBodyReader.REQUEST_BODY);
+        assertThat(body.file).isNull();
+        assertThat(body.body()).isEqualTo(Strings.bytes("12345678"));
+    }
+
+    @Test
+    void spillIfExceedsThreshold() throws Throwable {
+        var reader = new RequestBodyReader(exchange, null, 10);     // without content length
+        chunks(channel, "1234", "5678", "9012");
+
+        reader.read(channel, ByteBuffer.allocate(4));
+
+        assertThat(reader.complete()).isFalse();
+        assertThat(reader.dispatched()).isTrue();
+        verify(channel).suspendReads();
+        verify(worker).execute(any(Runnable.class));    // file io is dispatched to worker thread
+
+        chunks(channel, "3456");
+        reader.spill(channel, ByteBuffer.allocate(4));
+
+        assertThat(reader.complete()).isTrue();
+        RequestBodyReader.RequestBody body = exchange.getAttachment(RequestBodyReader.REQUEST_BODY);
+        assertThat(body.size).isEqualTo(16);
+        assertThat(Files.readAllBytes(body.file)).isEqualTo(Strings.bytes("1234567890123456"));
+
+        ExchangeCompletionListener.NextListener next = mock(ExchangeCompletionListener.NextListener.class);
+        reader.deleteFileListener.exchangeEvent(exchange, next);
+        assertThat(body.file).doesNotExist();
+        verify(next).proceed();
+    }
+
+    @Test
+    void dispatchIfContentLengthExceedsThreshold() throws IOException {
+        exchange.getRequestHeaders().put(Headers.CONTENT_LENGTH, 20);
+        var reader = new RequestBodyReader(exchange, null, 10);
+
+        reader.read(channel, ByteBuffer.allocate(4));
+
+        assertThat(reader.dispatched()).isTrue();
+        verify(channel).suspendReads();
+        verify(channel, never()).read(any(ByteBuffer.class));
+    }
+
+    @Test
+    void spillWithPrematureEnd() throws IOException {
+        exchange.getRequestHeaders().put(Headers.CONTENT_LENGTH, 20);
+        var reader = new RequestBodyReader(exchange, null, 10);
+        chunks(channel, "1234");
+
+        reader.spill(channel, ByteBuffer.allocate(4));
+
+        assertThat(reader.complete()).isTrue();
+        RequestBodyReader.RequestBody body = exchange.getAttachment(RequestBodyReader.REQUEST_BODY);
+        assertThatThrownBy(body::body)
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("body ends prematurely");
+        verify(channel).close();
+
+        reader.deleteFileListener.exchangeEvent(exchange, mock(ExchangeCompletionListener.NextListener.class));   // cleanup temp file
+    }
+
+    private void chunks(StreamSourceChannel channel, String... chunks) throws IOException {
+        Deque<byte[]> queue = new ArrayDeque<>();
+        for (String chunk : chunks) queue.add(Strings.bytes(chunk));
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(invocation -> {
+            byte[] chunk = queue.poll();
+            if (chunk == null) return -1;
+            ByteBuffer buffer = invocation.getArgument(0);
+            buffer.put(chunk);
+            return chunk.length;
+        });
+    }
+}
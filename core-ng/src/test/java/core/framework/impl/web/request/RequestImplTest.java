@@ -12,6 +12,10 @@ import core.framework.web.exception.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,6 +51,41 @@ class RequestImplTest {
         assertThat(bean.bigDecimalField).isEqualTo("1");
     }
 
+    @Test
+    void beanWithJSONBodyFile() throws IOException {
+        Path file = Files.createTempFile("request-body-", null);
+        try {
+            Files.write(file, Strings.bytes("{\"big_decimal_field\": 1, \"int_field\": 3}"));
+            request.method = HTTPMethod.POST;
+            request.contentType = ContentType.APPLICATION_JSON;
+            request.bodyFile = file;
+
+            TestBean bean = request.bean(TestBean.class);
+            assertThat(bean.bigDecimalField).isEqualTo("1");
+
+            assertThat(bodyStreamBytes()).isEqualTo(Files.readAllBytes(file));
+            assertThatThrownBy(() -> request.body())
+                    .isInstanceOf(Error.class)
+                    .hasMessageContaining("larger than spill threshold");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void bodyStream() throws IOException {
+        assertThat(request.bodyStream()).isEmpty();
+
+        request.body = Strings.bytes("body");
+        assertThat(bodyStreamBytes()).isEqualTo(request.body);
+    }
+
+    private byte[] bodyStreamBytes() throws IOException {
+        try (InputStream stream = request.bodyStream().orElseThrow()) {
+            return stream.readAllBytes();
+        }
+    }
+
     @Test
     void beanWithFormPost() {
         request.method = HTTPMethod.POST;
@@ -10,6 +10,7 @@ import io.undertow.util.Headers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
@@ -93,6 +94,17 @@ class RequestParserTest {
         assertThat(request.body()).hasValue(body);
     }
 
+    @Test
+    void parseBodyFile() throws Throwable {
+        var request = new RequestImpl(null, null);
+        var exchange = new HttpServerExchange(null, -1);
+        Path file = Path.of("request-body.tmp");
+        exchange.putAttachment(RequestBodyReader.REQUEST_BODY, new RequestBodyReader.RequestBody(file, 100));
+        parser.parseBody(request, exchange);
+
+        assertThat(request.bodyFile).isEqualTo(file);
+    }
+
     @Test
     void requestURL() {
         var exchange = new HttpServerExchange(null, -1);
@@ -0,0 +1,42 @@
+package core.framework.impl.web.response;
+
+import core.framework.api.http.HTTPStatus;
+import core.framework.web.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class AsyncResponseTest {
+    @Test
+    void apply() {
+        var asyncResponse = new AsyncResponse(new CompletableFuture<>());
+        asyncResponse.status(HTTPStatus.CREATED).header("x-key", "value");
+
+        Response response = asyncResponse.apply(Response.text("text"));
+        assertThat(response.status()).isEqualTo(HTTPStatus.CREATED);
+        assertThat(((ResponseImpl) response).headers).hasSize(2);   // with content type header
+    }
+
+    @Test
+    void applyNullResponse() {
+        var asyncResponse = new AsyncResponse(new CompletableFuture<>());
+        assertThatThrownBy(() -> asyncResponse.apply(null))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("must not complete with null response");
+    }
+
+    @Test
+    void status() {
+        assertThatThrownBy(() -> new AsyncResponse(new CompletableFuture<>()).status())
+                .isInstanceOf(Error.class);
+        assertThatThrownBy(() -> new AsyncResponse(null))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("must not return null stage");
+    }
+}
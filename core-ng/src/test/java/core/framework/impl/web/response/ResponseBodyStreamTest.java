@@ -0,0 +1,132 @@
+package core.framework.impl.web.response;
+
+import core.framework.util.Strings;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.BlockingHttpExchange;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+class ResponseBodyStreamTest {
+    private final List<TestBuffer> allocated = new ArrayList<>();
+    private ResponseBodyStream stream;
+    private ServerConnection connection;
+    private HttpServerExchange exchange;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void createResponseBodyStream() {
+        ByteBufferPool pool = mock(ByteBufferPool.class);
+        when(pool.allocate()).thenAnswer(invocation -> {
+            var buffer = new TestBuffer();
+            allocated.add(buffer);
+            return buffer;
+        });
+        connection = mock(ServerConnection.class);
+        when(connection.getByteBufferPool()).thenReturn(pool);
+        exchange = new HttpServerExchange(connection);
+        output = new ByteArrayOutputStream();
+        BlockingHttpExchange blockingExchange = mock(BlockingHttpExchange.class);
+        when(blockingExchange.getOutputStream()).thenReturn(output);
+        exchange.startBlocking(blockingExchange);
+        stream = new ResponseBodyStream(exchange, 1024);
+    }
+
+    @Test
+    void write() throws IOException {
+        stream.write(Strings.bytes("{\"field\":\"value of more than 16 bytes\"}"));
+        stream.write('\n');
+
+        assertThat(stream.size()).isEqualTo(40);
+        assertThat(stream.chunked()).isFalse();
+        assertThat(stream.head(10)).isEqualTo(Strings.bytes("{\"field\":\""));
+        assertThat(stream.head(100)).hasSize(40);
+
+        var sender = mock(Sender.class);
+        stream.send(sender);
+        verify(sender).send(any(ByteBuffer[].class), any(IoCallback.class));
+    }
+
+    @Test
+    void headAcrossBuffers() throws IOException {
+        stream.write(Strings.bytes("0123456789abcdefghij"));
+
+        assertThat(stream.head(18)).isEqualTo(Strings.bytes("0123456789abcdefgh"));
+        assertThat(stream.head(20)).isEqualTo(Strings.bytes("0123456789abcdefghij"));
+        assertThat(allocated).hasSize(2);
+    }
+
+    @Test
+    void switchToChunked() throws IOException {
+        var stream = new ResponseBodyStream(exchange, 32);
+        stream.write(Strings.bytes("0123456789abcdef0123456789abcdef"));
+        assertThat(stream.chunked()).isFalse();
+        assertThat(output.size()).isZero();
+
+        stream.write('x');
+        stream.write(Strings.bytes("yz"));
+
+        assertThat(stream.chunked()).isTrue();
+        assertThat(stream.size()).isEqualTo(35);
+        assertThat(output.toByteArray()).isEqualTo(Strings.bytes("0123456789abcdef0123456789abcdefxyz"));
+        assertThat(allocated).allSatisfy(buffer -> assertThat(buffer.isOpen()).isFalse());
+    }
+
+    @Test
+    void abortBeforeChunked() throws IOException {
+        stream.write(Strings.bytes("0123456789abcdefghij"));
+        stream.abort();
+
+        assertThat(allocated).allSatisfy(buffer -> assertThat(buffer.isOpen()).isFalse());
+        verify(connection, never()).close();
+    }
+
+    @Test
+    void abortAfterChunked() throws IOException {
+        var stream = new ResponseBodyStream(exchange, 32);
+        stream.write(Strings.bytes("0123456789abcdef0123456789abcdefxyz"));
+        stream.abort();
+
+        verify(connection).close();     // partial body was sent, close connection instead of rendering error response
+    }
+
+    private static class TestBuffer implements PooledByteBuffer {
+        private final ByteBuffer buffer = ByteBuffer.allocate(16);
+        private boolean open = true;
+
+        @Override
+        public ByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+    }
+}
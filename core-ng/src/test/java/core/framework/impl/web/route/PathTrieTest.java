@@ -0,0 +1,81 @@
+package core.framework.impl.web.route;
+
+import core.framework.impl.web.request.PathParams;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class PathTrieTest {
+    private PathNode root;
+
+    @BeforeEach
+    void createPathNode() {
+        root = new PathNode(null);
+    }
+
+    @Test
+    void compressedStaticPath() {
+        URLHandler handler1 = root.register("/_sys/cache/:name/:key");
+        URLHandler handler2 = root.register("/_sys/job/:job");
+        URLHandler handler3 = root.register("/api/v1/user/:id/orders/:orderId/");
+        PathTrie trie = PathTrie.compile(root);
+
+        var pathParams = new PathParams();
+        assertThat(trie.find("/_sys/cache/local/key1", pathParams)).isSameAs(handler1);
+        assertThat(pathParams.get("name")).isEqualTo("local");
+        assertThat(pathParams.get("key")).isEqualTo("key1");
+
+        pathParams = new PathParams();
+        assertThat(trie.find("/_sys/job/job1", pathParams)).isSameAs(handler2);
+        assertThat(pathParams.get("job")).isEqualTo("job1");
+
+        pathParams = new PathParams();
+        assertThat(trie.find("/api/v1/user/1/orders/2/", pathParams)).isSameAs(handler3);
+        assertThat(pathParams.get("id")).isEqualTo("1");
+        assertThat(pathParams.get("orderId")).isEqualTo("2");
+
+        assertThat(trie.find("/api/v1/user/1/orders/2", new PathParams())).isNull();
+        assertThat(trie.find("/api/v1/users/1/orders/2/", new PathParams())).isNull();
+        assertThat(trie.find("/_sys/jobs/job1", new PathParams())).isNull();
+    }
+
+    @Test
+    void fallbackToDynamic() {
+        URLHandler handler1 = root.register("/path1/path2/:var1");
+        URLHandler handler2 = root.register("/:var1/path2/path3");
+        PathTrie trie = PathTrie.compile(root);
+
+        var pathParams = new PathParams();
+        assertThat(trie.find("/path1/path2/path3", pathParams)).isSameAs(handler1);
+        assertThat(pathParams.get("var1")).isEqualTo("path3");
+
+        pathParams = new PathParams();
+        assertThat(trie.find("/path1/path2/path3/", pathParams)).isNull();
+
+        root.register("/:var1/path2/path3/");
+        trie = PathTrie.compile(root);
+        pathParams = new PathParams();
+        assertThat(trie.find("/path1/path2/path3/", pathParams)).isNotNull().isNotSameAs(handler2);
+        assertThat(pathParams.get("var1")).isEqualTo("path1");
+    }
+
+    @Test
+    void wildcardPathPattern() {
+        URLHandler handler = root.register("/path1/:url(*)");
+        PathTrie trie = PathTrie.compile(root);
+
+        var pathParams = new PathParams();
+        assertThat(trie.find("/path1/a/path2/", pathParams)).isSameAs(handler);
+        assertThat(pathParams.get("url")).isEqualTo("a/path2/");
+
+        pathParams = new PathParams();
+        assertThat(trie.find("/path1/", pathParams)).isSameAs(handler);
+        assertThat(pathParams.get("url")).isEqualTo("/");
+
+        assertThat(trie.find("/", new PathParams())).isNull();
+    }
+}
@@ -0,0 +1,81 @@
+package core.framework.internal.log.appender;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class RingBufferTest {
+    private RingBuffer<Integer> buffer;
+
+    @BeforeEach
+    void createRingBuffer() {
+        buffer = new RingBuffer<>(4);
+    }
+
+    @Test
+    void capacity() {
+        assertThatThrownBy(() -> new RingBuffer<>(3))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("power of 2");
+        assertThat(buffer.capacity()).isEqualTo(4);
+    }
+
+    @Test
+    void offerAndPoll() {
+        assertThat(buffer.poll()).isNull();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    void drainTo() {
+        for (int i = 0; i < 4; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> results = new ArrayList<>();
+        assertThat(buffer.drainTo(results, 3)).isEqualTo(3);
+        assertThat(results).containsExactly(0, 1, 2);
+
+        assertThat(buffer.drainTo(results, 3)).isEqualTo(1);
+        assertThat(results).containsExactly(0, 1, 2, 3);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offerConcurrently() throws InterruptedException {
+        var buffer = new RingBuffer<Integer>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 200; j++) {
+                    buffer.offer(j);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<Integer> results = new ArrayList<>();
+        assertThat(buffer.drainTo(results, 1024)).isEqualTo(800);
+    }
+}
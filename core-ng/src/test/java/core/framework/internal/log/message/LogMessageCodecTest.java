@@ -0,0 +1,111 @@
+package core.framework.internal.log.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class LogMessageCodecTest {
+    private LogMessageCodec codec;
+
+    @BeforeEach
+    void createLogMessageCodec() {
+        codec = new LogMessageCodec();
+    }
+
+    @Test
+    void encodeActionLog() {
+        var message = new ActionLogMessage();
+        message.id = "id";
+        message.date = Instant.parse("2018-11-01T08:00:00.123456789Z");
+        message.app = "app";
+        message.result = "WARN";
+        message.action = "api:get:/test";
+        message.correlationIds = List.of("correlationId");
+        message.errorCode = "NOT_FOUND";
+        message.errorMessage = "not found, 中文";
+        message.elapsed = 1_000_000L;
+        message.cpuTime = -1L;
+        message.context = Map.of("controller", "TestController.get", "clientIP", "127.0.0.1");
+        message.stats = Map.of("count", 2.5);
+        var stat = new PerformanceStat();
+        stat.count = 1;
+        stat.totalElapsed = 100L;
+        stat.readEntries = 10;
+        message.performanceStats = Map.of("db", stat);
+        message.traceLog = "trace";
+
+        ActionLogMessage decodedMessage = codec.decodeActionLog(codec.encode(message));
+
+        assertThat(decodedMessage).isEqualToIgnoringGivenFields(message, "performanceStats");
+        assertThat(decodedMessage.serverIP).isNull();
+        assertThat(decodedMessage.clients).isNull();
+        assertThat(decodedMessage.performanceStats.get("db")).isEqualToComparingFieldByField(stat);
+    }
+
+    @Test
+    void encodeStat() {
+        var message = new StatMessage();
+        message.id = "id";
+        message.date = Instant.now();
+        message.app = "app";
+        message.serverIP = "10.0.0.1";
+        message.stats = Map.of("cpu_usage", 0.5, "pool_db_active_count", 3.0);
+
+        StatMessage decodedMessage = codec.decodeStat(codec.encode(message));
+
+        assertThat(decodedMessage).isEqualToComparingFieldByField(message);
+    }
+
+    @Test
+    void decodeWithInvalidType() {
+        byte[] bytes = codec.encode(new StatMessage());
+
+        assertThatThrownBy(() -> codec.decodeActionLog(bytes))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("invalid binary log message");
+    }
+
+    @Test
+    void decodeWithNewerDictionary() {
+        var output = new LogMessageCodec.Output(8);
+        output.writeByte(LogMessageCodec.VERSION);
+        output.writeByte(LogMessageCodec.TYPE_STAT);
+        output.writeVarLong(10000);
+        byte[] bytes = output.toByteArray();
+
+        assertThatThrownBy(() -> codec.decodeStat(bytes))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("newer dictionary");
+    }
+
+    @Test
+    void writeString() {
+        var output = new LogMessageCodec.Output(1);
+        output.writeString(null);
+        output.writeString("OK");
+        output.writeString("value");
+        byte[] bytes = output.toByteArray();
+        assertThat(bytes).hasSize(1 + 1 + 1 + 5);
+
+        var input = new LogMessageCodec.Input(concat(new byte[]{LogMessageCodec.VERSION, LogMessageCodec.TYPE_STAT, 0}, bytes), LogMessageCodec.TYPE_STAT);
+        assertThat(input.readString()).isNull();
+        assertThat(input.readString()).isEqualTo("OK");
+        assertThat(input.readString()).isEqualTo("value");
+    }
+
+    private byte[] concat(byte[] bytes1, byte[] bytes2) {
+        byte[] result = new byte[bytes1.length + bytes2.length];
+        System.arraycopy(bytes1, 0, result, 0, bytes1.length);
+        System.arraycopy(bytes2, 0, result, bytes1.length, bytes2.length);
+        return result;
+    }
+}
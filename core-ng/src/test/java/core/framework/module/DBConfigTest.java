@@ -21,4 +21,10 @@ class DBConfigTest {
         assertThatThrownBy(() -> config.validate())
                 .hasMessageContaining("db url must be configured");
     }
+
+    @Test
+    void batchMaxBytes() {
+        assertThatThrownBy(() -> config.batchMaxBytes(0))
+                .hasMessageContaining("batch max bytes must be greater than 0");
+    }
 }
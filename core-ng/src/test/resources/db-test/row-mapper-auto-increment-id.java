@@ -2,14 +2,26 @@ public class RowMapper$AutoIncrementIdEntity implements core.framework.impl.db.R
     private final core.framework.impl.db.DBEnumMapper enumFieldMappings = new core.framework.impl.db.DBEnumMapper(core.framework.impl.db.TestEnum.class);
 
     public Object map(core.framework.impl.db.ResultSetWrapper resultSet) {
+        int[] indexes = resultSet.columnIndexes;
         core.framework.impl.db.AutoIncrementIdEntity entity = new core.framework.impl.db.AutoIncrementIdEntity();
-        entity.id = resultSet.getInt("id");
-        entity.stringField = resultSet.getString("string_field");
-        entity.doubleField = resultSet.getDouble("double_field");
-        entity.enumField = (core.framework.impl.db.TestEnum)enumFieldMappings.getEnum(resultSet.getString("enum_field"));
-        entity.dateTimeField = resultSet.getLocalDateTime("date_time_field");
-        entity.zonedDateTimeField = resultSet.getZonedDateTime("zoned_date_time_field");
+        entity.id = resultSet.getInt(indexes[0]);
+        entity.stringField = resultSet.getString(indexes[1]);
+        entity.doubleField = resultSet.getDouble(indexes[2]);
+        entity.enumField = (core.framework.impl.db.TestEnum)enumFieldMappings.getEnum(resultSet.getString(indexes[3]));
+        entity.dateTimeField = resultSet.getLocalDateTime(indexes[4]);
+        entity.zonedDateTimeField = resultSet.getZonedDateTime(indexes[5]);
         return entity;
     }
 
+    public String[] columns() {
+        String[] columns = new String[6];
+        columns[0] = "id";
+        columns[1] = "string_field";
+        columns[2] = "double_field";
+        columns[3] = "enum_field";
+        columns[4] = "date_time_field";
+        columns[5] = "zoned_date_time_field";
+        return columns;
+    }
+
 }
@@ -1,6 +1,7 @@
 package core.log;
 
 import core.framework.internal.log.message.ActionLogMessage;
+import core.framework.internal.log.message.LogMessageCodec;
 import core.framework.internal.log.message.LogTopics;
 import core.framework.internal.log.message.StatMessage;
 import core.framework.module.App;
@@ -48,6 +49,9 @@ public class LogProcessorApp extends App {
         kafka().maxPoll(2000, 3 * 1024 * 1024);     // get 3M message at max
         kafka().subscribe(LogTopics.TOPIC_ACTION_LOG, ActionLogMessage.class, bind(ActionLogMessageHandler.class));
         kafka().subscribe(LogTopics.TOPIC_STAT, StatMessage.class, bind(StatMessageHandler.class));
+        var codec = new LogMessageCodec();
+        kafka().decoder(LogTopics.TOPIC_ACTION_LOG, ActionLogMessage.class, LogMessageCodec.CONTENT_TYPE, codec::decodeActionLog);
+        kafka().decoder(LogTopics.TOPIC_STAT, StatMessage.class, LogMessageCodec.CONTENT_TYPE, codec::decodeStat);
 
         schedule().dailyAt("cleanup-old-index-job", bind(CleanupOldIndexJob.class), LocalTime.of(1, 0));
     }